@@ -0,0 +1,52 @@
+package benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * AnalysisParseBenchmark - Parsing of recorded LLM completions in the text
+ * (SUMMARY/TOPICS/KEY_POINTS/RELEVANCE) and JSON formats
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnalysisParseBenchmark {
+
+    private static final Class<?> ANALYSIS = Targets.type("LLMProcessor$ArticleAnalysis");
+    private static final MethodHandle PARSE_TEXT =
+            Targets.findStatic("LLMProcessor", "parseAnalysisResponse", ANALYSIS, String.class);
+    private static final MethodHandle PARSE_JSON =
+            Targets.findStatic("LLMProcessor", "parseJsonAnalysis", ANALYSIS, String.class);
+
+    private String textCompletion;
+    private String jsonCompletion;
+
+    @Setup
+    public void setUp() {
+        textCompletion = Targets.fixture("completion_text.txt");
+        jsonCompletion = Targets.fixture("completion_json.txt");
+    }
+
+    @Benchmark
+    public Object parseTextResponse() throws Throwable {
+        return PARSE_TEXT.invoke(textCompletion);
+    }
+
+    @Benchmark
+    public Object parseJsonResponse() throws Throwable {
+        return PARSE_JSON.invoke(jsonCompletion);
+    }
+}
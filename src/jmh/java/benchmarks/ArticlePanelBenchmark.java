@@ -0,0 +1,59 @@
+package benchmarks;
+
+import java.awt.Component;
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import javax.swing.JPanel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ArticlePanelBenchmark - Construction of one article card in the digest GUI
+ *
+ * Runs headless. createArticlePanel is static, so no window is created; the
+ * button listeners it wires up are never fired here.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ArticlePanelBenchmark {
+
+    private static final Class<?> ARTICLE = Targets.type("DailyDigestGUI$Article");
+    private static final MethodHandle NEW_ARTICLE = Targets.findConstructor("DailyDigestGUI$Article",
+            String.class, String.class, String.class, String.class, int.class, String.class, String.class);
+    private static final MethodHandle CREATE_ARTICLE_PANEL =
+            Targets.findStatic("DailyDigestGUI", "createArticlePanel", JPanel.class,
+                    ARTICLE, int.class, Component.class, Consumer.class);
+    private static final Consumer<Object> NO_RELATED = related -> { };
+
+    private Object article;
+
+    @Setup
+    public void setUp() throws Throwable {
+        article = NEW_ARTICLE.invoke(
+                "Startup raises funding to scale its inference platform for enterprise customers",
+                "A startup raised a large funding round to scale its inference platform, aiming to cut "
+                        + "latency for enterprise customers while expanding into new regions.",
+                "AI, Startups, Funding, Cloud",
+                "The round values the company at several billion dollars | Revenue grew threefold "
+                        + "| The money will fund new data centers | Regulators are reviewing privacy practices",
+                8, "https://example.com/articles/1", "2026-10-18");
+    }
+
+    @Benchmark
+    public JPanel createArticlePanel() throws Throwable {
+        return (JPanel) CREATE_ARTICLE_PANEL.invoke(article, 1, (Component) null, NO_RELATED);
+    }
+}
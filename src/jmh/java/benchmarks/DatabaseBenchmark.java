@@ -0,0 +1,132 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * DatabaseBenchmark - ArticleDatabase insert and query throughput on a
+ * temporary SQLite file preloaded with analyzed articles
+ *
+ * Each fork points -Ddb.path at a fresh file before ArticleDatabase is
+ * loaded, so the real tech_news.db is never touched.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DatabaseBenchmark {
+
+    private static final int PRELOADED_ARTICLES = 1000;
+    private static final Class<?> ARTICLE = Targets.type("TechNewsScraper$NewsArticle");
+    private static final Class<?> ANALYSIS = Targets.type("LLMProcessor$ArticleAnalysis");
+
+    private static final MethodHandle NEW_ARTICLE =
+            Targets.findConstructor("TechNewsScraper$NewsArticle", String.class, String.class, String.class);
+    private static final MethodHandle SET_ARTICLE_TEXT =
+            Targets.findVirtual("TechNewsScraper$NewsArticle", "setArticleText", void.class, String.class);
+    private static final MethodHandle PARSE_TEXT =
+            Targets.findStatic("LLMProcessor", "parseAnalysisResponse", ANALYSIS, String.class);
+
+    private MethodHandle initialize;
+    private MethodHandle saveArticle;
+    private MethodHandle saveAnalysis;
+    private MethodHandle loadAnalysis;
+    private MethodHandle articleExists;
+    private MethodHandle getPendingArticles;
+
+    private Path databaseFile;
+    private String articleText;
+    private Object analysis;
+    private int nextArticle;
+    private int nextLookup;
+
+    @Setup
+    public void setUp() throws Throwable {
+        databaseFile = Files.createTempFile("tech_news_bench", ".db");
+        System.setProperty("db.path", databaseFile.toString());
+
+        // Resolved only now so ArticleDatabase initializes with the temp path
+        initialize = Targets.findStatic("ArticleDatabase", "initialize", void.class);
+        saveArticle = Targets.findStatic("ArticleDatabase", "saveArticle", void.class, ARTICLE);
+        saveAnalysis = Targets.findStatic("ArticleDatabase", "saveAnalysis", void.class, String.class, ANALYSIS);
+        loadAnalysis = Targets.findStatic("ArticleDatabase", "loadAnalysis", ANALYSIS, String.class);
+        articleExists = Targets.findStatic("ArticleDatabase", "articleExists", boolean.class, String.class);
+        getPendingArticles = Targets.findStatic("ArticleDatabase", "getPendingArticles", List.class, int.class);
+
+        initialize.invoke();
+        articleText = Targets.fixture("article.html").replaceAll("<[^>]+>", " ");
+        analysis = PARSE_TEXT.invoke(Targets.fixture("completion_text.txt"));
+
+        for (int i = 0; i < PRELOADED_ARTICLES; i++) {
+            Object article = newArticle(i);
+            saveArticle.invoke(article);
+            // Leave every tenth article unanalyzed so the pending query has work to return
+            if (i % 10 != 0) {
+                saveAnalysis.invoke(url(i), analysis);
+            }
+        }
+        nextArticle = PRELOADED_ARTICLES;
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(databaseFile);
+    }
+
+    @Benchmark
+    public void insertArticle() throws Throwable {
+        saveArticle.invoke(newArticle(nextArticle++));
+    }
+
+    @Benchmark
+    public void updateAnalysis() throws Throwable {
+        saveAnalysis.invoke(url(nextLookup()), analysis);
+    }
+
+    @Benchmark
+    public Object loadAnalysis() throws Throwable {
+        return loadAnalysis.invoke(url(nextLookup()));
+    }
+
+    @Benchmark
+    public boolean articleExists() throws Throwable {
+        return (boolean) articleExists.invoke(url(nextLookup()));
+    }
+
+    @Benchmark
+    public Object pendingArticles() throws Throwable {
+        return getPendingArticles.invoke(3);
+    }
+
+    private int nextLookup() {
+        nextLookup = (nextLookup + 7) % PRELOADED_ARTICLES;
+        return nextLookup;
+    }
+
+    private Object newArticle(int i) throws Throwable {
+        Object article = NEW_ARTICLE.invoke("Benchmark article " + i, "Benchmarks", url(i));
+        SET_ARTICLE_TEXT.invoke(article, "Article " + i + "\n\n" + articleText);
+        return article;
+    }
+
+    private static String url(int i) {
+        return "https://example.com/articles/" + i;
+    }
+}
@@ -0,0 +1,69 @@
+package benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ExtractionBenchmark - Front page card extraction and article paragraph
+ * extraction over saved HTML fixtures, with and without the Jsoup parse
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExtractionBenchmark {
+
+    private static final String BASE_URI = "https://techcrunch.com/";
+    private static final MethodHandle EXTRACT_ARTICLES =
+            Targets.findStatic("TechNewsScraper", "extractArticles", List.class, Document.class);
+    private static final MethodHandle EXTRACT_ARTICLE_TEXT =
+            Targets.findStatic("ArticleFetcher", "extractArticleText", String.class, Document.class);
+
+    private String frontPageHtml;
+    private String articleHtml;
+    private Document frontPage;
+    private Document articlePage;
+
+    @Setup
+    public void setUp() {
+        frontPageHtml = Targets.fixture("front_page.html");
+        articleHtml = Targets.fixture("article.html");
+        frontPage = Jsoup.parse(frontPageHtml, BASE_URI);
+        articlePage = Jsoup.parse(articleHtml, BASE_URI);
+    }
+
+    @Benchmark
+    public Object extractCards() throws Throwable {
+        return EXTRACT_ARTICLES.invoke(frontPage);
+    }
+
+    @Benchmark
+    public Object parseAndExtractCards() throws Throwable {
+        return EXTRACT_ARTICLES.invoke(Jsoup.parse(frontPageHtml, BASE_URI));
+    }
+
+    @Benchmark
+    public Object extractArticleText() throws Throwable {
+        return EXTRACT_ARTICLE_TEXT.invoke(articlePage);
+    }
+
+    @Benchmark
+    public Object parseAndExtractArticleText() throws Throwable {
+        return EXTRACT_ARTICLE_TEXT.invoke(Jsoup.parse(articleHtml, BASE_URI));
+    }
+}
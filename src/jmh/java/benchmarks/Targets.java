@@ -0,0 +1,88 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Targets - Method handles into the application classes under benchmark
+ *
+ * The application lives in the default package, which JMH's generated code
+ * (and any named package) cannot reference directly, so the benchmarks reach
+ * it through method handles. Static final handles are constant-folded by the
+ * JIT, so the indirection does not show up in the measurements.
+ */
+final class Targets {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private Targets() {
+    }
+
+    /**
+     * Loads an application class by its binary name, e.g. "LLMProcessor$ArticleAnalysis"
+     */
+    static Class<?> type(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Application class not on the classpath: " + name, e);
+        }
+    }
+
+    /**
+     * Finds a static method, including private ones
+     */
+    static MethodHandle findStatic(String className, String name, Class<?> returnType, Class<?>... parameterTypes) {
+        Class<?> owner = type(className);
+        try {
+            return MethodHandles.privateLookupIn(owner, LOOKUP)
+                    .findStatic(owner, name, MethodType.methodType(returnType, parameterTypes));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot access " + className + "." + name, e);
+        }
+    }
+
+    /**
+     * Finds an instance method, including private ones
+     */
+    static MethodHandle findVirtual(String className, String name, Class<?> returnType, Class<?>... parameterTypes) {
+        Class<?> owner = type(className);
+        try {
+            return MethodHandles.privateLookupIn(owner, LOOKUP)
+                    .findVirtual(owner, name, MethodType.methodType(returnType, parameterTypes));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot access " + className + "." + name, e);
+        }
+    }
+
+    /**
+     * Finds a constructor, including private ones
+     */
+    static MethodHandle findConstructor(String className, Class<?>... parameterTypes) {
+        Class<?> owner = type(className);
+        try {
+            return MethodHandles.privateLookupIn(owner, LOOKUP)
+                    .findConstructor(owner, MethodType.methodType(void.class, parameterTypes));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot access constructor of " + className, e);
+        }
+    }
+
+    /**
+     * Reads a fixture from src/jmh/resources/fixtures
+     */
+    static String fixture(String name) {
+        try (InputStream in = Targets.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing fixture: " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read fixture: " + name, e);
+        }
+    }
+}
@@ -0,0 +1,422 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * LoadTestHarness - Offline end-to-end load test of the import pipeline
+ *
+ * Starts a simulated news site (front page in the div.loop-card format plus
+ * generated article pages) and one or more simulated OpenAI-compatible LLM
+ * servers on localhost, points the scraper, LLMProcessor and a temporary
+ * database at them, and runs the real ImportPipeline. Reports articles/sec,
+ * per-stage latency percentiles and what the simulated servers saw.
+ *
+ * Configuration (system properties, defaults in brackets):
+ *   loadtest.articles        articles on the front page [100]
+ *   loadtest.siteLatencyMs   news site response time [20]
+ *   loadtest.siteErrorRate   fraction of article pages answered with 503 [0]
+ *   loadtest.llmServers      number of simulated LLM servers [1]
+ *   loadtest.llmLatencyMs    base completion time [400]
+ *   loadtest.llmJitterMs     extra random completion time, up to [200]
+ *   loadtest.llmErrorRate    fraction of completions answered with 500 [0.02]
+ *   loadtest.llmConcurrency  requests each server works on at once; more wait [2]
+ *   loadtest.duplicateRate   fraction of articles reusing earlier text [0.1]
+ *   loadtest.verbose         print the pipeline's per-article log [false]
+ *
+ * Usage:
+ *   mvn -Ploadtest compile exec:java -Dexec.mainClass="LoadTestHarness" -Dloadtest.articles=200 -Dloadtest.llmServers=2
+ */
+public class LoadTestHarness {
+
+    private static final int ARTICLES = Integer.getInteger("loadtest.articles", 100);
+    private static final int SITE_LATENCY_MS = Integer.getInteger("loadtest.siteLatencyMs", 20);
+    private static final double SITE_ERROR_RATE = doubleProperty("loadtest.siteErrorRate", 0.0);
+    private static final int LLM_SERVERS = Integer.getInteger("loadtest.llmServers", 1);
+    private static final int LLM_LATENCY_MS = Integer.getInteger("loadtest.llmLatencyMs", 400);
+    private static final int LLM_JITTER_MS = Integer.getInteger("loadtest.llmJitterMs", 200);
+    private static final double LLM_ERROR_RATE = doubleProperty("loadtest.llmErrorRate", 0.02);
+    private static final int LLM_CONCURRENCY = Integer.getInteger("loadtest.llmConcurrency", 2);
+    private static final double DUPLICATE_RATE = doubleProperty("loadtest.duplicateRate", 0.1);
+    private static final boolean VERBOSE = Boolean.getBoolean("loadtest.verbose");
+
+    private static final String[] CATEGORIES = {"AI", "Startups", "Security", "Hardware", "Venture", "Apps", "Space"};
+    private static final String[] WORDS = (
+            "model launch funding round developers platform chips cloud privacy regulators battery robotics "
+            + "search inference latency startup revenue customers subscription satellite breach encryption "
+            + "open source benchmark dataset training agents browser smartphone network outage acquisition "
+            + "valuation investors lawsuit antitrust export semiconductors datacenter power grid").split(" ");
+
+    /**
+     * SimulatedNewsSite - Front page and article pages with configurable latency and errors
+     */
+    static class SimulatedNewsSite {
+        private final HttpServer server;
+        private final AtomicInteger requests = new AtomicInteger();
+        private final AtomicInteger errors = new AtomicInteger();
+
+        SimulatedNewsSite() throws IOException {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext("/", this::handle);
+            server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        }
+
+        String getUrl() {
+            return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+        }
+
+        void start() {
+            server.start();
+        }
+
+        void stop() {
+            server.stop(0);
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            requests.incrementAndGet();
+            sleep(SITE_LATENCY_MS);
+            String path = exchange.getRequestURI().getPath();
+            Matcher article = Pattern.compile("^/articles/(\\d+)/?$").matcher(path);
+
+            if (path.equals("/")) {
+                respond(exchange, 200, "text/html", frontPage());
+            } else if (article.matches() && Integer.parseInt(article.group(1)) < ARTICLES) {
+                if (ThreadLocalRandom.current().nextDouble() < SITE_ERROR_RATE) {
+                    errors.incrementAndGet();
+                    respond(exchange, 503, "text/plain", "Service Unavailable");
+                } else {
+                    respond(exchange, 200, "text/html", articlePage(Integer.parseInt(article.group(1))));
+                }
+            } else {
+                respond(exchange, 404, "text/plain", "Not Found");
+            }
+        }
+
+        private static String frontPage() {
+            StringBuilder html = new StringBuilder("<!DOCTYPE html><html><head><title>Simulated Tech News</title></head>");
+            html.append("<body><main><div class=\"wp-block-query\">\n");
+            for (int id = 0; id < ARTICLES; id++) {
+                html.append("<div class=\"loop-card\"><div class=\"loop-card__content\">")
+                    .append("<a class=\"loop-card__cat\" href=\"/category/\">")
+                    .append(CATEGORIES[id % CATEGORIES.length]).append("</a>")
+                    .append("<h3 class=\"loop-card__title\"><a href=\"/articles/").append(id).append("/\">")
+                    .append(articleTitle(id)).append("</a></h3></div></div>\n");
+            }
+            return html.append("</div></main></body></html>").toString();
+        }
+
+        private static String articlePage(int id) {
+            StringBuilder html = new StringBuilder("<!DOCTYPE html><html><head><title>")
+                    .append(articleTitle(id)).append("</title></head><body><article><h1>")
+                    .append(articleTitle(id)).append("</h1><div class=\"entry-content\">\n");
+            for (String paragraph : articleText(id).split("\n\n")) {
+                html.append("<p>").append(paragraph).append("</p>\n");
+            }
+            return html.append("</div></article></body></html>").toString();
+        }
+
+        private static String articleTitle(int id) {
+            Random random = seeded(id * 2L + 1);
+            return capitalize(words(random, 6 + random.nextInt(5))) + " (" + id + ")";
+        }
+
+        private static String articleText(int id) {
+            Random random = seeded(id * 2L);
+            // Some stories are syndicated copies of an earlier article
+            if (id > 0 && random.nextDouble() < DUPLICATE_RATE) {
+                return articleText(id - 1);
+            }
+            StringBuilder text = new StringBuilder();
+            int paragraphs = 6 + random.nextInt(6);
+            for (int p = 0; p < paragraphs; p++) {
+                int sentences = 2 + random.nextInt(4);
+                for (int s = 0; s < sentences; s++) {
+                    text.append(capitalize(words(random, 8 + random.nextInt(12)))).append(". ");
+                }
+                text.append("\n\n");
+            }
+            return text.toString().trim();
+        }
+    }
+
+    /**
+     * SimulatedLlmServer - OpenAI-compatible chat completions and embeddings with
+     * configurable latency, error rate and a limit on concurrent work
+     */
+    static class SimulatedLlmServer {
+        private final HttpServer server;
+        private final Semaphore slots = new Semaphore(LLM_CONCURRENCY, true);
+        private final Metrics.Histogram queueWait = new Metrics.Histogram();
+        private final AtomicInteger requests = new AtomicInteger();
+        private final AtomicInteger errors = new AtomicInteger();
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final AtomicInteger maxWaiting = new AtomicInteger();
+
+        SimulatedLlmServer() throws IOException {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext("/v1/chat/completions", this::handleCompletion);
+            server.createContext("/v1/embeddings", this::handleEmbedding);
+            server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        }
+
+        String getUrl() {
+            return "http://127.0.0.1:" + server.getAddress().getPort();
+        }
+
+        void start() {
+            server.start();
+        }
+
+        void stop() {
+            server.stop(0);
+        }
+
+        private void handleCompletion(HttpExchange exchange) throws IOException {
+            JsonObject request = JsonParser.parseString(
+                    new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8)).getAsJsonObject();
+            requests.incrementAndGet();
+
+            long queuedAt = System.nanoTime();
+            maxWaiting.accumulateAndGet(waiting.incrementAndGet(), Math::max);
+            slots.acquireUninterruptibly();
+            waiting.decrementAndGet();
+            queueWait.recordNanos(System.nanoTime() - queuedAt);
+            try {
+                // Health probes ask for a single token and come back quickly
+                boolean probe = request.has("max_tokens") && request.get("max_tokens").getAsInt() <= 1;
+                sleep(probe ? LLM_LATENCY_MS / 10 : LLM_LATENCY_MS + ThreadLocalRandom.current().nextInt(LLM_JITTER_MS + 1));
+
+                if (!probe && ThreadLocalRandom.current().nextDouble() < LLM_ERROR_RATE) {
+                    errors.incrementAndGet();
+                    respond(exchange, 500, "application/json", "{\"error\":\"simulated model failure\"}");
+                    return;
+                }
+
+                String content = request.has("response_format") ? jsonAnalysis() : textAnalysis();
+                JsonObject message = new JsonObject();
+                message.addProperty("role", "assistant");
+                message.addProperty("content", content);
+                JsonObject choice = new JsonObject();
+                choice.addProperty("index", 0);
+                choice.add("message", message);
+                choice.addProperty("finish_reason", "stop");
+                JsonArray choices = new JsonArray();
+                choices.add(choice);
+
+                JsonObject usage = new JsonObject();
+                usage.addProperty("prompt_tokens", TokenEstimator.estimate(request.get("messages").toString()));
+                usage.addProperty("completion_tokens", TokenEstimator.estimate(content));
+
+                JsonObject response = new JsonObject();
+                response.addProperty("object", "chat.completion");
+                response.add("choices", choices);
+                response.add("usage", usage);
+                respond(exchange, 200, "application/json", response.toString());
+            } finally {
+                slots.release();
+            }
+        }
+
+        private void handleEmbedding(HttpExchange exchange) throws IOException {
+            String input = JsonParser.parseString(
+                    new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8))
+                    .getAsJsonObject().get("input").getAsString();
+            sleep(LLM_LATENCY_MS / 20);
+
+            JsonArray embedding = new JsonArray();
+            for (float value : EmbeddingClient.localEmbedding(input)) {
+                embedding.add(value);
+            }
+            JsonObject data = new JsonObject();
+            data.add("embedding", embedding);
+            JsonArray dataArray = new JsonArray();
+            dataArray.add(data);
+            JsonObject response = new JsonObject();
+            response.add("data", dataArray);
+            respond(exchange, 200, "application/json", response.toString());
+        }
+
+        private static String textAnalysis() {
+            Random random = ThreadLocalRandom.current();
+            return "SUMMARY: " + capitalize(words(random, 30)) + ".\n"
+                    + "TOPICS: " + CATEGORIES[random.nextInt(CATEGORIES.length)] + ", "
+                    + CATEGORIES[random.nextInt(CATEGORIES.length)] + "\n"
+                    + "KEY_POINTS:\n"
+                    + "- " + capitalize(words(random, 12)) + "\n"
+                    + "- " + capitalize(words(random, 12)) + "\n"
+                    + "- " + capitalize(words(random, 12)) + "\n"
+                    + "RELEVANCE: " + (1 + random.nextInt(10)) + "\n";
+        }
+
+        private static String jsonAnalysis() {
+            Random random = ThreadLocalRandom.current();
+            JsonObject analysis = new JsonObject();
+            analysis.addProperty("summary", capitalize(words(random, 30)) + ".");
+            JsonArray topics = new JsonArray();
+            topics.add(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            analysis.add("topics", topics);
+            JsonArray keyPoints = new JsonArray();
+            for (int i = 0; i < 3; i++) {
+                keyPoints.add(capitalize(words(random, 12)));
+            }
+            analysis.add("keyPoints", keyPoints);
+            analysis.addProperty("relevance", 1 + random.nextInt(10));
+            return analysis.toString();
+        }
+    }
+
+    public static void main(String[] args) throws IOException, SQLException {
+        SimulatedNewsSite site = new SimulatedNewsSite();
+        List<SimulatedLlmServer> llmServers = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, LLM_SERVERS); i++) {
+            llmServers.add(new SimulatedLlmServer());
+        }
+        site.start();
+        List<String> endpoints = new ArrayList<>();
+        for (SimulatedLlmServer llmServer : llmServers) {
+            llmServer.start();
+            endpoints.add(llmServer.getUrl());
+        }
+
+        // Must be set before the pipeline classes are loaded and read them
+        Path tempDatabase = null;
+        if (System.getProperty("db.path") == null) {
+            tempDatabase = Files.createTempFile("tech_news_loadtest", ".db");
+            System.setProperty("db.path", tempDatabase.toString());
+        }
+        System.setProperty("llm.endpoints", String.join(",", endpoints));
+        System.setProperty("scraper.maxArticles", String.valueOf(ARTICLES));
+        // Only the simulated front page; feeds and sitemaps would reach the real site
+        System.setProperty("discovery.enabled", "false");
+
+        System.out.println("Load test: " + ARTICLES + " articles, " + llmServers.size() + " LLM server(s), "
+                + LLM_CONCURRENCY + " concurrent request(s) per server");
+        System.out.println("LLM latency " + LLM_LATENCY_MS + "+0.." + LLM_JITTER_MS + "ms, error rate "
+                + LLM_ERROR_RATE + "; site latency " + SITE_LATENCY_MS + "ms, error rate " + SITE_ERROR_RATE);
+        System.out.println("Database: " + System.getProperty("db.path"));
+
+        try {
+            ArticleDatabase.initialize();
+            AtomicInteger lastDecile = new AtomicInteger();
+            ImportPipeline pipeline = new ImportPipeline(new ImportPipeline.Listener() {
+                @Override
+                public void log(String message) {
+                    if (VERBOSE) {
+                        System.out.println(message);
+                    }
+                }
+
+                @Override
+                public void progress(int completed, int total) {
+                    int decile = completed * 10 / total;
+                    if (decile > lastDecile.getAndAccumulate(decile, Math::max)) {
+                        System.out.println("  " + (decile * 10) + "% (" + completed + "/" + total + ")");
+                    }
+                }
+            });
+
+            long start = System.nanoTime();
+            ImportPipeline.ImportResult result = pipeline.run(site.getUrl());
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.println("\n" + "=".repeat(60));
+            System.out.printf("Elapsed: %.2f s%n", seconds);
+            System.out.printf("Articles: %d discovered, %d analyzed, %d deferred, %d failed%n",
+                    result.getDiscovered(), result.getAnalyzed(), result.getDeferred(), result.getFailed());
+            if (result.isStopped()) {
+                System.out.printf("Stopped early: %d interrupted, %d left for the next run%n",
+                        result.getInterrupted(), result.getRemaining());
+            }
+            System.out.printf("Throughput: %.2f articles/s%n%n", result.getAnalyzed() / seconds);
+            System.out.println(Metrics.report());
+
+            System.out.printf("%nNews site: %d requests, %d injected errors%n", site.requests.get(), site.errors.get());
+            for (SimulatedLlmServer llmServer : llmServers) {
+                System.out.printf("LLM %s: %d requests, %d injected errors, queue wait p50 %.0f ms / p95 %.0f ms, max %d waiting%n",
+                        llmServer.getUrl(), llmServer.requests.get(), llmServer.errors.get(),
+                        llmServer.queueWait.getP50Millis(), llmServer.queueWait.getP95Millis(),
+                        llmServer.maxWaiting.get());
+            }
+        } finally {
+            site.stop();
+            for (SimulatedLlmServer llmServer : llmServers) {
+                llmServer.stop();
+            }
+            if (tempDatabase != null) {
+                Files.deleteIfExists(tempDatabase);
+            }
+            Log.flush();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sleep(int millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // java.util.Random's first outputs are nearly identical for adjacent seeds, so spread them first
+    private static Random seeded(long seed) {
+        return new Random(seed * 0x9E3779B97F4A7C15L);
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder words = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                words.append(' ');
+            }
+            words.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return words.toString();
+    }
+
+    private static String capitalize(String text) {
+        return text.isEmpty() ? text : Character.toUpperCase(text.charAt(0)) + text.substring(1);
+    }
+
+    private static double doubleProperty(String name, double defaultValue) {
+        String value = System.getProperty(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,276 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * ArticleArchive - Append-only, compressed segment files for old article bodies
+ *
+ * Each body is deflate-compressed and appended to the current segment as
+ * [int raw length][int compressed length][compressed bytes]. Segments are
+ * never rewritten; a new one is started once the current one reaches
+ * -Darchive.segmentBytes (default 64 MB). The database keeps the segment,
+ * offset and length of every archived body, and reads go through a
+ * read-only MappedByteBuffer of the segment, so fetching one old body costs
+ * a page fault and an inflate rather than a file read of the whole segment.
+ *
+ * Usage (moves bodies older than 30 days out of the database and reclaims the space):
+ *   mvn compile exec:java -Dexec.mainClass="ArticleArchive" -Dexec.args="30"
+ */
+public class ArticleArchive {
+
+    private static final long SEGMENT_BYTES = Long.getLong("archive.segmentBytes", 64L * 1024 * 1024);
+    private static final int HEADER_BYTES = 8;
+
+    private final Path directory;
+    private final Map<Integer, MappedByteBuffer> mapped = new HashMap<>();
+    private FileChannel writer;
+    private int currentSegment;
+
+    /**
+     * Location - Where one body is stored
+     */
+    public static class Location {
+        private final int segment;
+        private final long offset;
+        private final int length;
+
+        public Location(int segment, long offset, int length) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        public int getSegment() { return segment; }
+        public long getOffset() { return offset; }
+        public int getLength() { return length; }
+    }
+
+    /**
+     * @param directory Folder holding the segment files; created on the first append
+     */
+    public ArticleArchive(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Compresses and appends a body to the current segment.
+     * Call {@link #sync()} before recording the returned location anywhere.
+     * @param text The article body
+     * @return Where the body was written
+     * @throws IOException if the segment cannot be written
+     */
+    public synchronized Location append(String text) throws IOException {
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = compress(raw);
+
+        if (writer == null || (writer.size() > 0 && writer.size() + HEADER_BYTES + compressed.length > SEGMENT_BYTES)) {
+            openNextSegment();
+        }
+
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + compressed.length);
+        record.putInt(raw.length).putInt(compressed.length).put(compressed).flip();
+        long offset = writer.size();
+        while (record.hasRemaining()) {
+            writer.write(record, offset + record.position());
+        }
+        return new Location(currentSegment, offset, compressed.length);
+    }
+
+    /**
+     * Forces appended records to disk
+     */
+    public synchronized void sync() throws IOException {
+        if (writer != null) {
+            writer.force(false);
+        }
+    }
+
+    /**
+     * Reads one body back through a memory mapping of its segment
+     * @param location As returned by {@link #append(String)}
+     * @return The article body
+     * @throws IOException if the segment is missing or the record is corrupt
+     */
+    public String read(Location location) throws IOException {
+        ByteBuffer record = map(location.segment, location.offset + HEADER_BYTES + location.length)
+                .slice((int) location.offset, HEADER_BYTES + location.length);
+        int rawLength = record.getInt();
+        int compressedLength = record.getInt();
+        if (compressedLength != location.length || rawLength < 0) {
+            throw new IOException("Corrupt archive record in segment " + location.segment + " at " + location.offset);
+        }
+
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(record);
+            byte[] raw = new byte[rawLength];
+            int read = 0;
+            while (read < rawLength && !inflater.finished()) {
+                int n = inflater.inflate(raw, read, rawLength - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != rawLength) {
+                throw new IOException("Truncated archive record in segment " + location.segment + " at " + location.offset);
+            }
+            return new String(raw, StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt archive record in segment " + location.segment + " at " + location.offset, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Total size of all segment files in bytes
+     */
+    public long sizeOnDisk() throws IOException {
+        long total = 0;
+        if (Files.isDirectory(directory)) {
+            try (DirectoryStream<Path> segments = Files.newDirectoryStream(directory, "segment-*.dat")) {
+                for (Path segment : segments) {
+                    total += Files.size(segment);
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Closes the writer and deletes every segment file
+     */
+    public synchronized void deleteAll() throws IOException {
+        close();
+        synchronized (mapped) {
+            mapped.clear();
+        }
+        if (Files.isDirectory(directory)) {
+            try (DirectoryStream<Path> segments = Files.newDirectoryStream(directory, "segment-*.dat")) {
+                for (Path segment : segments) {
+                    Files.deleteIfExists(segment);
+                }
+            }
+        }
+        currentSegment = 0;
+    }
+
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    /**
+     * Returns a mapping of a segment that covers at least the given length.
+     * Sealed segments are mapped once; the active one is remapped as it grows.
+     */
+    private MappedByteBuffer map(int segment, long minimumLength) throws IOException {
+        synchronized (mapped) {
+            MappedByteBuffer buffer = mapped.get(segment);
+            if (buffer == null || buffer.capacity() < minimumLength) {
+                try (FileChannel channel = FileChannel.open(segmentPath(segment), StandardOpenOption.READ)) {
+                    long size = channel.size();
+                    if (size < minimumLength) {
+                        throw new IOException("Archive segment " + segment + " is shorter than its index expects");
+                    }
+                    buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                }
+                mapped.put(segment, buffer);
+            }
+            return buffer;
+        }
+    }
+
+    private void openNextSegment() throws IOException {
+        Files.createDirectories(directory);
+        if (writer == null) {
+            // Continue after the highest existing segment
+            currentSegment = 0;
+            try (DirectoryStream<Path> segments = Files.newDirectoryStream(directory, "segment-*.dat")) {
+                for (Path segment : segments) {
+                    String name = segment.getFileName().toString();
+                    currentSegment = Math.max(currentSegment,
+                            Integer.parseInt(name.substring("segment-".length(), name.length() - ".dat".length())));
+                }
+            }
+            if (currentSegment > 0 && Files.size(segmentPath(currentSegment)) < SEGMENT_BYTES) {
+                writer = FileChannel.open(segmentPath(currentSegment), StandardOpenOption.WRITE);
+                return;
+            }
+        } else {
+            writer.force(false);
+            writer.close();
+        }
+        currentSegment++;
+        writer = FileChannel.open(segmentPath(currentSegment),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    }
+
+    private Path segmentPath(int segment) {
+        return directory.resolve(String.format("segment-%05d.dat", segment));
+    }
+
+    private static byte[] compress(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            byte[] buffer = new byte[Math.max(64, raw.length / 2)];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            return Arrays.copyOf(buffer, length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Main entry point: ArticleArchive [retentionDays]
+     */
+    public static void main(String[] args) {
+        int retentionDays = args.length > 0 ? Integer.parseInt(args[0]) : Integer.getInteger("retention.days", 30);
+
+        try {
+            FileLock lock = ArticleDatabase.tryLockImports();
+            if (lock == null) {
+                System.err.println("✗ The import daemon is running against this database, stop it first.");
+                return;
+            }
+            try {
+                ArticleDatabase.initialize();
+                long start = System.nanoTime();
+                int archived = ArticleDatabase.archiveOldBodies(retentionDays);
+                long reclaimed = ArticleDatabase.reclaimFreeSpace(true);
+                System.out.printf("✓ Archived %d article bodies older than %d days, reclaimed %.1f MB in %d ms%n",
+                        archived, retentionDays, reclaimed / 1048576.0, (System.nanoTime() - start) / 1_000_000);
+            } finally {
+                ArticleDatabase.unlockImports(lock);
+            }
+        } catch (SQLException | IOException e) {
+            System.err.println("✗ Archiving failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
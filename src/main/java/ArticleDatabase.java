@@ -1,9 +1,25 @@
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.sqlite.SQLiteConfig;
 
 /**
  * ArticleDatabase - Handles all database operations for tech news articles
@@ -11,16 +27,234 @@ import java.sql.Statement;
  */
 public class ArticleDatabase {
     
-    private static final String DB_URL = "jdbc:sqlite:tech_news.db";
+    // Override with -Ddb.path=... to use another database file
+    private static final String DB_PATH = System.getProperty("db.path", "tech_news.db");
+    private static final String DB_URL = "jdbc:sqlite:" + DB_PATH;
+    // Several import processes may write at once: transactions take the write
+    // lock when they begin, so a read-then-write transaction waits for the other
+    // writer instead of failing with SQLITE_BUSY when it upgrades its lock
+    private static final Properties CONNECTION_PROPERTIES = connectionProperties();
+    
+    // Relevance scores are 1-10; daily_stats has one histogram column per score
+    private static final int MAX_RELEVANCE = 10;
+    
+    // Built lazily from article_embeddings on the first similarity query, then topped up with
+    // the rows stored after embeddingIndexRowid whenever any connection has committed
+    private static HnswIndex embeddingIndex;
+    private static long embeddingIndexVersion;
+    private static long embeddingIndexRowid;
+    // Stored vectors left out because their dimensions differ from the index's
+    private static int embeddingIndexSkipped;
+    
+    // Built from topic_daily_counts on the first trend query, and again after any commit since
+    private static TopicTrends topicTrends;
+    private static long topicTrendsVersion;
+    
+    // Kept open only to read PRAGMA data_version, which changes when any other connection commits
+    private static Connection versionConnection;
+    
+    // Trained lazily on the stored relevance scores when first needed
+    private static RelevanceClassifier relevanceClassifier;
+    
+    // Run after analyses are committed in this process, e.g. to drop cached API responses
+    private static final List<Runnable> analysisListeners = new CopyOnWriteArrayList<>();
+    
+    // Segment files for bodies moved out of the database by the retention policy
+    private static final Path ARCHIVE_DIR = Path.of(DB_PATH + ".archive");
+    private static final ArticleArchive archive = new ArticleArchive(ARCHIVE_DIR);
+    private static final int ARCHIVE_BATCH_SIZE = 200;
+    private static final int VACUUM_STEP_PAGES = 512;
+    
+    /**
+     * ProcessingState - Where an article is in the fetch and analysis pipeline
+     */
+    public enum ProcessingState {
+        DISCOVERED, FETCHED, ANALYZED, FAILED, SKIPPED;
+        
+        public String dbValue() {
+            return name().toLowerCase();
+        }
+        
+        public static ProcessingState fromDbValue(String value) {
+            return value == null ? DISCOVERED : valueOf(value.toUpperCase());
+        }
+    }
+    
+    /**
+     * QueuedArticle - An article with unfinished work and its current state
+     */
+    public static class QueuedArticle {
+        private final TechNewsScraper.NewsArticle article;
+        private final ProcessingState state;
+        private final int attempts;
+        
+        public QueuedArticle(TechNewsScraper.NewsArticle article, ProcessingState state, int attempts) {
+            this.article = article;
+            this.state = state;
+            this.attempts = attempts;
+        }
+        
+        public TechNewsScraper.NewsArticle getArticle() { return article; }
+        public ProcessingState getState() { return state; }
+        public int getAttempts() { return attempts; }
+        
+        /**
+         * Checks whether the article still needs its full text fetched
+         */
+        public boolean needsFetch() {
+            return state == ProcessingState.DISCOVERED ||
+                   (state == ProcessingState.FAILED && article.getArticleText().isEmpty());
+        }
+    }
+    
+    /**
+     * SimilarArticle - An article returned by a similarity query
+     */
+    public static class SimilarArticle {
+        private final String title;
+        private final String url;
+        private final int relevanceScore;
+        private final double similarity;
+        
+        public SimilarArticle(String title, String url, int relevanceScore, double similarity) {
+            this.title = title;
+            this.url = url;
+            this.relevanceScore = relevanceScore;
+            this.similarity = similarity;
+        }
+        
+        public String getTitle() { return title; }
+        public String getUrl() { return url; }
+        public int getRelevanceScore() { return relevanceScore; }
+        public double getSimilarity() { return similarity; }
+    }
+    
+    /**
+     * DailyStats - Article counts and relevance distribution of one day (or several days combined)
+     */
+    public static class DailyStats {
+        private final String day;
+        private final int articleCount;
+        private final int analyzedCount;
+        private final long relevanceSum;
+        private final int[] relevanceHistogram;
+        
+        public DailyStats(String day, int articleCount, int analyzedCount, long relevanceSum, int[] relevanceHistogram) {
+            this.day = day;
+            this.articleCount = articleCount;
+            this.analyzedCount = analyzedCount;
+            this.relevanceSum = relevanceSum;
+            this.relevanceHistogram = relevanceHistogram;
+        }
+        
+        public String getDay() { return day; }
+        public int getArticleCount() { return articleCount; }
+        public int getAnalyzedCount() { return analyzedCount; }
+        public long getRelevanceSum() { return relevanceSum; }
+        
+        public double getAverageRelevance() {
+            return analyzedCount == 0 ? 0 : (double) relevanceSum / analyzedCount;
+        }
+        
+        /**
+         * Number of analyzed articles with the given relevance score
+         * @param score 1-10
+         */
+        public int getRelevanceCount(int score) {
+            return relevanceHistogram[score - 1];
+        }
+        
+        /**
+         * Adds up the stats of several days
+         * @param days Per-day stats, e.g. from {@link ArticleDatabase#getDailyStats}
+         * @return The totals, with a null day
+         */
+        public static DailyStats combine(List<DailyStats> days) {
+            int articles = 0;
+            int analyzed = 0;
+            long sum = 0;
+            int[] histogram = new int[MAX_RELEVANCE];
+            for (DailyStats stats : days) {
+                articles += stats.articleCount;
+                analyzed += stats.analyzedCount;
+                sum += stats.relevanceSum;
+                for (int i = 0; i < MAX_RELEVANCE; i++) {
+                    histogram[i] += stats.relevanceHistogram[i];
+                }
+            }
+            return new DailyStats(null, articles, analyzed, sum, histogram);
+        }
+    }
+    
+    /**
+     * SnapshotArticle - An analyzed article as carried in a snapshot file
+     */
+    public static class SnapshotArticle {
+        private final TechNewsScraper.NewsArticle article;
+        private final LLMProcessor.ArticleAnalysis analysis;
+        private final String scrapedDate;
+        private final String analyzedDate;
+        
+        public SnapshotArticle(TechNewsScraper.NewsArticle article, LLMProcessor.ArticleAnalysis analysis,
+                               String scrapedDate, String analyzedDate) {
+            this.article = article;
+            this.analysis = analysis;
+            this.scrapedDate = scrapedDate;
+            this.analyzedDate = analyzedDate;
+        }
+        
+        public TechNewsScraper.NewsArticle getArticle() { return article; }
+        public LLMProcessor.ArticleAnalysis getAnalysis() { return analysis; }
+        public String getScrapedDate() { return scrapedDate; }
+        public String getAnalyzedDate() { return analyzedDate; }
+    }
+    
+    /**
+     * WorkerStatus - One import process as last reported in its heartbeat
+     */
+    public static class WorkerStatus {
+        private final String worker;
+        private final String state;
+        private final long startedAt;
+        private final long lastSeen;
+        private final int processed;
+        private final int analyzed;
+        private final int failed;
+        private final int leases;
+        
+        public WorkerStatus(String worker, String state, long startedAt, long lastSeen,
+                            int processed, int analyzed, int failed, int leases) {
+            this.worker = worker;
+            this.state = state;
+            this.startedAt = startedAt;
+            this.lastSeen = lastSeen;
+            this.processed = processed;
+            this.analyzed = analyzed;
+            this.failed = failed;
+            this.leases = leases;
+        }
+        
+        public String getWorker() { return worker; }
+        public String getState() { return state; }
+        public long getStartedAt() { return startedAt; }
+        public long getLastSeen() { return lastSeen; }
+        public int getProcessed() { return processed; }
+        public int getAnalyzed() { return analyzed; }
+        public int getFailed() { return failed; }
+        public int getLeases() { return leases; }
+    }
     
     /**
      * Initializes the database and creates the articles table if it doesn't exist
      * @throws SQLException if database initialization fails
      */
     public static void initialize() throws SQLException {
-        try (Connection conn = DriverManager.getConnection(DB_URL);
+        try (Connection conn = DriverManager.getConnection(DB_URL, CONNECTION_PROPERTIES);
              Statement stmt = conn.createStatement()) {
             
+            // Only takes effect on a new, empty database; see reclaimFreeSpace for existing ones
+            stmt.execute("PRAGMA auto_vacuum = INCREMENTAL");
+            
             String createTableSQL = """
                 CREATE TABLE IF NOT EXISTS articles (
                     id INTEGER PRIMARY KEY AUTOINCREMENT,
@@ -33,35 +267,731 @@ public class ArticleDatabase {
                     key_points TEXT,
                     relevance_score INTEGER,
                     scraped_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                    analyzed_date TIMESTAMP
+                    analyzed_date TIMESTAMP,
+                    simhash INTEGER,
+                    duplicate_of TEXT,
+                    processing_state TEXT NOT NULL DEFAULT 'discovered',
+                    attempts INTEGER NOT NULL DEFAULT 0,
+                    last_error TEXT,
+                    canonical_url TEXT,
+                    rel_canonical_url TEXT
                 )
                 """;
-            
+
             stmt.execute(createTableSQL);
+
+            // Columns added after the original schema
+            ensureColumn(conn, "articles", "simhash", "INTEGER");
+            ensureColumn(conn, "articles", "duplicate_of", "TEXT");
+            if (ensureColumn(conn, "articles", "processing_state", "TEXT NOT NULL DEFAULT 'discovered'")) {
+                // Derive the state of rows written before the work queue existed
+                stmt.executeUpdate("""
+                    UPDATE articles SET processing_state = CASE
+                        WHEN summary IS NOT NULL THEN 'analyzed'
+                        WHEN article_text IS NOT NULL THEN 'fetched'
+                        ELSE 'discovered' END
+                    """);
+            }
+            ensureColumn(conn, "articles", "attempts", "INTEGER NOT NULL DEFAULT 0");
+            ensureColumn(conn, "articles", "last_error", "TEXT");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_articles_processing_state ON articles(processing_state)");
+            if (ensureColumn(conn, "articles", "canonical_url", "TEXT")) {
+                migrateCanonicalUrls(conn);
+            }
+            // Several URL variants of one article share a key; only the first is stored
+            stmt.execute("CREATE UNIQUE INDEX IF NOT EXISTS idx_articles_canonical_url ON articles(canonical_url)");
+            if (ensureColumn(conn, "articles", "rel_canonical_url", "TEXT")) {
+                splitCanonicalLinks(conn);
+            }
+            // Key of the page's rel=canonical link, kept next to the key of the URL it was found under
+            stmt.execute("CREATE UNIQUE INDEX IF NOT EXISTS idx_articles_rel_canonical_url ON articles(rel_canonical_url)");
+
+            // LSH band index over the SimHash fingerprints
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS simhash_bands (
+                    band INTEGER NOT NULL,
+                    bucket INTEGER NOT NULL,
+                    url TEXT NOT NULL,
+                    PRIMARY KEY (band, bucket, url)
+                ) WITHOUT ROWID
+                """);
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_simhash_bands_url ON simhash_bands(url)");
+
+            // Embedding vectors as little-endian float32 BLOBs
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS article_embeddings (
+                    url TEXT PRIMARY KEY,
+                    dimensions INTEGER NOT NULL,
+                    vector BLOB NOT NULL
+                )
+                """);
+
+            // Lets per-day queries (digest, export) use an index instead of scanning
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_articles_scraped_day ON articles(DATE(scraped_date))");
+
+            // Where each archived article body lives in the segment files
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS article_archive (
+                    url TEXT PRIMARY KEY,
+                    segment INTEGER NOT NULL,
+                    offset INTEGER NOT NULL,
+                    length INTEGER NOT NULL
+                )
+                """);
+
+            // Content hash of each day's digest as of its last export
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS export_state (
+                    day TEXT PRIMARY KEY,
+                    content_hash TEXT NOT NULL,
+                    exported_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                )
+                """);
+
+            // LLM summaries of article groups for the day overview, keyed by a hash of their input
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS digest_partials (
+                    input_hash TEXT PRIMARY KEY,
+                    day TEXT NOT NULL,
+                    level INTEGER NOT NULL,
+                    summary TEXT NOT NULL,
+                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                )
+                """);
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_digest_partials_day ON digest_partials(day)");
+
+            // Work claimed by import processes; a lease lapses unless its worker renews it
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS article_leases (
+                    url TEXT PRIMARY KEY,
+                    worker TEXT NOT NULL,
+                    claimed_at INTEGER NOT NULL,
+                    expires_at INTEGER NOT NULL
+                )
+                """);
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_article_leases_worker ON article_leases(worker)");
+
+            // Heartbeats and counts of import processes, for the coordinator's status view
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS import_workers (
+                    worker TEXT PRIMARY KEY,
+                    state TEXT NOT NULL,
+                    started_at INTEGER NOT NULL,
+                    last_seen INTEGER NOT NULL,
+                    processed INTEGER NOT NULL DEFAULT 0,
+                    analyzed INTEGER NOT NULL DEFAULT 0,
+                    failed INTEGER NOT NULL DEFAULT 0
+                )
+                """);
+
+            // Per-day counters maintained alongside every write, so summaries never scan articles
+            boolean newStatsTable = !tableExists(conn, "daily_stats");
+            StringBuilder createStatsSQL = new StringBuilder("""
+                CREATE TABLE IF NOT EXISTS daily_stats (
+                    day TEXT PRIMARY KEY,
+                    article_count INTEGER NOT NULL DEFAULT 0,
+                    analyzed_count INTEGER NOT NULL DEFAULT 0,
+                    relevance_sum INTEGER NOT NULL DEFAULT 0""");
+            for (int score = 1; score <= MAX_RELEVANCE; score++) {
+                createStatsSQL.append(",\n    relevance_").append(score).append(" INTEGER NOT NULL DEFAULT 0");
+            }
+            stmt.execute(createStatsSQL.append("\n) WITHOUT ROWID").toString());
+            if (newStatsTable) {
+                rebuildDailyStats(conn);
+            }
+
+            // Per-topic mentions per day for trend analysis; topic is the normalized key
+            boolean newTopicTable = !tableExists(conn, "topic_daily_counts");
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS topic_daily_counts (
+                    topic TEXT NOT NULL,
+                    day TEXT NOT NULL,
+                    label TEXT NOT NULL,
+                    count INTEGER NOT NULL DEFAULT 0,
+                    PRIMARY KEY (topic, day)
+                ) WITHOUT ROWID
+                """);
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_topic_daily_counts_day ON topic_daily_counts(day)");
+            if (newTopicTable) {
+                rebuildTopicCounts(conn);
+            }
+
             System.out.println("Database initialized successfully.");
         }
     }
     
     /**
-     * Saves an article to the database
-     * @param article The NewsArticle to save
-     * @throws SQLException if save operation fails
+     * Adds a newly discovered article to the work queue.
+     * Articles that are already known, under this URL or another variant with
+     * the same canonical key, keep their current state.
+     * @param article The scraped article (title, snippet and URL)
+     * @return true if the article was new
+     * @throws SQLException if the insert fails
      */
-    public static void saveArticle(TechNewsScraper.NewsArticle article) throws SQLException {
-        String insertSQL = "INSERT OR REPLACE INTO articles (title, url, snippet, article_text) VALUES (?, ?, ?, ?)";
+    public static boolean enqueueArticle(TechNewsScraper.NewsArticle article) throws SQLException {
+        String insertSQL = """
+                INSERT OR IGNORE INTO articles (title, url, snippet, canonical_url, processing_state)
+                SELECT ?, ?, ?, ?, 'discovered'
+                WHERE NOT EXISTS (SELECT 1 FROM articles WHERE rel_canonical_url = ?)
+                """;
         
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement pstmt = conn.prepareStatement(insertSQL)) {
+        try (Connection conn = DriverManager.getConnection(DB_URL, CONNECTION_PROPERTIES)) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(insertSQL)) {
+                String key = UrlCanonicalizer.canonicalize(article.getUrl());
+                pstmt.setString(1, article.getTitle());
+                pstmt.setString(2, article.getUrl());
+                pstmt.setString(3, article.getSnippet());
+                pstmt.setString(4, key);
+                pstmt.setString(5, key);
+                
+                boolean inserted = pstmt.executeUpdate() > 0;
+                if (inserted) {
+                    adjustDailyStats(conn, scrapedDay(conn, article.getUrl()), 1, 0, 0);
+                }
+                conn.commit();
+                return inserted;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+    
+    /**
+     * Returns all articles with unfinished work, oldest first: discovered articles
+     * still need their text fetched, fetched ones need analysis, and failed ones
+     * are retried until they have used up their attempts.
+     * @param maxAttempts Failed articles with this many attempts are left alone
+     * @return The pending articles, with article text loaded where it was fetched
+     * @throws SQLException if the query fails
+     */
+    public static List<QueuedArticle> getPendingArticles(int maxAttempts) throws SQLException {
+        String querySQL = """
+                SELECT title, url, snippet, article_text, processing_state, attempts
+                FROM articles
+                WHERE processing_state IN ('discovered', 'fetched')
+                   OR (processing_state = 'failed' AND attempts < ?)
+                ORDER BY id
+                """;
+        List<QueuedArticle> pending = new ArrayList<>();
+        
+        try (Connection conn = DriverManager.getConnection(DB_URL, CONNECTION_PROPERTIES);
+             PreparedStatement pstmt = conn.prepareStatement(querySQL)) {
             
-            pstmt.setString(1, article.getTitle());
-            pstmt.setString(2, article.getUrl());
-            pstmt.setString(3, article.getSnippet());
-            pstmt.setString(4, article.getArticleText());
+            pstmt.setInt(1, maxAttempts);
+            ResultSet rs = pstmt.executeQuery();
             
+            while (rs.next()) {
+                TechNewsScraper.NewsArticle article = new TechNewsScraper.NewsArticle(
+                        rs.getString("title"), rs.getString("snippet"), rs.getString("url"));
+                String text = rs.getString("article_text");
+                if (text != null) {
+                    article.setArticleText(text);
+                }
+                pending.add(new QueuedArticle(article,
+                        ProcessingState.fromDbValue(rs.getString("processing_state")),
+                        rs.getInt("attempts")));
+            }
+        }
+        return pending;
+    }
+    
+    /**
+     * Records a failed processing attempt so the article is retried on a later run
+     * @param url The article URL
+     * @param error Short description of what went wrong
+     * @throws SQLException if the update fails
+     */
+    public static void markFailed(String url, String error) throws SQLException {
+        String updateSQL = """
+                UPDATE articles
+                SET processing_state = 'failed', attempts = attempts + 1, last_error = ?
+                WHERE url = ?
+                """;
+        
+        try (Connection conn = DriverManager.getConnection(DB_URL, CONNECTION_PROPERTIES);
+             PreparedStatement pstmt = conn.prepareStatement(updateSQL)) {
+            
+            pstmt.setString(1, error);
+            pstmt.setString(2, url);
             pstmt.executeUpdate();
         }
     }
     
+    /**
+     * Takes an article out of the work queue because the relevance pre-filter
+     * predicted it is not worth analyzing
+     * @param url The article URL
+     * @param reason Recorded in last_error, e.g. the predicted probability
+     * @throws SQLException if the update fails
+     */
+    public static void markSkipped(String url, String reason) throws SQLException {
+        String updateSQL = "UPDATE articles SET processing_state = 'skipped', last_error = ? WHERE url = ?";
+        
+        try (Connection conn = DriverManager.getConnection(DB_URL, CONNECTION_PROPERTIES);
+             PreparedStatement pstmt = conn.prepareStatement(updateSQL)) {
+            
+            pstmt.setString(1, reason);
+            pstmt.setString(2, url);
+            pstmt.executeUpdate();
+        }
+    }
+    
+    /**
+     * Claims articles for one worker so that no other import process works on
+     * them while the lease lasts. Runs as a single write transaction, so two
+     * processes claiming at the same time never get the same article. Articles
+     * that are finished by now, or leased by another worker whose lease has not
+     * expired, are skipped.
+     * @param worker ID of the claiming worker
+     * @param urls Candidates, in the order they should be worked on
+     * @param leaseMillis How long the leases last unless renewed
+     * @param maxAttempts Failed articles with this many attempts are not claimed
+     * @return The URLs now leased to this worker, in candidate order
+     * @throws SQLException if the claim fails; nothing is claimed then
+     */
+    public static List<String> claimArticles(String worker, List<String> urls, long leaseMillis, int maxAttempts)
+            throws SQLException {
+        String checkSQL = """
+                SELECT 1 FROM articles a
+                WHERE a.url = ?
+                  AND (a.processing_state IN ('discovered', 'fetched')
+                       OR (a.processing_state = 'failed' AND a.attempts < ?))
+                  AND NOT EXISTS (SELECT 1 FROM article_leases l
+                                  WHERE l.url = a.url AND l.worker <> ? AND l.expires_at > ?)
+                """;
+        String leaseSQL = """
+                INSERT INTO article_leases (url, worker, claimed_at, expires_at) VALUES (?, ?, ?, ?)
+                ON CONFLICT(url) DO UPDATE SET
+                    worker = excluded.worker,
+                    claimed_at = excluded.claimed_at,
+                    expires_at = excluded.expires_at
+                """;
+        List<String> claimed = new ArrayList<>();
+        
+        try (Connection conn = DriverManager.getConnection(DB_URL, CONNECTION_PROPERTIES)) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement check = conn.prepareStatement(checkSQL);
+                 PreparedStatement lease = conn.prepareStatement(leaseSQL)) {
+                long now = System.currentTimeMillis();
+                for (String url : urls) {
+                    check.setString(1, url);
+                    check.setInt(2, maxAttempts);
+                    check.setString(3, worker);
+                    check.setLong(4, now);
+                    try (ResultSet rs = check.executeQuery()) {
+                        if (!rs.next()) {
+                            continue;
+                        }
+                    }
+                    lease.setString(1, url);
+                    lease.setString(2, worker);
+                    lease.setLong(3, now);
+                    lease.setLong(4, now + leaseMillis);
+                    lease.addBatch();
+                    claimed.add(url);
+                }
+                lease.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+        return claimed;
+    }
+    
+    /**
+     * Extends all leases held by a worker
+     * @return The number of leases renewed
+     * @throws SQLException if the update fails
+     */
+    public static int renewLeases(String worker, long leaseMillis) throws SQLException {
+        try (Connection conn = DriverManager.getConnection(DB_URL, CONNECTION_PROPERTIES);
+             PreparedStatement pstmt = conn.prepareStatement(
+                     "UPDATE article_leases SET expires_at = ? WHERE worker = ?")) {
+            pstmt.setLong(1, System.currentTimeMillis() + leaseMillis);
+            pstmt.setString(2, worker);
+            return pstmt.executeUpdate();
+        }
+    }
+    
+    /**
+     * Gives up one article's lease, once it is done or was interrupted
+     * @throws SQLException if the delete fails
+     */
+    public static void releaseLease(String worker, String url) throws SQLException {
+        try (Connection conn = DriverManager.getConnection(DB_URL, CONNECTION_PROPERTIES);
+             PreparedStatement pstmt = conn.prepareStatement(
+                     "DELETE FROM article_leases WHERE url = ? AND worker = ?")) {
+            pstmt.setString(1, url);
+            pstmt.setString(2, worker);
+            pstmt.executeUpdate();
+        }
+    }
+    
+    /**
+     * Gives up every lease of a worker, e.g. one that crashed, so others can take its articles
+     * @return The number of leases released
+     * @throws SQLException if the delete fails
+     */
+    public static int releaseLeases(String worker) throws SQLException {
+        try (Connection conn = DriverManager.getConnection(DB_URL, CONNECTION_PROPERTIES);
+             PreparedStatement pstmt = conn.prepareStatement("DELETE FROM article_leases WHERE worker = ?")) {
+            pstmt.setString(1, worker);
+            return pstmt.executeUpdate();
+        }
+    }
+    
+    /**
+     * Records a worker's heartbeat and progress
+     * @param state running, finished or stopped
+     * @throws SQLException if the write fails
+     */
+    public static void recordWorkerHeartbeat(String worker, String state, int processed, int analyzed, int failed)
+            throws SQLException {
+        String upsertSQL = """
+                INSERT INTO import_workers (worker, state, started_at, last_seen, processed, analyzed, failed)
+                VALUES (?, ?, ?, ?, ?, ?, ?)
+                ON CONFLICT(worker) DO UPDATE SET
+                    state = excluded.state,
+                    last_seen = excluded.last_seen,
+                    processed = excluded.processed,
+                    analyzed = excluded.analyzed,
+                    failed = excluded.failed
+                """;
+        try (Connection conn = DriverManager.getConnection(DB_URL, CONNECTION_PROPERTIES);
+             PreparedStatement pstmt = conn.prepareStatement(upsertSQL)) {
+            long now = System.currentTimeMillis();
+            pstmt.setString(1, worker);
+            pstmt.setString(2, state);
+            pstmt.setLong(3, now);
+            pstmt.setLong(4, now);
+            pstmt.setInt(5, processed);
+            pstmt.setInt(6, analyzed);
+            pstmt.setInt(7, failed);
+            pstmt.executeUpdate();
+        }
+    }
+    
+    /**
+     * Returns every worker that has reported in, most recently seen first,
+     * with the number of unexpired leases each holds
+     * @throws SQLException if the query fails
+     */
+    public static List<WorkerStatus> getWorkerStatuses() throws SQLException {
+        String querySQL = """
+                SELECT w.worker, w.state, w.started_at, w.last_seen, w.processed, w.analyzed, w.failed,
+                       (SELECT COUNT(*) FROM article_leases l
+                        WHERE l.worker = w.worker AND l.expires_at > ?) AS leases
+                FROM import_workers w
+                ORDER BY w.last_seen DESC
+                """;
+        List<WorkerStatus> workers = new ArrayList<>();
+        try (Connection conn = DriverManager.getConnection(DB_URL, CONNECTION_PROPERTIES);
+             PreparedStatement pstmt = conn.prepareStatement(querySQL)) {
+            pstmt.setLong(1, System.currentTimeMillis());
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                workers.add(new WorkerStatus(rs.getString("worker"), rs.getString("state"),
+                        rs.getLong("started_at"), rs.getLong("last_seen"), rs.getInt("processed"),
+                        rs.getInt("analyzed"), rs.getInt("failed"), rs.getInt("leases")));
+            }
+        }
+        return workers;
+    }
+    
+    /**
+     * Counts articles per processing state
+     * @return State name to count, e.g. "discovered" to 12
+     * @throws SQLException if the query fails
+     */
+    public static Map<String, Integer> getProcessingStateCounts() throws SQLException {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (ProcessingState state : ProcessingState.values()) {
+            counts.put(state.dbValue(), 0);
+        }
+        try (Connection conn = DriverManager.getConnection(DB_URL, CONNECTION_PROPERTIES);
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                     "SELECT processing_state, COUNT(*) FROM articles GROUP BY processing_state")) {
+            while (rs.next()) {
+                counts.put(rs.getString(1), rs.getInt(2));
+            }
+        }
+        return counts;
+    }
+    
+    /**
+     * Counts leases that have run out without being released, i.e. of workers that died
+     * @throws SQLException if the query fails
+     */
+    public static int countExpiredLeases() throws SQLException {
+        try (Connection conn = DriverManager.getConnection(DB_URL, CONNECTION_PROPERTIES);
+             PreparedStatement pstmt = conn.prepareStatement(
+                     "SELECT COUNT(*) FROM article_leases WHERE expires_at <= ?")) {
+            pstmt.setLong(1, System.currentTimeMillis());
+            ResultSet rs = pstmt.executeQuery();
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+    
+    /**
+     * Returns the relevance pre-filter, training it on all stored scores on first use
+     * @throws SQLException if the scores cannot be read
+     */
+    public static synchronized RelevanceClassifier getRelevanceClassifier() throws SQLException {
+        if (relevanceClassifier == null) {
+            List<RelevanceClassifier.Example> history = new ArrayList<>();
+            try (Connection conn = DriverManager.getConnection(DB_URL, CONNECTION_PROPERTIES);
+                 PreparedStatement pstmt = conn.prepareStatement(
+                         "SELECT title, snippet, url, relevance_score FROM articles WHERE summary IS NOT NULL")) {
+                
+                ResultSet rs = pstmt.executeQuery();
+                while (rs.next()) {
+                    history.add(new RelevanceClassifier.Example(rs.getString("title"), rs.getString("snippet"),
+                            rs.getString("url"), rs.getInt("relevance_score")));
+                }
+            }
+            relevanceClassifier = RelevanceClassifier.fit(history);
+        }
+        return relevanceClassifier;
+    }
+    
+    /**
+     * Saves the fetched text of an article and moves it to the fetched state.
+     * Existing analysis results are kept.
+     * @param article The NewsArticle to save
+     * @throws SQLException if save operation fails
+     */
+    public static void saveArticle(TechNewsScraper.NewsArticle article) throws SQLException {
+        String insertSQL = """
+                INSERT INTO articles (title, url, snippet, article_text, simhash, canonical_url, processing_state)
+                VALUES (?, ?, ?, ?, ?, ?, 'fetched')
+                ON CONFLICT(url) DO UPDATE SET
+                    title = excluded.title,
+                    snippet = excluded.snippet,
+                    article_text = excluded.article_text,
+                    simhash = excluded.simhash,
+                    processing_state = CASE WHEN summary IS NULL THEN 'fetched' ELSE processing_state END
+                """;
+        Long fingerprint = NearDuplicateDetector.fingerprint(article.getArticleText());
+
+        long start = System.nanoTime();
+        try (Connection conn = DriverManager.getConnection(DB_URL, CONNECTION_PROPERTIES)) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(insertSQL)) {
+                boolean isNew = scrapedDay(conn, article.getUrl()) == null;
+                pstmt.setString(1, article.getTitle());
+                pstmt.setString(2, article.getUrl());
+                pstmt.setString(3, article.getSnippet());
+                pstmt.setString(4, article.getArticleText());
+                if (fingerprint != null) {
+                    pstmt.setLong(5, fingerprint);
+                } else {
+                    pstmt.setNull(5, Types.INTEGER);
+                }
+                pstmt.setString(6, UrlCanonicalizer.canonicalize(article.getUrl()));
+                pstmt.executeUpdate();
+
+                if (isNew) {
+                    adjustDailyStats(conn, scrapedDay(conn, article.getUrl()), 1, 0, 0);
+                }
+                saveBands(conn, article.getUrl(), fingerprint);
+                conn.commit();
+                Metrics.recordSince(Metrics.DB_WRITE, start);
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Replaces the LSH band entries for an article
+     */
+    private static void saveBands(Connection conn, String url, Long fingerprint) throws SQLException {
+        try (PreparedStatement delete = conn.prepareStatement("DELETE FROM simhash_bands WHERE url = ?")) {
+            delete.setString(1, url);
+            delete.executeUpdate();
+        }
+        if (fingerprint == null) {
+            return;
+        }
+        try (PreparedStatement insert = conn.prepareStatement(
+                "INSERT OR IGNORE INTO simhash_bands (band, bucket, url) VALUES (?, ?, ?)")) {
+            for (int band = 0; band < NearDuplicateDetector.BANDS; band++) {
+                insert.setInt(1, band);
+                insert.setInt(2, NearDuplicateDetector.bandValue(fingerprint, band));
+                insert.setString(3, url);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    /**
+     * Finds an already analyzed article whose text is a near-duplicate of the given one
+     * @param article The freshly fetched article
+     * @return URL of the closest analyzed near-duplicate, or null if there is none
+     * @throws SQLException if the lookup fails
+     */
+    public static String findNearDuplicate(TechNewsScraper.NewsArticle article) throws SQLException {
+        Long fingerprint = NearDuplicateDetector.fingerprint(article.getArticleText());
+        if (fingerprint == null) {
+            return null;
+        }
+
+        StringBuilder querySQL = new StringBuilder("""
+                SELECT DISTINCT a.url, a.simhash
+                FROM simhash_bands b
+                JOIN articles a ON a.url = b.url
+                WHERE a.url <> ? AND a.summary IS NOT NULL AND a.simhash IS NOT NULL
+                AND (""");
+        for (int band = 0; band < NearDuplicateDetector.BANDS; band++) {
+            querySQL.append(band == 0 ? "" : " OR ").append("(b.band = ? AND b.bucket = ?)");
+        }
+        querySQL.append(")");
+
+        String bestUrl = null;
+        int bestDistance = Integer.MAX_VALUE;
+
+        try (Connection conn = DriverManager.getConnection(DB_URL, CONNECTION_PROPERTIES);
+             PreparedStatement pstmt = conn.prepareStatement(querySQL.toString())) {
+
+            int index = 1;
+            pstmt.setString(index++, article.getUrl());
+            for (int band = 0; band < NearDuplicateDetector.BANDS; band++) {
+                pstmt.setInt(index++, band);
+                pstmt.setInt(index++, NearDuplicateDetector.bandValue(fingerprint, band));
+            }
+
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                int distance = NearDuplicateDetector.hammingDistance(fingerprint, rs.getLong("simhash"));
+                if (distance <= NearDuplicateDetector.MAX_HAMMING_DISTANCE && distance < bestDistance) {
+                    bestDistance = distance;
+                    bestUrl = rs.getString("url");
+                }
+            }
+        }
+        return bestUrl;
+    }
+
+    /**
+     * Copies the analysis of an existing article onto a near-duplicate and links the two
+     * @param url The near-duplicate article URL
+     * @param originalUrl The URL of the already analyzed article
+     * @return The reused analysis, or null if the original has no analysis
+     * @throws SQLException if the update fails
+     */
+    public static LLMProcessor.ArticleAnalysis reuseAnalysis(String url, String originalUrl) throws SQLException {
+        LLMProcessor.ArticleAnalysis analysis = loadAnalysis(originalUrl);
+        if (analysis == null) {
+            return null;
+        }
+
+        // Analysis and link are written together, so the article is never left half-updated
+        saveAnalysis(url, analysis, originalUrl);
+        return analysis;
+    }
+
+    /**
+     * Loads the stored analysis of an article
+     * @param url The article URL
+     * @return The analysis, or null if the article has not been analyzed
+     * @throws SQLException if the query fails
+     */
+    public static LLMProcessor.ArticleAnalysis loadAnalysis(String url) throws SQLException {
+        String querySQL = "SELECT summary, topics, key_points, relevance_score FROM articles WHERE url = ? AND summary IS NOT NULL";
+
+        try (Connection conn = DriverManager.getConnection(DB_URL, CONNECTION_PROPERTIES);
+             PreparedStatement pstmt = conn.prepareStatement(querySQL)) {
+
+            pstmt.setString(1, url);
+            ResultSet rs = pstmt.executeQuery();
+
+            if (rs.next()) {
+                String topics = rs.getString("topics");
+                String keyPoints = rs.getString("key_points");
+                return new LLMProcessor.ArticleAnalysis(
+                    rs.getString("summary"),
+                    topics == null || topics.isEmpty() ? new String[0] : topics.split(",\\s*"),
+                    keyPoints == null || keyPoints.isEmpty() ? new String[0] : keyPoints.split("\\s*\\|\\s*"),
+                    rs.getInt("relevance_score"));
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Registers a callback that runs after analyses are committed by this
+     * process: every saveAnalysis, snapshot imports and deleting all articles
+     * @param listener Called on the committing thread; should return quickly
+     */
+    public static void addAnalysisListener(Runnable listener) {
+        analysisListeners.add(listener);
+    }
+    
+    public static void removeAnalysisListener(Runnable listener) {
+        analysisListeners.remove(listener);
+    }
+    
+    private static void fireAnalysisChanged() {
+        for (Runnable listener : analysisListeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                Log.warn("Analysis listener failed: " + e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Builds the query for analyzed articles used by the article list views
+     * @param dateFilter today, last_7_days, last_30_days or all_time
+     * @param sortBy relevance, "date (newest)" or "date (oldest)"
+     * @return SQL selecting title, summary, topics, key_points, relevance_score, url
+     *         and the scrape day as scraped_date
+     */
+    public static String analyzedArticlesQuery(String dateFilter, String sortBy) {
+        StringBuilder query = new StringBuilder("""
+                SELECT title, summary, topics, key_points, relevance_score, url, 
+                       DATE(scraped_date) as scraped_date
+                FROM articles 
+                WHERE summary IS NOT NULL
+                """);
+        
+        // Add date filter
+        switch (dateFilter) {
+            case "today":
+                query.append(" AND DATE(scraped_date) = DATE('now', 'localtime')");
+                break;
+            case "last_7_days":
+                query.append(" AND DATE(scraped_date) >= DATE('now', '-7 days', 'localtime')");
+                break;
+            case "last_30_days":
+                query.append(" AND DATE(scraped_date) >= DATE('now', '-30 days', 'localtime')");
+                break;
+            // "all_time" - no filter
+        }
+        
+        // Add sort order
+        switch (sortBy) {
+            case "relevance":
+                query.append(" ORDER BY relevance_score DESC, id DESC");
+                break;
+            case "date (newest)":
+                query.append(" ORDER BY scraped_date DESC, id DESC");
+                break;
+            case "date (oldest)":
+                query.append(" ORDER BY scraped_date ASC, id ASC");
+                break;
+        }
+        return query.toString();
+    }
+    
     /**
      * Saves article analysis results to the database
      * @param url The article URL
@@ -69,38 +999,273 @@ public class ArticleDatabase {
      * @throws SQLException if update operation fails
      */
     public static void saveAnalysis(String url, LLMProcessor.ArticleAnalysis analysis) throws SQLException {
+        saveAnalysis(url, analysis, null);
+    }
+    
+    /**
+     * Saves analysis results and, in the same transaction, the article they were copied from
+     * @param duplicateOf URL of the original article, or null to keep duplicate_of as it is
+     */
+    private static void saveAnalysis(String url, LLMProcessor.ArticleAnalysis analysis, String duplicateOf)
+            throws SQLException {
         String updateSQL = """
                 UPDATE articles 
-                SET summary = ?, topics = ?, key_points = ?, relevance_score = ?, analyzed_date = CURRENT_TIMESTAMP 
+                SET summary = ?, topics = ?, key_points = ?, relevance_score = ?, analyzed_date = CURRENT_TIMESTAMP,
+                    processing_state = 'analyzed', last_error = NULL, duplicate_of = COALESCE(?, duplicate_of)
                 WHERE url = ?
                 """;
         
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement pstmt = conn.prepareStatement(updateSQL)) {
+        String previousSQL = "SELECT DATE(scraped_date) AS day, summary, topics, relevance_score FROM articles WHERE url = ?";
+        
+        Map<String, String> newTopics = distinctTopics(analysis.getTopics());
+        String day = null;
+        int previousScore = 0;
+        Map<String, String> previousTopics = Map.of();
+        
+        long start = System.nanoTime();
+        try (Connection conn = DriverManager.getConnection(DB_URL, CONNECTION_PROPERTIES)) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement previous = conn.prepareStatement(previousSQL);
+                 PreparedStatement pstmt = conn.prepareStatement(updateSQL)) {
+                
+                // A re-analysis replaces the article's earlier score and topics in the day's counters
+                previous.setString(1, url);
+                try (ResultSet rs = previous.executeQuery()) {
+                    if (rs.next()) {
+                        day = rs.getString("day");
+                        if (rs.getString("summary") != null) {
+                            previousScore = clampRelevance(rs.getInt("relevance_score"));
+                            previousTopics = distinctTopics(splitTopics(rs.getString("topics")));
+                        }
+                    }
+                }
+                
+                pstmt.setString(1, analysis.getSummary());
+                pstmt.setString(2, String.join(", ", analysis.getTopics()));
+                pstmt.setString(3, String.join(" | ", analysis.getKeyPoints()));
+                pstmt.setInt(4, analysis.getRelevanceScore());
+                pstmt.setString(5, duplicateOf);
+                pstmt.setString(6, url);
+                
+                if (pstmt.executeUpdate() == 0) {
+                    day = null;
+                }
+                adjustDailyStats(conn, day, 0, previousScore, clampRelevance(analysis.getRelevanceScore()));
+                adjustTopicCounts(conn, day, previousTopics, -1);
+                adjustTopicCounts(conn, day, newTopics, 1);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+        
+        Metrics.recordSince(Metrics.DB_WRITE, start);
+        fireAnalysisChanged();
+    }
+    
+    /**
+     * Stores the embedding vector of an article; the similarity index picks it up on its next query
+     * @param url The article URL
+     * @param vector The unit-length embedding
+     * @throws SQLException if the save operation fails
+     */
+    public static void saveEmbedding(String url, float[] vector) throws SQLException {
+        // A replaced row gets a rowid above every existing one, so index refreshes see it as new
+        String insertSQL = """
+                INSERT OR REPLACE INTO article_embeddings (rowid, url, dimensions, vector)
+                VALUES ((SELECT COALESCE(MAX(rowid), 0) + 1 FROM article_embeddings), ?, ?, ?)
+                """;
+        
+        long start = System.nanoTime();
+        try (Connection conn = DriverManager.getConnection(DB_URL, CONNECTION_PROPERTIES);
+             PreparedStatement pstmt = conn.prepareStatement(insertSQL)) {
             
-            pstmt.setString(1, analysis.getSummary());
-            pstmt.setString(2, String.join(", ", analysis.getTopics()));
-            pstmt.setString(3, String.join(" | ", analysis.getKeyPoints()));
-            pstmt.setInt(4, analysis.getRelevanceScore());
-            pstmt.setString(5, url);
+            pstmt.setString(1, url);
+            pstmt.setInt(2, vector.length);
+            pstmt.setBytes(3, EmbeddingClient.toBytes(vector));
             
             pstmt.executeUpdate();
         }
+        Metrics.recordSince(Metrics.DB_WRITE, start);
     }
     
     /**
-     * Checks if an article with the given URL already exists in the database
+     * Returns the in-memory HNSW index, loading all stored embeddings on first use.
+     * Embeddings committed since by any connection, e.g. the import daemon's, are added
+     * before it is returned. The index holds vectors of the dimensions of the newest
+     * embedding; older ones of other dimensions (an earlier embedding model) are left out.
+     * @throws SQLException if the embeddings cannot be read
+     */
+    public static synchronized HnswIndex getEmbeddingIndex() throws SQLException {
+        long version = dataVersion();
+        if (embeddingIndex != null && version == embeddingIndexVersion) {
+            return embeddingIndex;
+        }
+        try (Connection conn = DriverManager.getConnection(DB_URL, CONNECTION_PROPERTIES)) {
+            if (embeddingIndex == null || !addNewEmbeddings(conn, embeddingIndex)) {
+                HnswIndex index = new HnswIndex();
+                embeddingIndexRowid = 0;
+                embeddingIndexSkipped = 0;
+                int dimensions = 0;
+                try (Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery(
+                             "SELECT dimensions FROM article_embeddings ORDER BY rowid DESC LIMIT 1")) {
+                    if (rs.next()) {
+                        dimensions = rs.getInt("dimensions");
+                    }
+                }
+                loadEmbeddings(conn, index, dimensions);
+                if (embeddingIndexSkipped > 0) {
+                    Log.warn("Similarity index: " + embeddingIndexSkipped + " embedding(s) of another "
+                            + "model left out until they are embedded again");
+                }
+                embeddingIndex = index;
+            }
+        }
+        embeddingIndexVersion = version;
+        return embeddingIndex;
+    }
+    
+    /**
+     * Adds the embeddings stored since the index was last loaded
+     * @return false if the index has to be rebuilt: rows were deleted or renumbered
+     *         (e.g. by VACUUM), or the new vectors come from a model with other dimensions
+     */
+    private static boolean addNewEmbeddings(Connection conn, HnswIndex index) throws SQLException {
+        if (!loadEmbeddings(conn, index, index.getDimensions())) {
+            return false;
+        }
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM article_embeddings")) {
+            return rs.next() && rs.getInt(1) == index.size() + embeddingIndexSkipped;
+        }
+    }
+    
+    /**
+     * Adds the rows after embeddingIndexRowid with the given dimensions to an index.
+     * Into an empty index other dimensions are skipped; into a filled one they stop the load.
+     * @return false if a row of other dimensions stopped the load
+     */
+    private static boolean loadEmbeddings(Connection conn, HnswIndex index, int dimensions) throws SQLException {
+        boolean filled = index.size() > 0;
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT rowid, url, dimensions, vector FROM article_embeddings WHERE rowid > ? ORDER BY rowid")) {
+            pstmt.setLong(1, embeddingIndexRowid);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    if (rs.getInt("dimensions") != dimensions) {
+                        if (filled) {
+                            return false;
+                        }
+                        embeddingIndexSkipped++;
+                    } else {
+                        index.add(rs.getString("url"), EmbeddingClient.fromBytes(rs.getBytes("vector")));
+                    }
+                    embeddingIndexRowid = rs.getLong("rowid");
+                }
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Finds analyzed articles without a usable embedding: none was stored, e.g. because
+     * no embedding model was loaded, or it has other dimensions than the similarity index
+     * @param limit Maximum number of articles
+     * @return The articles, newest first, with title, snippet and URL
+     * @throws SQLException if the query fails
+     */
+    public static List<TechNewsScraper.NewsArticle> getArticlesMissingEmbeddings(int limit) throws SQLException {
+        String querySQL = """
+                SELECT a.title, a.snippet, a.url FROM articles a
+                LEFT JOIN article_embeddings e ON e.url = a.url
+                WHERE a.summary IS NOT NULL AND (e.url IS NULL OR e.dimensions != ?)
+                ORDER BY a.scraped_date DESC
+                LIMIT ?
+                """;
+        int dimensions = getEmbeddingIndex().getDimensions();
+        
+        List<TechNewsScraper.NewsArticle> articles = new ArrayList<>();
+        try (Connection conn = DriverManager.getConnection(DB_URL, CONNECTION_PROPERTIES);
+             PreparedStatement pstmt = conn.prepareStatement(querySQL)) {
+            
+            pstmt.setInt(1, dimensions);
+            pstmt.setInt(2, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    articles.add(new TechNewsScraper.NewsArticle(rs.getString("title"), rs.getString("snippet"),
+                            rs.getString("url")));
+                }
+            }
+        }
+        return articles;
+    }
+    
+    /**
+     * Finds the analyzed articles most similar to the given one
+     * @param url The article URL
+     * @param limit Maximum number of results
+     * @return Similar articles, most similar first; empty if the article has no embedding
+     * @throws SQLException if the query fails
+     */
+    public static List<SimilarArticle> findSimilarArticles(String url, int limit) throws SQLException {
+        HnswIndex index = getEmbeddingIndex();
+        float[] vector = index.getVector(url);
+        if (vector == null) {
+            return new ArrayList<>();
+        }
+        return findSimilarArticles(vector, limit, url);
+    }
+    
+    /**
+     * Finds the analyzed articles closest to an arbitrary query vector
+     * @param vector The unit-length query embedding
+     * @param limit Maximum number of results
+     * @param excludeUrl An article to leave out of the results, or null
+     * @return Similar articles, most similar first
+     * @throws SQLException if the query fails
+     * @throws IllegalArgumentException if the vector's dimensions differ from the stored embeddings'
+     */
+    public static List<SimilarArticle> findSimilarArticles(float[] vector, int limit, String excludeUrl) throws SQLException {
+        List<SimilarArticle> similar = new ArrayList<>();
+        List<HnswIndex.Neighbor> neighbors = getEmbeddingIndex().search(vector, limit, excludeUrl);
+        if (neighbors.isEmpty()) {
+            return similar;
+        }
+        
+        String querySQL = "SELECT title, relevance_score FROM articles WHERE url = ? AND summary IS NOT NULL";
+        try (Connection conn = DriverManager.getConnection(DB_URL, CONNECTION_PROPERTIES);
+             PreparedStatement pstmt = conn.prepareStatement(querySQL)) {
+            
+            for (HnswIndex.Neighbor neighbor : neighbors) {
+                pstmt.setString(1, neighbor.getKey());
+                ResultSet rs = pstmt.executeQuery();
+                if (rs.next()) {
+                    similar.add(new SimilarArticle(rs.getString("title"), neighbor.getKey(),
+                            rs.getInt("relevance_score"), neighbor.getSimilarity()));
+                }
+            }
+        }
+        return similar;
+    }
+    
+    /**
+     * Checks if an article with the given URL, or another variant of it, already exists in the database
      * @param url The article URL to check
      * @return true if article exists, false otherwise
      * @throws SQLException if query fails
      */
     public static boolean articleExists(String url) throws SQLException {
-        String querySQL = "SELECT COUNT(*) FROM articles WHERE url = ?";
+        String querySQL = "SELECT COUNT(*) FROM articles WHERE url = ? OR canonical_url = ? OR rel_canonical_url = ?";
         
-        try (Connection conn = DriverManager.getConnection(DB_URL);
+        try (Connection conn = DriverManager.getConnection(DB_URL, CONNECTION_PROPERTIES);
              PreparedStatement pstmt = conn.prepareStatement(querySQL)) {
             
+            String key = UrlCanonicalizer.canonicalize(url);
             pstmt.setString(1, url);
+            pstmt.setString(2, key);
+            pstmt.setString(3, key);
             ResultSet rs = pstmt.executeQuery();
             
             if (rs.next()) {
@@ -110,25 +1275,741 @@ public class ArticleDatabase {
         return false;
     }
     
+    /**
+     * Applies the rel=canonical link of a fetched page. If another stored
+     * article already has that canonical key, by its URL or its own link, this
+     * one is taken out of the queue as its duplicate. Otherwise the key is
+     * recorded next to the article's URL key, so later variants of either the
+     * found URL or the canonical link are recognized.
+     * @param url The stored article URL
+     * @param canonicalLink The page's rel=canonical URL
+     * @return The URL of the article this one duplicates, or null if it is not a duplicate
+     * @throws SQLException if the lookup or update fails
+     */
+    public static String applyCanonicalLink(String url, String canonicalLink) throws SQLException {
+        String key = UrlCanonicalizer.canonicalize(canonicalLink);
+        String findSQL = "SELECT url FROM articles WHERE (canonical_url = ? OR rel_canonical_url = ?) AND url <> ?";
+        String updateSQL = "UPDATE articles SET rel_canonical_url = ? WHERE url = ?";
+        
+        try (Connection conn = DriverManager.getConnection(DB_URL, CONNECTION_PROPERTIES)) {
+            conn.setAutoCommit(false);
+            try {
+                String original = null;
+                try (PreparedStatement pstmt = conn.prepareStatement(findSQL)) {
+                    pstmt.setString(1, key);
+                    pstmt.setString(2, key);
+                    pstmt.setString(3, url);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        if (rs.next()) {
+                            original = rs.getString("url");
+                        }
+                    }
+                }
+                if (original != null) {
+                    markUrlDuplicate(conn, url, original);
+                } else {
+                    try (PreparedStatement pstmt = conn.prepareStatement(updateSQL)) {
+                        pstmt.setString(1, key);
+                        pstmt.setString(2, url);
+                        pstmt.executeUpdate();
+                    }
+                }
+                conn.commit();
+                return original;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+    
+    /**
+     * Links an article to the stored article with the same canonical key and,
+     * unless it was already analyzed, takes it out of the work queue
+     */
+    private static void markUrlDuplicate(Connection conn, String url, String original) throws SQLException {
+        String updateSQL = """
+                UPDATE articles
+                SET duplicate_of = ?,
+                    processing_state = CASE WHEN summary IS NULL THEN 'skipped' ELSE processing_state END,
+                    last_error = CASE WHEN summary IS NULL THEN ? ELSE last_error END
+                WHERE url = ?
+                """;
+        try (PreparedStatement pstmt = conn.prepareStatement(updateSQL)) {
+            pstmt.setString(1, original);
+            pstmt.setString(2, "same article as " + original);
+            pstmt.setString(3, url);
+            pstmt.executeUpdate();
+        }
+    }
+    
+    /**
+     * Fills canonical_url for rows stored before it existed. When several rows
+     * share a key, the analyzed (or else the oldest) one keeps it and the
+     * others are marked as its duplicates with no key of their own.
+     */
+    private static void migrateCanonicalUrls(Connection conn) throws SQLException {
+        String querySQL = "SELECT url FROM articles ORDER BY summary IS NULL, id";
+        Map<String, String> keys = new LinkedHashMap<>();
+        Map<String, String> duplicates = new LinkedHashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(querySQL)) {
+            Map<String, String> owners = new HashMap<>();
+            while (rs.next()) {
+                String url = rs.getString("url");
+                String key = UrlCanonicalizer.canonicalize(url);
+                String owner = owners.putIfAbsent(key, url);
+                if (owner == null) {
+                    keys.put(url, key);
+                } else {
+                    duplicates.put(url, owner);
+                }
+            }
+        }
+        
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (PreparedStatement pstmt = conn.prepareStatement("UPDATE articles SET canonical_url = ? WHERE url = ?")) {
+            for (Map.Entry<String, String> entry : keys.entrySet()) {
+                pstmt.setString(1, entry.getValue());
+                pstmt.setString(2, entry.getKey());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+            for (Map.Entry<String, String> duplicate : duplicates.entrySet()) {
+                markUrlDuplicate(conn, duplicate.getKey(), duplicate.getValue());
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+        if (!duplicates.isEmpty()) {
+            System.out.println("✓ Canonical URLs: " + duplicates.size() + " stored URL variant(s) marked as duplicates");
+        }
+    }
+    
+    /**
+     * Moves rel=canonical keys that earlier versions stored in canonical_url,
+     * in place of the found URL's key, into rel_canonical_url. Rows whose URL
+     * key is taken by another row meanwhile keep their key as it is.
+     */
+    private static void splitCanonicalLinks(Connection conn) throws SQLException {
+        Map<String, String> urlKeys = new LinkedHashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT url, canonical_url FROM articles WHERE canonical_url IS NOT NULL")) {
+            while (rs.next()) {
+                String url = rs.getString("url");
+                String key = UrlCanonicalizer.canonicalize(url);
+                if (!key.equals(rs.getString("canonical_url"))) {
+                    urlKeys.put(url, key);
+                }
+            }
+        }
+        if (urlKeys.isEmpty()) {
+            return;
+        }
+        
+        String updateSQL = "UPDATE OR IGNORE articles SET rel_canonical_url = canonical_url, canonical_url = ? WHERE url = ?";
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (PreparedStatement pstmt = conn.prepareStatement(updateSQL)) {
+            for (Map.Entry<String, String> entry : urlKeys.entrySet()) {
+                pstmt.setString(1, entry.getValue());
+                pstmt.setString(2, entry.getKey());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+    
     /**
      * Deletes all articles from the database.
      * Use with caution - this removes all rows from the articles table.
-     * @throws SQLException if the delete operation fails
+     * Refused while the import daemon or the archiver holds the import lock,
+     * since either may be appending to the archive segments deleted here.
+     * @throws SQLException if an import is running or the delete operation fails; on failure no rows are removed
      */
     public static void deleteAllArticles() throws SQLException {
-        String deleteSQL = "DELETE FROM articles";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement pstmt = conn.prepareStatement(deleteSQL)) {
+        FileLock lock;
+        try {
+            lock = tryLockImports();
+        } catch (IOException e) {
+            throw new SQLException("Could not take the import lock: " + e.getMessage(), e);
+        }
+        if (lock == null) {
+            throw new SQLException("The import daemon is running against this database, stop it first.");
+        }
+        try {
+            try (Connection conn = DriverManager.getConnection(DB_URL, CONNECTION_PROPERTIES);
+                 Statement stmt = conn.createStatement()) {
+                conn.setAutoCommit(false);
+                try {
+                    stmt.executeUpdate("DELETE FROM articles");
+                    stmt.executeUpdate("DELETE FROM simhash_bands");
+                    stmt.executeUpdate("DELETE FROM article_embeddings");
+                    stmt.executeUpdate("DELETE FROM daily_stats");
+                    stmt.executeUpdate("DELETE FROM topic_daily_counts");
+                    stmt.executeUpdate("DELETE FROM article_archive");
+                    stmt.executeUpdate("DELETE FROM article_leases");
+                    stmt.executeUpdate("DELETE FROM digest_partials");
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
+            }
+            synchronized (ArticleDatabase.class) {
+                embeddingIndex = null;
+                topicTrends = null;
+                relevanceClassifier = null;
+            }
+            fireAnalysisChanged();
+            try {
+                archive.deleteAll();
+            } catch (IOException e) {
+                throw new SQLException("Articles deleted but the archive segments could not be removed: " + e.getMessage(), e);
+            }
+        } finally {
+            unlockImports(lock);
+        }
+    }
+
+    /**
+     * Inserts analyzed articles from a snapshot in one transaction.
+     * Articles already in the database, under any URL variant, are left as they are.
+     * @param batch The articles to insert
+     * @return The number of articles that were new
+     * @throws SQLException if the insert fails; nothing from the batch is kept
+     */
+    public static int importAnalyzedArticles(List<SnapshotArticle> batch) throws SQLException {
+        String insertSQL = """
+                INSERT INTO articles (title, url, snippet, article_text, summary, topics, key_points, relevance_score,
+                                      scraped_date, analyzed_date, simhash, canonical_url, processing_state)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, COALESCE(?, CURRENT_TIMESTAMP), ?, ?, ?, 'analyzed')
+                ON CONFLICT DO NOTHING
+                """;
+        
+        int imported = 0;
+        try (Connection conn = DriverManager.getConnection(DB_URL, CONNECTION_PROPERTIES)) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(insertSQL)) {
+                for (SnapshotArticle snapshot : batch) {
+                    TechNewsScraper.NewsArticle article = snapshot.getArticle();
+                    LLMProcessor.ArticleAnalysis analysis = snapshot.getAnalysis();
+                    String text = article.getArticleText();
+                    Long fingerprint = NearDuplicateDetector.fingerprint(text);
+                    
+                    pstmt.setString(1, article.getTitle());
+                    pstmt.setString(2, article.getUrl());
+                    pstmt.setString(3, article.getSnippet());
+                    pstmt.setString(4, text == null || text.isEmpty() ? null : text);
+                    pstmt.setString(5, analysis.getSummary());
+                    pstmt.setString(6, String.join(", ", analysis.getTopics()));
+                    pstmt.setString(7, String.join(" | ", analysis.getKeyPoints()));
+                    pstmt.setInt(8, analysis.getRelevanceScore());
+                    pstmt.setString(9, snapshot.getScrapedDate());
+                    pstmt.setString(10, snapshot.getAnalyzedDate());
+                    if (fingerprint != null) {
+                        pstmt.setLong(11, fingerprint);
+                    } else {
+                        pstmt.setNull(11, Types.INTEGER);
+                    }
+                    pstmt.setString(12, UrlCanonicalizer.canonicalize(article.getUrl()));
+                    if (pstmt.executeUpdate() == 0) {
+                        continue;
+                    }
+                    
+                    String day = scrapedDay(conn, article.getUrl());
+                    adjustDailyStats(conn, day, 1, 0, clampRelevance(analysis.getRelevanceScore()));
+                    adjustTopicCounts(conn, day, distinctTopics(analysis.getTopics()), 1);
+                    saveBands(conn, article.getUrl(), fingerprint);
+                    imported++;
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+        if (imported > 0) {
+            fireAnalysisChanged();
+        }
+        return imported;
+    }
+    
+    /**
+     * Returns the stored body of an article, reading it from the archive if it was moved there
+     * @param url The article URL
+     * @return The body, or null if none was stored
+     * @throws SQLException if the lookup fails or the archive cannot be read
+     */
+    public static String loadArticleText(String url) throws SQLException {
+        String query = """
+                SELECT a.article_text, r.segment, r.offset, r.length
+                FROM articles a LEFT JOIN article_archive r ON r.url = a.url
+                WHERE a.url = ?
+                """;
+        ArticleArchive.Location location = null;
+        try (Connection conn = DriverManager.getConnection(DB_URL, CONNECTION_PROPERTIES);
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setString(1, url);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                String text = rs.getString("article_text");
+                if (text != null || rs.getObject("segment") == null) {
+                    return text;
+                }
+                location = new ArticleArchive.Location(rs.getInt("segment"), rs.getLong("offset"), rs.getInt("length"));
+            }
+        }
+        try {
+            return archive.read(location);
+        } catch (IOException e) {
+            throw new SQLException("Could not read archived body of " + url + ": " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Moves the bodies of analyzed articles older than the retention window into
+     * the archive segments. Works in small batches, each appended and synced to
+     * the archive before its rows are cleared in one short transaction, so imports
+     * running at the same time are only ever blocked briefly.
+     * @param retentionDays Bodies of articles scraped this many days ago or earlier are archived
+     * @return The number of bodies archived
+     * @throws SQLException if the database cannot be updated
+     * @throws IOException if the archive cannot be written
+     */
+    public static int archiveOldBodies(int retentionDays) throws SQLException, IOException {
+        String selectSQL = """
+                SELECT url, article_text FROM articles
+                WHERE article_text IS NOT NULL AND processing_state = 'analyzed'
+                  AND DATE(scraped_date) <= DATE('now', ?)
+                LIMIT ?
+                """;
+        String indexSQL = """
+                INSERT INTO article_archive (url, segment, offset, length) VALUES (?, ?, ?, ?)
+                ON CONFLICT(url) DO UPDATE SET segment = excluded.segment, offset = excluded.offset, length = excluded.length
+                """;
+        String clearSQL = "UPDATE articles SET article_text = NULL WHERE url = ?";
+        
+        int archived = 0;
+        try (Connection conn = DriverManager.getConnection(DB_URL, CONNECTION_PROPERTIES)) {
+            while (true) {
+                List<String> urls = new ArrayList<>();
+                List<ArticleArchive.Location> locations = new ArrayList<>();
+                try (PreparedStatement select = conn.prepareStatement(selectSQL)) {
+                    select.setString(1, "-" + retentionDays + " days");
+                    select.setInt(2, ARCHIVE_BATCH_SIZE);
+                    try (ResultSet rs = select.executeQuery()) {
+                        while (rs.next()) {
+                            urls.add(rs.getString("url"));
+                            locations.add(archive.append(rs.getString("article_text")));
+                        }
+                    }
+                }
+                if (urls.isEmpty()) {
+                    break;
+                }
+                // Bodies must be durable in the archive before the database forgets them
+                archive.sync();
+                
+                conn.setAutoCommit(false);
+                try (PreparedStatement index = conn.prepareStatement(indexSQL);
+                     PreparedStatement clear = conn.prepareStatement(clearSQL)) {
+                    for (int i = 0; i < urls.size(); i++) {
+                        ArticleArchive.Location location = locations.get(i);
+                        index.setString(1, urls.get(i));
+                        index.setInt(2, location.getSegment());
+                        index.setLong(3, location.getOffset());
+                        index.setInt(4, location.getLength());
+                        index.addBatch();
+                        clear.setString(1, urls.get(i));
+                        clear.addBatch();
+                    }
+                    index.executeBatch();
+                    clear.executeBatch();
+                    conn.commit();
+                } catch (SQLException e) {
+                    // The appended records stay in the segment unreferenced, which is harmless
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+                archived += urls.size();
+            }
+        }
+        return archived;
+    }
+    
+    /**
+     * Returns free pages to the file system with incremental vacuum, a few
+     * hundred pages per step, so other processes can keep writing in between.
+     * A database created before incremental vacuum was enabled needs a one-time
+     * full VACUUM, which holds the write lock until it is done.
+     * @param convert Run that full VACUUM if needed; only when nothing else uses the database
+     * @return The number of bytes the database file shrank by
+     * @throws SQLException if vacuuming fails
+     */
+    public static long reclaimFreeSpace(boolean convert) throws SQLException {
+        try (Connection conn = DriverManager.getConnection(DB_URL, CONNECTION_PROPERTIES);
+             Statement stmt = conn.createStatement()) {
+            
+            long pageSize = pragmaLong(stmt, "page_size");
+            long pagesBefore = pragmaLong(stmt, "page_count");
+            
+            if (pragmaLong(stmt, "auto_vacuum") != 2) {
+                if (!convert) {
+                    Log.warn("Free space is not reclaimed until the database is converted to incremental "
+                            + "vacuum; run ArticleArchive once while nothing else uses it");
+                    return 0;
+                }
+                Log.info("Converting the database to incremental vacuum (one-time full VACUUM)");
+                stmt.execute("PRAGMA auto_vacuum = INCREMENTAL");
+                stmt.execute("VACUUM");
+            } else {
+                // Each step is its own short write transaction
+                while (pragmaLong(stmt, "freelist_count") > 0) {
+                    stmt.execute("PRAGMA incremental_vacuum(" + VACUUM_STEP_PAGES + ")");
+                }
+            }
+            return (pagesBefore - pragmaLong(stmt, "page_count")) * pageSize;
+        }
+    }
+    
+    private static long pragmaLong(Statement stmt, String pragma) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("PRAGMA " + pragma)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+    
+    /**
+     * Returns the stats of each day in a range, oldest first.
+     * Reads one row per day, however many articles each day has.
+     * @param from First day to include, or null for no lower bound
+     * @param to Last day to include, or null for no upper bound
+     * @return One entry per day that has articles
+     * @throws SQLException if the query fails
+     */
+    public static List<DailyStats> getDailyStats(LocalDate from, LocalDate to) throws SQLException {
+        String query = "SELECT * FROM daily_stats WHERE day >= ? AND day <= ? ORDER BY day";
+        List<DailyStats> days = new ArrayList<>();
+        
+        try (Connection conn = DriverManager.getConnection(DB_URL, CONNECTION_PROPERTIES);
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+            // ISO dates compare correctly as text
+            pstmt.setString(1, from == null ? "" : from.toString());
+            pstmt.setString(2, to == null ? "9999-12-31" : to.toString());
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int[] histogram = new int[MAX_RELEVANCE];
+                    for (int score = 1; score <= MAX_RELEVANCE; score++) {
+                        histogram[score - 1] = rs.getInt("relevance_" + score);
+                    }
+                    days.add(new DailyStats(rs.getString("day"), rs.getInt("article_count"),
+                            rs.getInt("analyzed_count"), rs.getLong("relevance_sum"), histogram));
+                }
+            }
+        }
+        return days;
+    }
+    
+    /**
+     * Returns the in-memory topic trend counters, loading the days they cover on first use.
+     * They are loaded again once any connection, e.g. the import daemon's, has committed since.
+     * @throws SQLException if the counts cannot be read
+     */
+    public static synchronized TopicTrends getTopicTrends() throws SQLException {
+        long version = dataVersion();
+        if (topicTrends == null || version != topicTrendsVersion) {
+            TopicTrends trends = new TopicTrends();
+            try (Connection conn = DriverManager.getConnection(DB_URL, CONNECTION_PROPERTIES);
+                 PreparedStatement pstmt = conn.prepareStatement(
+                         "SELECT label, day, count FROM topic_daily_counts WHERE day >= ? AND count > 0")) {
+                
+                pstmt.setString(1, trends.oldestDay(LocalDate.now()).toString());
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        trends.add(rs.getString("label"), LocalDate.parse(rs.getString("day")), rs.getInt("count"));
+                    }
+                }
+            }
+            topicTrends = trends;
+            topicTrendsVersion = version;
+        }
+        return topicTrends;
+    }
+    
+    /**
+     * Reads PRAGMA data_version on a connection kept open for it. The value
+     * changes whenever another connection, in this or another process, has
+     * committed, so in-memory views compare it to decide when to reload.
+     * @throws SQLException if the database cannot be opened
+     */
+    private static synchronized long dataVersion() throws SQLException {
+        if (versionConnection == null) {
+            versionConnection = DriverManager.getConnection(DB_URL, CONNECTION_PROPERTIES);
+        }
+        try (Statement stmt = versionConnection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA data_version")) {
+            return rs.next() ? rs.getLong(1) : -1;
+        } catch (SQLException e) {
+            try {
+                versionConnection.close();
+            } catch (SQLException closeFailed) {
+                // Already unusable
+            }
+            versionConnection = null;
+            throw e;
+        }
+    }
+    
+    /**
+     * Adds a delta to the day's count of each topic
+     * @param topics Normalized topic key to label, see {@link #distinctTopics}
+     */
+    private static void adjustTopicCounts(Connection conn, String day, Map<String, String> topics,
+                                          int delta) throws SQLException {
+        if (day == null || topics.isEmpty()) {
+            return;
+        }
+        if (delta < 0) {
+            // Only existing rows can be decremented; never insert a zero count
+            String updateSQL = "UPDATE topic_daily_counts SET count = MAX(0, count + ?) WHERE topic = ? AND day = ?";
+            try (PreparedStatement pstmt = conn.prepareStatement(updateSQL)) {
+                for (String key : topics.keySet()) {
+                    pstmt.setInt(1, delta);
+                    pstmt.setString(2, key);
+                    pstmt.setString(3, day);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+            return;
+        }
+        String upsertSQL = """
+                INSERT INTO topic_daily_counts (topic, day, label, count) VALUES (?, ?, ?, ?)
+                ON CONFLICT(topic, day) DO UPDATE SET count = count + excluded.count
+                """;
+        try (PreparedStatement pstmt = conn.prepareStatement(upsertSQL)) {
+            for (Map.Entry<String, String> topic : topics.entrySet()) {
+                pstmt.setString(1, topic.getKey());
+                pstmt.setString(2, day);
+                pstmt.setString(3, topic.getValue());
+                pstmt.setInt(4, delta);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+    
+    /**
+     * Recomputes topic_daily_counts from the analyzed articles, e.g. for a database created before it existed
+     */
+    private static void rebuildTopicCounts(Connection conn) throws SQLException {
+        String query = "SELECT DATE(scraped_date) AS day, topics FROM articles WHERE summary IS NOT NULL AND scraped_date IS NOT NULL";
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+            while (rs.next()) {
+                adjustTopicCounts(conn, rs.getString("day"), distinctTopics(splitTopics(rs.getString("topics"))), 1);
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+    
+    /**
+     * Topics of one analysis keyed by {@link TopicTrends#normalize}, so each counts once per article
+     */
+    private static Map<String, String> distinctTopics(String[] topics) {
+        Map<String, String> distinct = new LinkedHashMap<>();
+        for (String topic : topics) {
+            String key = TopicTrends.normalize(topic);
+            if (!key.isEmpty()) {
+                distinct.putIfAbsent(key, topic.trim());
+            }
+        }
+        return distinct;
+    }
+    
+    private static String[] splitTopics(String topics) {
+        return topics == null || topics.isBlank() ? new String[0] : topics.split(",");
+    }
+    
+    /**
+     * Adds deltas to a day's stats row, creating it if needed
+     * @param day The day as DATE(scraped_date); nothing is recorded if null
+     * @param articleDelta Change in the number of articles
+     * @param removedScore Relevance of an analysis being replaced, or 0 if there was none
+     * @param addedScore Relevance of a new analysis, or 0 if there is none
+     */
+    private static void adjustDailyStats(Connection conn, String day, int articleDelta,
+                                         int removedScore, int addedScore) throws SQLException {
+        if (day == null) {
+            return;
+        }
+        StringBuilder columns = new StringBuilder("day, article_count, analyzed_count, relevance_sum");
+        StringBuilder values = new StringBuilder("?, ?, ?, ?");
+        StringBuilder updates = new StringBuilder("""
+                article_count = article_count + excluded.article_count,
+                analyzed_count = analyzed_count + excluded.analyzed_count,
+                relevance_sum = relevance_sum + excluded.relevance_sum""");
+        for (int score = 1; score <= MAX_RELEVANCE; score++) {
+            columns.append(", relevance_").append(score);
+            values.append(", ?");
+            updates.append(",\n relevance_").append(score).append(" = relevance_").append(score)
+                   .append(" + excluded.relevance_").append(score);
+        }
+        String upsertSQL = "INSERT INTO daily_stats (" + columns + ") VALUES (" + values + ")\n"
+                + "ON CONFLICT(day) DO UPDATE SET " + updates;
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(upsertSQL)) {
+            pstmt.setString(1, day);
+            pstmt.setInt(2, articleDelta);
+            pstmt.setInt(3, (addedScore > 0 ? 1 : 0) - (removedScore > 0 ? 1 : 0));
+            pstmt.setInt(4, addedScore - removedScore);
+            for (int score = 1; score <= MAX_RELEVANCE; score++) {
+                pstmt.setInt(4 + score, (score == addedScore ? 1 : 0) - (score == removedScore ? 1 : 0));
+            }
             pstmt.executeUpdate();
         }
     }
     
+    /**
+     * Recomputes daily_stats from the articles table, e.g. for a database created before it existed
+     */
+    private static void rebuildDailyStats(Connection conn) throws SQLException {
+        StringBuilder rebuildSQL = new StringBuilder("""
+                INSERT INTO daily_stats
+                SELECT DATE(scraped_date), COUNT(*), COUNT(summary),
+                       COALESCE(SUM(CASE WHEN summary IS NOT NULL THEN MIN(MAX(COALESCE(relevance_score, 0), 1), 10) END), 0)""");
+        for (int score = 1; score <= MAX_RELEVANCE; score++) {
+            rebuildSQL.append(",\n SUM(summary IS NOT NULL AND MIN(MAX(COALESCE(relevance_score, 0), 1), 10) = ").append(score).append(")");
+        }
+        rebuildSQL.append("\nFROM articles WHERE scraped_date IS NOT NULL GROUP BY DATE(scraped_date)");
+        
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM daily_stats");
+            stmt.executeUpdate(rebuildSQL.toString());
+        }
+    }
+    
+    /**
+     * Returns DATE(scraped_date) of an article, or null if the article is not stored
+     */
+    private static String scrapedDay(Connection conn, String url) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT DATE(scraped_date) FROM articles WHERE url = ?")) {
+            pstmt.setString(1, url);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+    
+    private static int clampRelevance(int score) {
+        return Math.max(1, Math.min(MAX_RELEVANCE, score));
+    }
+    
+    private static boolean tableExists(Connection conn, String table) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = ?")) {
+            pstmt.setString(1, table);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+    
+    /**
+     * Adds a column to an existing table if an older database does not have it yet
+     * @return true if the column was added
+     */
+    private static boolean ensureColumn(Connection conn, String table, String column, String definition) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) {
+                    return false;
+                }
+            }
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+        }
+        return true;
+    }
+    
+    /**
+     * Takes the import lock, an OS file lock on a file next to the database.
+     * Held by the import daemon for its lifetime, so only one daemon runs per
+     * database, and by the archive command. Other imports do not take it;
+     * article leases keep concurrent imports apart.
+     * @return The held lock, or null if another import holds it
+     * @throws IOException if the lock file cannot be opened
+     */
+    public static FileLock tryLockImports() throws IOException {
+        FileChannel channel = FileChannel.open(Path.of(DB_PATH + ".lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            FileLock lock = channel.tryLock();
+            if (lock == null) {
+                channel.close();
+            }
+            return lock;
+        } catch (OverlappingFileLockException e) {
+            // Already held by this JVM
+            channel.close();
+            return null;
+        }
+    }
+    
+    /**
+     * Releases a lock taken with {@link #tryLockImports()}
+     */
+    public static void unlockImports(FileLock lock) {
+        try {
+            lock.channel().close();
+        } catch (IOException e) {
+            System.err.println("Failed to release import lock: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Folder holding the archive segment files of this database
+     */
+    public static Path getArchiveDirectory() {
+        return ARCHIVE_DIR;
+    }
+    
+    private static Properties connectionProperties() {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setTransactionMode(SQLiteConfig.TransactionMode.IMMEDIATE);
+        config.setBusyTimeout(Integer.getInteger("db.busyTimeoutMillis", 10000));
+        return config.toProperties();
+    }
+    
     /**
      * Gets a database connection
      * @return Connection object to the SQLite database
      * @throws SQLException if connection fails
      */
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(DB_URL);
+        return DriverManager.getConnection(DB_URL, CONNECTION_PROPERTIES);
     }
 }
@@ -4,6 +4,8 @@ import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 
 import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
 
 /**
  * ArticleFetcher - Fetches full article text from article URLs
@@ -25,23 +27,80 @@ public class ArticleFetcher {
                     .timeout(TIMEOUT)
                     .get();
             
-            // Extract article body text using common article selectors
-            Elements paragraphs = doc.select("article p, div.article-content p, div.entry-content p");
-            StringBuilder fullText = new StringBuilder();
+            return extractArticleText(doc);
             
-            for (Element p : paragraphs) {
-                String text = p.text();
-                if (!text.isEmpty()) {
-                    fullText.append(text).append("\n\n");
-                }
-            }
+        } catch (IOException e) {
+            Log.warn("Failed to fetch article text from " + articleUrl + ": " + e.getMessage());
+            return "Failed to fetch article text";
+        }
+    }
+    
+    /**
+     * Fetches the full text of an article along with the page's rel=canonical link
+     * @param article The article to fetch; its text and canonical link are set
+     */
+    public static void fetchArticle(TechNewsScraper.NewsArticle article) {
+        try {
+            Document doc = Jsoup.connect(article.getUrl())
+                    .userAgent(USER_AGENT)
+                    .timeout(TIMEOUT)
+                    .get();
             
-            String text = fullText.toString().trim();
-            return text.isEmpty() ? "Article text not available" : text;
+            article.setArticleText(extractArticleText(doc));
+            article.setCanonicalLink(extractCanonicalLink(doc));
             
         } catch (IOException e) {
-            System.err.println("Failed to fetch article text from " + articleUrl + ": " + e.getMessage());
-            return "Failed to fetch article text";
+            Log.warn("Failed to fetch article text from " + article.getUrl() + ": " + e.getMessage());
+            article.setArticleText("Failed to fetch article text");
+        }
+    }
+    
+    /**
+     * Returns the absolute rel=canonical URL of a page
+     * @param doc The article page document
+     * @return The link, or null if the page has none or it points at the site's front page
+     */
+    public static String extractCanonicalLink(Document doc) {
+        Element link = doc.selectFirst("link[rel=canonical][href]");
+        if (link == null) {
+            return null;
+        }
+        String href = link.attr("abs:href");
+        String path;
+        try {
+            URI uri = new URI(href);
+            if (!"http".equals(uri.getScheme()) && !"https".equals(uri.getScheme())) {
+                return null;
+            }
+            path = uri.getPath();
+        } catch (URISyntaxException e) {
+            return null;
+        }
+        // Misconfigured sites point every page at the front page, which would merge all articles
+        if (path == null || path.isEmpty() || path.equals("/")) {
+            return null;
+        }
+        return href;
+    }
+    
+    /**
+     * Extracts the article body from a parsed article page
+     * @param doc The article page document
+     * @return The paragraphs separated by blank lines, or a placeholder if none were found
+     */
+    public static String extractArticleText(Document doc) {
+        // Extract article body text using common article selectors
+        Elements paragraphs = doc.select("article p, div.article-content p, div.entry-content p");
+        StringBuilder fullText = new StringBuilder();
+        
+        for (Element p : paragraphs) {
+            String text = p.text();
+            if (!text.isEmpty()) {
+                fullText.append(text).append("\n\n");
+            }
         }
+        
+        String text = fullText.toString().trim();
+        return text.isEmpty() ? "Article text not available" : text;
     }
 }
@@ -0,0 +1,104 @@
+/**
+ * CircuitBreaker - Stops calling a failing service until it has had time to recover
+ *
+ * After {@code failureThreshold} consecutive failures the breaker opens and
+ * rejects calls immediately. Once {@code openMillis} have passed a single
+ * trial call is let through (half-open); its outcome closes the breaker
+ * again or re-opens it for another period.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openMillis;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures = 0;
+    private long openedAt = 0;
+    private boolean trialInFlight = false;
+
+    public CircuitBreaker(String name, int failureThreshold, long openMillis) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    /**
+     * Checks whether a call may go ahead right now
+     * @return false while the breaker is open or a half-open trial call is still running
+     */
+    public synchronized boolean allowRequest() {
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openMillis) {
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        switch (state) {
+            case CLOSED:
+                return true;
+            case HALF_OPEN:
+                if (trialInFlight) {
+                    return false;
+                }
+                trialInFlight = true;
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Records a successful call and closes the breaker
+     */
+    public synchronized void recordSuccess() {
+        if (state != State.CLOSED) {
+            Log.info("Circuit '" + name + "' closed");
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    /**
+     * Records a failed call, opening the breaker when the threshold is reached
+     */
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        trialInFlight = false;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            trip();
+        }
+    }
+
+    /**
+     * Gives up a call without an outcome; a half-open breaker lets the next call be the trial
+     */
+    public synchronized void releaseTrial() {
+        trialInFlight = false;
+    }
+
+    /**
+     * Opens the breaker immediately, e.g. after a failed health probe
+     */
+    public synchronized void trip() {
+        if (state != State.OPEN) {
+            Log.warn("Circuit '" + name + "' opened for " + (openMillis / 1000) + "s");
+        }
+        state = State.OPEN;
+        openedAt = System.currentTimeMillis();
+        trialInFlight = false;
+    }
+
+    public synchronized State getState() {
+        // Report OPEN as HALF_OPEN once the wait is over, without consuming the trial call
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openMillis) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -1,14 +1,23 @@
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.List;
 
 /**
  * DailyDigest - Generates a summary of today's analyzed articles
+ *
+ * Run with -Ddigest.overview=true to start with an LLM-written overview of
+ * the day (see DigestOverview); by default only stored analyses are listed
+ * and no LLM is called.
  */
 public class DailyDigest {
     
+    private static final int TRENDING_TOPICS = 8;
+    private static final boolean OVERVIEW = Boolean.getBoolean("digest.overview");
+    
     /**
      * Generates and displays today's tech news digest
      */
@@ -27,12 +36,15 @@ public class DailyDigest {
             ResultSet rs = pstmt.executeQuery();
             
             int count = 0;
-            int totalRelevance = 0;
             
             System.out.println("\n╔════════════════════════════════════════════════════════════╗");
             System.out.println("║           TECH NEWS DIGEST - " + LocalDate.now() + "              ║");
             System.out.println("╚════════════════════════════════════════════════════════════╝\n");
             
+            if (OVERVIEW) {
+                printOverview();
+            }
+            
             while (rs.next()) {
                 count++;
                 String title = rs.getString("title");
@@ -42,8 +54,6 @@ public class DailyDigest {
                 int relevance = rs.getInt("relevance_score");
                 String url = rs.getString("url");
                 
-                totalRelevance += relevance;
-                
                 System.out.println("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
                 System.out.println("Article " + count + " │ Relevance: " + relevance + "/10");
                 System.out.println("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
@@ -73,13 +83,23 @@ public class DailyDigest {
                 System.out.println("No articles have been analyzed yet for today.");
                 System.out.println("Run the scraper first to fetch and analyze articles.\n");
             } else {
-                double avgRelevance = (double) totalRelevance / count;
+                // Kept up to date by every write, so this does not re-read today's articles
+                LocalDate today = LocalDate.now();
+                ArticleDatabase.DailyStats stats = ArticleDatabase.DailyStats.combine(
+                        ArticleDatabase.getDailyStats(today, today));
                 System.out.println("╔════════════════════════════════════════════════════════════╗");
                 System.out.println("║                        SUMMARY                             ║");
                 System.out.println("╚════════════════════════════════════════════════════════════╝");
-                System.out.printf("Total articles analyzed: %d%n", count);
-                System.out.printf("Average relevance score: %.1f/10%n", avgRelevance);
-                System.out.println();
+                System.out.printf("Total articles analyzed: %d of %d%n", stats.getAnalyzedCount(), stats.getArticleCount());
+                System.out.printf("Average relevance score: %.1f/10%n", stats.getAverageRelevance());
+                System.out.print("Relevance distribution: ");
+                for (int score = 10; score >= 1; score--) {
+                    if (stats.getRelevanceCount(score) > 0) {
+                        System.out.print(score + "→" + stats.getRelevanceCount(score) + "  ");
+                    }
+                }
+                System.out.println("\n");
+                printTrendingTopics();
             }
             
         } catch (SQLException e) {
@@ -88,6 +108,53 @@ public class DailyDigest {
         }
     }
     
+    /**
+     * Prints the LLM overview of today; only groups with new articles are summarized again
+     */
+    private static void printOverview() throws SQLException {
+        try {
+            DigestOverview.Overview overview = DigestOverview.generate(LocalDate.now());
+            if (overview.getText() == null) {
+                return;
+            }
+            System.out.println("📋 Overview");
+            System.out.println();
+            for (String paragraph : overview.getText().split("\\n\\s*\\n")) {
+                System.out.println("   " + paragraph.trim().replaceAll("\\s+", " "));
+                System.out.println();
+            }
+        } catch (IOException e) {
+            System.out.println("[WARN] Overview unavailable: " + e.getMessage() + "\n");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Prints the topics mentioned most above their usual level this week
+     */
+    private static void printTrendingTopics() throws SQLException {
+        TopicTrends trends = ArticleDatabase.getTopicTrends();
+        List<TopicTrends.Trend> trending = trends.trends(LocalDate.now());
+        if (trending.isEmpty()) {
+            return;
+        }
+        
+        System.out.println("╔════════════════════════════════════════════════════════════╗");
+        System.out.println("║                     TRENDING TOPICS                        ║");
+        System.out.println("╚════════════════════════════════════════════════════════════╝");
+        System.out.printf("%-28s %6s %6s %6s %7s%n", "Topic", "Now", "Prev", "Δ", "z");
+        for (TopicTrends.Trend trend : trending.subList(0, Math.min(TRENDING_TOPICS, trending.size()))) {
+            System.out.printf("%-28s %6d %6d %+6d %7.1f%n", truncate(trend.getTopic(), 28),
+                    trend.getCurrent(), trend.getPrevious(), trend.getDelta(), trend.getZScore());
+        }
+        System.out.printf("(last %d days vs. the %d days before)%n%n", trends.getWindowDays(), trends.getWindowDays());
+    }
+    
+    private static String truncate(String text, int length) {
+        return text.length() <= length ? text : text.substring(0, length - 1) + "…";
+    }
+    
     /**
      * Main entry point for viewing the digest
      */
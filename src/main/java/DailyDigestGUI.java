@@ -5,29 +5,55 @@ import java.awt.*;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
 
 /**
  * DailyDigestGUI - Main application for tech news scraping, analysis, and viewing
+ *
+ * The window is shown before the database is touched: schema initialization
+ * starts in the background as soon as main runs, and every article query runs
+ * in a SwingWorker with a skeleton placeholder in the meantime, so the time to
+ * an interactive window does not depend on the size of the database.
  */
 public class DailyDigestGUI extends JFrame {
     
+    // Startup phases in milliseconds since main started, logged once the first articles are shown
+    private static final long MAIN_START_NANOS = System.nanoTime();
+    private static final Map<String, Long> startupPhases = new LinkedHashMap<>();
+    
+    private final CompletableFuture<Void> databaseReady;
+    private int loadGeneration = 0;
+    private boolean startupLogged = false;
     private JPanel articlesPanel;
     private JScrollPane scrollPane;
     private JLabel statsLabel;
     private JComboBox<String> dateFilter;
     private JComboBox<String> sortFilter;
     private JButton startImportButton;
+    private JButton cancelImportButton;
+    private JComboBox<String> timeLimitFilter;
     private JButton refreshButton;
     private JButton deleteAllButton;
     private JTextArea logArea;
     private JProgressBar progressBar;
+    private JPanel relatedPanel;
+    private JTextArea metricsArea;
     private volatile boolean isImporting = false;
+    private volatile ImportPipeline activeImport;
     
     private static class Article {
         String title;
@@ -50,15 +76,33 @@ public class DailyDigestGUI extends JFrame {
         }
     }
     
-    public DailyDigestGUI() {
+    /**
+     * @param databaseReady Completes when the schema has been initialized
+     */
+    public DailyDigestGUI(CompletableFuture<Void> databaseReady) {
+        this.databaseReady = databaseReady;
         setTitle("Tech News Daily Digest");
         setSize(1100, 800);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLocationRelativeTo(null);
         
         initComponents();
-        initDatabase();
-        loadArticles("today", "relevance");
+        showSkeleton();
+        markStartup("components built");
+        
+        // Importing and deleting need the schema; filters just wait for it
+        startImportButton.setEnabled(false);
+        deleteAllButton.setEnabled(false);
+        databaseReady.whenComplete((ignored, error) -> SwingUtilities.invokeLater(() -> {
+            if (error == null) {
+                markStartup("database ready");
+                log("Database initialized successfully.");
+                startImportButton.setEnabled(true);
+                deleteAllButton.setEnabled(true);
+            } else {
+                log("ERROR: Failed to initialize database: " + rootMessage(error));
+            }
+        }));
         
         // Add resize listener for dynamic text wrapping
         addComponentListener(new ComponentAdapter() {
@@ -69,13 +113,44 @@ public class DailyDigestGUI extends JFrame {
         });
     }
     
-    private void initDatabase() {
-        try {
-            ArticleDatabase.initialize();
-            log("Database initialized successfully.");
-        } catch (SQLException e) {
-            log("ERROR: Failed to initialize database: " + e.getMessage());
+    /**
+     * Starts schema initialization on a background thread
+     */
+    private static CompletableFuture<Void> initDatabaseAsync() {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                ArticleDatabase.initialize();
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+    
+    private static void markStartup(String phase) {
+        synchronized (startupPhases) {
+            startupPhases.put(phase, (System.nanoTime() - MAIN_START_NANOS) / 1_000_000);
+        }
+    }
+    
+    private void logStartupTimings() {
+        StringBuilder timings = new StringBuilder("Startup: JVM to main ");
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        timings.append(uptime - (System.nanoTime() - MAIN_START_NANOS) / 1_000_000).append("ms");
+        synchronized (startupPhases) {
+            for (Map.Entry<String, Long> phase : startupPhases.entrySet()) {
+                timings.append(", ").append(phase.getKey()).append(" +").append(phase.getValue()).append("ms");
+            }
         }
+        log(timings.toString());
+        Log.info(timings.toString());
+    }
+    
+    private static String rootMessage(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException)
+                && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error.getMessage();
     }
     
     private void initComponents() {
@@ -104,6 +179,16 @@ public class DailyDigestGUI extends JFrame {
         startImportButton.setFocusPainted(false);
         startImportButton.addActionListener(e -> startImport());
         
+        // Cancel button: stops the running import, keeping what is already analyzed
+        cancelImportButton = new JButton("Cancel");
+        cancelImportButton.setEnabled(false);
+        cancelImportButton.addActionListener(e -> cancelImport());
+        
+        // Import time limit
+        JLabel timeLimitLabel = new JLabel("Time limit:");
+        timeLimitLabel.setForeground(Color.WHITE);
+        timeLimitFilter = new JComboBox<>(new String[]{"None", "2 min", "5 min", "10 min"});
+        
         // Separator
         JSeparator separator = new JSeparator(SwingConstants.VERTICAL);
         separator.setPreferredSize(new Dimension(2, 25));
@@ -124,7 +209,14 @@ public class DailyDigestGUI extends JFrame {
         refreshButton = new JButton("Refresh");
         refreshButton.addActionListener(e -> filterArticles());
         
+        // Trends button
+        JButton trendsButton = new JButton("Trends");
+        trendsButton.addActionListener(e -> showTrends());
+        
         controlsPanel.add(startImportButton);
+        controlsPanel.add(cancelImportButton);
+        controlsPanel.add(timeLimitLabel);
+        controlsPanel.add(timeLimitFilter);
         controlsPanel.add(Box.createHorizontalStrut(20));
         controlsPanel.add(separator);
         controlsPanel.add(Box.createHorizontalStrut(20));
@@ -135,6 +227,7 @@ public class DailyDigestGUI extends JFrame {
         controlsPanel.add(sortFilter);
         controlsPanel.add(Box.createHorizontalStrut(15));
         controlsPanel.add(refreshButton);
+        controlsPanel.add(trendsButton);
         controlsPanel.add(Box.createHorizontalStrut(10));
 
         // Delete All button
@@ -206,8 +299,31 @@ public class DailyDigestGUI extends JFrame {
         JScrollPane logScrollPane = new JScrollPane(logArea);
         logScrollPane.setBorder(BorderFactory.createTitledBorder("Import Log"));
         
-        splitPane.setTopComponent(scrollPane);
-        splitPane.setBottomComponent(logScrollPane);
+        // Related articles panel, filled from the embedding index
+        relatedPanel = new JPanel();
+        relatedPanel.setLayout(new BoxLayout(relatedPanel, BoxLayout.Y_AXIS));
+        relatedPanel.setBackground(Color.WHITE);
+        JScrollPane relatedScrollPane = new JScrollPane(relatedPanel);
+        relatedScrollPane.setBorder(BorderFactory.createTitledBorder("Related Articles"));
+        relatedScrollPane.setPreferredSize(new Dimension(260, 0));
+        showRelatedPlaceholder("Click 'Related' on an article to find similar stories.");
+        
+        JSplitPane articlesSplitPane = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, scrollPane, relatedScrollPane);
+        articlesSplitPane.setResizeWeight(0.78);
+        
+        // Pipeline stats panel, refreshed from the metrics registry
+        metricsArea = new JTextArea(6, 40);
+        metricsArea.setEditable(false);
+        metricsArea.setFont(new Font("Monospaced", Font.PLAIN, 11));
+        JScrollPane metricsScrollPane = new JScrollPane(metricsArea);
+        metricsScrollPane.setBorder(BorderFactory.createTitledBorder("Pipeline Stats"));
+        new Timer(1000, e -> metricsArea.setText(Metrics.report())).start();
+        
+        JSplitPane bottomSplitPane = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, logScrollPane, metricsScrollPane);
+        bottomSplitPane.setResizeWeight(0.6);
+        
+        splitPane.setTopComponent(articlesSplitPane);
+        splitPane.setBottomComponent(bottomSplitPane);
         
         add(topPanel, BorderLayout.NORTH);
         add(splitPane, BorderLayout.CENTER);
@@ -229,109 +345,73 @@ public class DailyDigestGUI extends JFrame {
         isImporting = true;
         startImportButton.setEnabled(false);
         startImportButton.setText("Importing...");
+        cancelImportButton.setEnabled(true);
         progressBar.setVisible(true);
         progressBar.setValue(0);
+        Duration timeLimit = selectedTimeLimit();
         
         // Run import in background thread
         new Thread(() -> {
             try {
+                // Other imports may be running; leases keep them off the articles this one works on
                 log("=".repeat(50));
                 log("Starting article import...");
                 
-                // Scrape articles
-                log("Connecting to TechCrunch...");
-                List<TechNewsScraper.NewsArticle> articles = TechNewsScraper.scrapeTechNews("https://techcrunch.com/");
-                
-                if (articles.isEmpty()) {
-                    log("No articles found. The website structure might have changed.");
-                    return;
-                }
-                
-                log("Found " + articles.size() + " articles");
-                
-                int successCount = 0;
-                int analysisCount = 0;
-                
-                for (int i = 0; i < articles.size(); i++) {
-                    TechNewsScraper.NewsArticle article = articles.get(i);
-                    int progress = (int) ((i + 1) * 100.0 / articles.size());
-                    
-                    SwingUtilities.invokeLater(() -> progressBar.setValue(progress));
-                    
-                    log("-".repeat(40));
-                    log("Article " + (i + 1) + "/" + articles.size() + ": " + article.getTitle());
+                // Scrape, queue and process articles, resuming unfinished work from earlier runs
+                ImportPipeline pipeline = new ImportPipeline(new ImportPipeline.Listener() {
+                    @Override
+                    public void log(String message) {
+                        DailyDigestGUI.this.log(message);
+                    }
                     
-                    if (!article.getUrl().isEmpty()) {
-                        // Check if article already exists
-                        try {
-                            if (ArticleDatabase.articleExists(article.getUrl())) {
-                                log("  [SKIP] Article already in database");
-                                continue;
-                            }
-                        } catch (SQLException e) {
-                            log("  [WARN] Could not check for existing article: " + e.getMessage());
-                        }
-                        
-                        // Fetch full article text
-                        log("  Fetching article text...");
-                        String fullText = ArticleFetcher.fetchArticleText(article.getUrl());
-                        article.setArticleText(fullText);
-                        
-                        // Save to database
-                        try {
-                            log("  Saving to database...");
-                            ArticleDatabase.saveArticle(article);
-                            log("  [OK] Article saved");
-                            successCount++;
-                            
-                            // Analyze with LLM
-                            log("  Analyzing with LLM...");
-                            try {
-                                LLMProcessor.ArticleAnalysis analysis = LLMProcessor.analyzeArticle(article);
-                                
-                                log("  Summary: " + truncate(analysis.getSummary(), 80));
-                                log("  Topics: " + String.join(", ", analysis.getTopics()));
-                                log("  Relevance: " + analysis.getRelevanceScore() + "/10");
-                                
-                                ArticleDatabase.saveAnalysis(article.getUrl(), analysis);
-                                log("  [OK] Analysis saved");
-                                analysisCount++;
-                                
-                            } catch (Exception e) {
-                                log("  [FAIL] LLM analysis failed: " + e.getMessage());
-                            }
-                            
-                        } catch (SQLException e) {
-                            log("  [FAIL] Failed to save article: " + e.getMessage());
-                        }
+                    @Override
+                    public void progress(int completed, int total) {
+                        int percent = (int) (completed * 100.0 / total);
+                        SwingUtilities.invokeLater(() -> progressBar.setValue(percent));
                     }
-                }
-                
-                log("=".repeat(50));
-                log("Import complete!");
-                log("Articles saved: " + successCount + "/" + articles.size());
-                log("Articles analyzed: " + analysisCount + "/" + articles.size());
+                });
+                pipeline.setTimeLimit(timeLimit);
+                activeImport = pipeline;
+                pipeline.run(TechNewsScraper.TECH_NEWS_URL);
                 
                 // Refresh article display
                 SwingUtilities.invokeLater(() -> filterArticles());
                 
             } catch (IOException e) {
                 log("ERROR: Failed to scrape articles: " + e.getMessage());
+            } catch (SQLException e) {
+                log("ERROR: Import queue unavailable: " + e.getMessage());
             } finally {
+                activeImport = null;
                 isImporting = false;
                 SwingUtilities.invokeLater(() -> {
                     startImportButton.setEnabled(true);
                     startImportButton.setText("Start Import");
+                    cancelImportButton.setEnabled(false);
                     progressBar.setVisible(false);
                 });
             }
         }).start();
     }
     
-    private String truncate(String text, int maxLength) {
-        if (text == null) return "";
-        if (text.length() <= maxLength) return text;
-        return text.substring(0, maxLength) + "...";
+    /**
+     * Asks the running import to stop; articles already analyzed are kept
+     */
+    private void cancelImport() {
+        ImportPipeline pipeline = activeImport;
+        if (pipeline != null && !pipeline.isCancelled()) {
+            log("Cancelling import...");
+            cancelImportButton.setEnabled(false);
+            pipeline.cancel();
+        }
+    }
+    
+    private Duration selectedTimeLimit() {
+        String selection = (String) timeLimitFilter.getSelectedItem();
+        if (selection == null || selection.equals("None")) {
+            return null;
+        }
+        return Duration.ofMinutes(Integer.parseInt(selection.replace(" min", "")));
     }
     
     private void filterArticles() {
@@ -347,10 +427,95 @@ public class DailyDigestGUI extends JFrame {
         });
     }
     
+    /**
+     * Queries articles in the background and shows them when the query finishes.
+     * Results of a load that was superseded by a newer one are dropped.
+     */
     private void loadArticles(String dateFilter, String sortBy) {
-        articlesPanel.removeAll();
+        int generation = ++loadGeneration;
+        statsLabel.setText("Loading articles...");
         
-        List<Article> articles = fetchArticlesFromDB(dateFilter, sortBy);
+        new SwingWorker<List<Article>, Void>() {
+            private ArticleDatabase.DailyStats stats;
+            
+            @Override
+            protected List<Article> doInBackground() throws SQLException {
+                databaseReady.join();
+                stats = ArticleDatabase.DailyStats.combine(
+                        ArticleDatabase.getDailyStats(filterStartDay(dateFilter), null));
+                return fetchArticlesFromDB(dateFilter, sortBy);
+            }
+            
+            @Override
+            protected void done() {
+                if (generation != loadGeneration) {
+                    return;
+                }
+                try {
+                    showArticles(get(), stats);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    articlesPanel.removeAll();
+                    articlesPanel.revalidate();
+                    articlesPanel.repaint();
+                    statsLabel.setText("Error loading articles");
+                    JOptionPane.showMessageDialog(DailyDigestGUI.this,
+                        "Error loading articles: " + rootMessage(e),
+                        "Database Error",
+                        JOptionPane.ERROR_MESSAGE);
+                }
+                if (!startupLogged) {
+                    startupLogged = true;
+                    markStartup("first articles shown");
+                    logStartupTimings();
+                }
+            }
+        }.execute();
+    }
+    
+    /**
+     * Fills the article list with grey placeholder cards while the first query runs
+     */
+    private void showSkeleton() {
+        articlesPanel.removeAll();
+        for (int i = 0; i < 3; i++) {
+            JPanel card = new JPanel();
+            card.setLayout(new BoxLayout(card, BoxLayout.Y_AXIS));
+            card.setBackground(Color.WHITE);
+            card.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(new Color(226, 232, 240), 1),
+                new EmptyBorder(15, 15, 15, 15)
+            ));
+            for (int width : new int[]{120, 600, 480, 520}) {
+                JPanel bar = new JPanel();
+                bar.setBackground(new Color(226, 232, 240));
+                bar.setMaximumSize(new Dimension(width, 14));
+                bar.setPreferredSize(new Dimension(width, 14));
+                bar.setAlignmentX(Component.LEFT_ALIGNMENT);
+                card.add(bar);
+                card.add(Box.createVerticalStrut(10));
+            }
+            articlesPanel.add(card);
+            articlesPanel.add(Box.createVerticalStrut(10));
+        }
+        statsLabel.setText("Loading articles...");
+    }
+    
+    /**
+     * First day included by a date filter, or null for all time
+     */
+    private static LocalDate filterStartDay(String dateFilter) {
+        return switch (dateFilter) {
+            case "today" -> LocalDate.now();
+            case "last_7_days" -> LocalDate.now().minusDays(7);
+            case "last_30_days" -> LocalDate.now().minusDays(30);
+            default -> null;
+        };
+    }
+    
+    private void showArticles(List<Article> articles, ArticleDatabase.DailyStats stats) {
+        articlesPanel.removeAll();
         
         if (articles.isEmpty()) {
             JLabel noDataLabel = new JLabel("No articles found. Click 'Start Import' to fetch articles.");
@@ -362,61 +527,25 @@ public class DailyDigestGUI extends JFrame {
             statsLabel.setText("No articles");
         } else {
             for (int i = 0; i < articles.size(); i++) {
-                articlesPanel.add(createArticlePanel(articles.get(i), i + 1));
+                articlesPanel.add(createArticlePanel(articles.get(i), i + 1, this, this::showRelatedArticles));
                 articlesPanel.add(Box.createVerticalStrut(10));
             }
             
             // Update stats
-            int totalRelevance = articles.stream().mapToInt(a -> a.relevanceScore).sum();
-            double avgRelevance = articles.isEmpty() ? 0 : (double) totalRelevance / articles.size();
             statsLabel.setText(String.format("Total Articles: %d  |  Average Relevance: %.1f/10", 
-                    articles.size(), avgRelevance));
+                    stats.getAnalyzedCount(), stats.getAverageRelevance()));
         }
         
         articlesPanel.revalidate();
         articlesPanel.repaint();
     }
     
-    private List<Article> fetchArticlesFromDB(String dateFilter, String sortBy) {
+    private List<Article> fetchArticlesFromDB(String dateFilter, String sortBy) throws SQLException {
         List<Article> articles = new ArrayList<>();
         
         try (Connection conn = ArticleDatabase.getConnection()) {
             
-            StringBuilder query = new StringBuilder("""
-                    SELECT title, summary, topics, key_points, relevance_score, url, 
-                           DATE(scraped_date) as scraped_date
-                    FROM articles 
-                    WHERE summary IS NOT NULL
-                    """);
-            
-            // Add date filter
-            switch (dateFilter) {
-                case "today":
-                    query.append(" AND DATE(scraped_date) = DATE('now', 'localtime')");
-                    break;
-                case "last_7_days":
-                    query.append(" AND DATE(scraped_date) >= DATE('now', '-7 days', 'localtime')");
-                    break;
-                case "last_30_days":
-                    query.append(" AND DATE(scraped_date) >= DATE('now', '-30 days', 'localtime')");
-                    break;
-                // "all_time" - no filter
-            }
-            
-            // Add sort order
-            switch (sortBy) {
-                case "relevance":
-                    query.append(" ORDER BY relevance_score DESC, id DESC");
-                    break;
-                case "date (newest)":
-                    query.append(" ORDER BY scraped_date DESC, id DESC");
-                    break;
-                case "date (oldest)":
-                    query.append(" ORDER BY scraped_date ASC, id ASC");
-                    break;
-            }
-            
-            PreparedStatement pstmt = conn.prepareStatement(query.toString());
+            PreparedStatement pstmt = conn.prepareStatement(ArticleDatabase.analyzedArticlesQuery(dateFilter, sortBy));
             ResultSet rs = pstmt.executeQuery();
             
             while (rs.next()) {
@@ -430,19 +559,20 @@ public class DailyDigestGUI extends JFrame {
                     rs.getString("scraped_date")
                 ));
             }
-            
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, 
-                "Error loading articles: " + e.getMessage(),
-                "Database Error", 
-                JOptionPane.ERROR_MESSAGE);
-            e.printStackTrace();
         }
         
         return articles;
     }
     
-    private JPanel createArticlePanel(Article article, int number) {
+    /**
+     * Builds the card for one article; static so it can be measured without a window
+     * @param article The article to show
+     * @param number Its position in the list
+     * @param parent Owner of the error dialog when the URL cannot be opened
+     * @param showRelated Called when the Related button is pressed
+     * @return The card panel
+     */
+    static JPanel createArticlePanel(Article article, int number, Component parent, Consumer<Article> showRelated) {
         JPanel panel = new JPanel();
         panel.setLayout(new BorderLayout(10, 10));
         panel.setBackground(Color.WHITE);
@@ -553,7 +683,7 @@ public class DailyDigestGUI extends JFrame {
             try {
                 Desktop.getDesktop().browse(new java.net.URI(article.url));
             } catch (Exception ex) {
-                JOptionPane.showMessageDialog(this, 
+                JOptionPane.showMessageDialog(parent, 
                     "Could not open URL: " + article.url,
                     "Error", 
                     JOptionPane.ERROR_MESSAGE);
@@ -561,6 +691,11 @@ public class DailyDigestGUI extends JFrame {
         });
         buttonPanel.add(urlButton);
         
+        JButton relatedButton = new JButton("Related");
+        relatedButton.setFont(new Font("Arial", Font.PLAIN, 12));
+        relatedButton.addActionListener(e -> showRelated.accept(article));
+        buttonPanel.add(relatedButton);
+        
         // Date label
         if (article.scrapedDate != null) {
             JLabel dateLabel = new JLabel("Date: " + article.scrapedDate);
@@ -579,37 +714,183 @@ public class DailyDigestGUI extends JFrame {
         return panel;
     }
     
-    private String getRelevanceBadge(int score) {
+    private void showRelatedArticles(Article article) {
+        showRelatedPlaceholder("Searching...");
+        
+        // Loading the index can touch every stored embedding, keep it off the EDT
+        new Thread(() -> {
+            try {
+                List<ArticleDatabase.SimilarArticle> similar = ArticleDatabase.findSimilarArticles(article.url, 8);
+                SwingUtilities.invokeLater(() -> {
+                    if (similar.isEmpty()) {
+                        showRelatedPlaceholder("No related articles found for this article yet.");
+                        return;
+                    }
+                    relatedPanel.removeAll();
+                    for (ArticleDatabase.SimilarArticle related : similar) {
+                        relatedPanel.add(createRelatedEntry(related));
+                        relatedPanel.add(Box.createVerticalStrut(6));
+                    }
+                    relatedPanel.revalidate();
+                    relatedPanel.repaint();
+                });
+            } catch (SQLException e) {
+                log("ERROR: Failed to find related articles: " + e.getMessage());
+                SwingUtilities.invokeLater(() -> showRelatedPlaceholder("Related articles unavailable."));
+            }
+        }).start();
+    }
+    
+    /**
+     * Opens a window listing the topics that are surging, from the rolling trend counters
+     */
+    private void showTrends() {
+        new SwingWorker<List<TopicTrends.Trend>, Void>() {
+            private int windowDays;
+            
+            @Override
+            protected List<TopicTrends.Trend> doInBackground() throws SQLException {
+                databaseReady.join();
+                TopicTrends trends = ArticleDatabase.getTopicTrends();
+                windowDays = trends.getWindowDays();
+                return trends.trends(LocalDate.now());
+            }
+            
+            @Override
+            protected void done() {
+                try {
+                    showTrendsDialog(get(), windowDays);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    log("ERROR: Failed to load topic trends: " + rootMessage(e));
+                }
+            }
+        }.execute();
+    }
+    
+    private void showTrendsDialog(List<TopicTrends.Trend> trends, int windowDays) {
+        String[] columns = {"Topic", "Last " + windowDays + " days", "Previous " + windowDays, "Change", "Usual", "z-score"};
+        Object[][] rows = new Object[trends.size()][];
+        for (int i = 0; i < trends.size(); i++) {
+            TopicTrends.Trend trend = trends.get(i);
+            rows[i] = new Object[]{
+                trend.getTopic(),
+                trend.getCurrent(),
+                trend.getPrevious(),
+                String.format("%+d", trend.getDelta()),
+                String.format("%.1f", trend.getBaselineMean()),
+                String.format("%.1f", trend.getZScore())
+            };
+        }
+        
+        JTable table = new JTable(rows, columns);
+        table.setDefaultEditor(Object.class, null);
+        table.setFont(new Font("Arial", Font.PLAIN, 12));
+        table.setRowHeight(22);
+        table.getColumnModel().getColumn(0).setPreferredWidth(220);
+        
+        JLabel caption = new JLabel(trends.isEmpty()
+                ? "No topics analyzed in the last " + windowDays + " days."
+                : "Topics ranked by how far this window is above their usual level (z-score).");
+        caption.setBorder(new EmptyBorder(8, 8, 8, 8));
+        
+        JDialog dialog = new JDialog(this, "Topic Trends", false);
+        dialog.setLayout(new BorderLayout());
+        dialog.add(caption, BorderLayout.NORTH);
+        dialog.add(new JScrollPane(table), BorderLayout.CENTER);
+        dialog.setSize(620, 420);
+        dialog.setLocationRelativeTo(this);
+        dialog.setVisible(true);
+    }
+    
+    private void showRelatedPlaceholder(String message) {
+        relatedPanel.removeAll();
+        JTextArea placeholder = new JTextArea(message);
+        placeholder.setWrapStyleWord(true);
+        placeholder.setLineWrap(true);
+        placeholder.setEditable(false);
+        placeholder.setOpaque(false);
+        placeholder.setFont(new Font("Arial", Font.ITALIC, 12));
+        placeholder.setForeground(Color.GRAY);
+        placeholder.setBorder(new EmptyBorder(10, 10, 10, 10));
+        relatedPanel.add(placeholder);
+        relatedPanel.revalidate();
+        relatedPanel.repaint();
+    }
+    
+    private JPanel createRelatedEntry(ArticleDatabase.SimilarArticle related) {
+        JPanel entry = new JPanel(new BorderLayout(5, 5));
+        entry.setBackground(Color.WHITE);
+        entry.setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createLineBorder(new Color(226, 232, 240), 1),
+            new EmptyBorder(6, 8, 6, 8)
+        ));
+        
+        JTextArea titleArea = new JTextArea(related.getTitle());
+        titleArea.setWrapStyleWord(true);
+        titleArea.setLineWrap(true);
+        titleArea.setEditable(false);
+        titleArea.setOpaque(false);
+        titleArea.setFont(new Font("Arial", Font.BOLD, 12));
+        
+        JLabel scoreLabel = new JLabel(String.format("%.0f%% similar  |  %s",
+                related.getSimilarity() * 100, getRelevanceBadge(related.getRelevanceScore())));
+        scoreLabel.setFont(new Font("Arial", Font.PLAIN, 11));
+        scoreLabel.setForeground(Color.GRAY);
+        
+        JButton openButton = new JButton("Open");
+        openButton.setFont(new Font("Arial", Font.PLAIN, 11));
+        openButton.addActionListener(e -> {
+            try {
+                Desktop.getDesktop().browse(new java.net.URI(related.getUrl()));
+            } catch (Exception ex) {
+                JOptionPane.showMessageDialog(this, 
+                    "Could not open URL: " + related.getUrl(),
+                    "Error", 
+                    JOptionPane.ERROR_MESSAGE);
+            }
+        });
+        
+        JPanel footer = new JPanel(new BorderLayout());
+        footer.setBackground(Color.WHITE);
+        footer.add(scoreLabel, BorderLayout.WEST);
+        footer.add(openButton, BorderLayout.EAST);
+        
+        entry.add(titleArea, BorderLayout.CENTER);
+        entry.add(footer, BorderLayout.SOUTH);
+        entry.setMaximumSize(new Dimension(Integer.MAX_VALUE, entry.getPreferredSize().height + 40));
+        return entry;
+    }
+    
+    private static String getRelevanceBadge(int score) {
         return "Score: " + score + "/10";
     }
     
-    private Color getRelevanceColor(int score) {
+    private static Color getRelevanceColor(int score) {
         if (score >= 8) return new Color(34, 197, 94);  // Green
         if (score >= 6) return new Color(234, 179, 8);  // Yellow
         if (score >= 4) return new Color(249, 115, 22); // Orange
         return new Color(239, 68, 68);                   // Red
     }
     
-    private String escapeHtml(String text) {
-        if (text == null) return "";
-        return text.replace("&", "&amp;")
-                   .replace("<", "&lt;")
-                   .replace(">", "&gt;")
-                   .replace("\"", "&quot;")
-                   .replace("'", "&#39;");
-    }
-    
     public static void main(String[] args) {
+        // Schema init does not touch Swing, so it overlaps with look-and-feel and window setup
+        CompletableFuture<Void> databaseReady = initDatabaseAsync();
+        
         // Set look and feel
         try {
             UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
         } catch (Exception e) {
             e.printStackTrace();
         }
+        markStartup("look and feel");
         
         SwingUtilities.invokeLater(() -> {
-            DailyDigestGUI gui = new DailyDigestGUI();
+            DailyDigestGUI gui = new DailyDigestGUI(databaseReady);
             gui.setVisible(true);
+            markStartup("window shown");
+            gui.loadArticles("today", "relevance");
         });
     }
 }
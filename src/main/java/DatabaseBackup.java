@@ -0,0 +1,310 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.sqlite.SQLiteConnection;
+import org.sqlite.core.DB;
+
+/**
+ * DatabaseBackup - Online backups and portable snapshots of the article database
+ *
+ * A backup is a page-for-page copy made with SQLite's online backup API while
+ * imports and the GUI keep running. Pages are copied a few at a time with a
+ * pause between steps, so the source is only read-locked for one short step
+ * at a time and writers wait milliseconds rather than for the whole copy. If
+ * writes keep restarting the copy, the pauses are dropped so it can finish.
+ * Archive segments are copied after the database, since they are append-only.
+ *
+ * A snapshot is a gzipped JSON Lines file with one analyzed article per line
+ * (optionally without article bodies), for seeding a new install. Importing
+ * one keeps existing articles and adds the rest.
+ *
+ * Usage:
+ *   DatabaseBackup backup backups/tech_news-2026-10-18.db
+ *   DatabaseBackup export-snapshot seed.jsonl.gz [--no-bodies]
+ *   DatabaseBackup import-snapshot seed.jsonl.gz
+ */
+public class DatabaseBackup {
+
+    private static final String SNAPSHOT_FORMAT = "tech-news-snapshot";
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int IMPORT_BATCH_SIZE = 500;
+
+    private static final int PAGES_PER_STEP = Integer.getInteger("backup.pagesPerStep", 64);
+    private static final long STEP_PAUSE_MILLIS = Long.getLong("backup.stepPauseMillis", 5);
+    private static final int MAX_RESTARTS = 5;
+    private static final int BUSY_RETRIES = 50;
+    private static final int BUSY_SLEEP_MILLIS = 100;
+
+    /**
+     * Copies the live database to a file with the online backup API
+     * @param target The backup file; replaced atomically when the copy is complete
+     * @return The number of database pages copied
+     * @throws SQLException if the backup fails or the copy does not pass an integrity check
+     * @throws IOException if the archive segments cannot be copied
+     */
+    public static int backup(Path target) throws SQLException, IOException {
+        Path parent = target.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = parent.resolve(target.getFileName() + ".tmp");
+        Files.deleteIfExists(temp);
+
+        int[] pages = new int[1];
+        try (Connection conn = ArticleDatabase.getConnection()) {
+            DB db = conn.unwrap(SQLiteConnection.class).getDatabase();
+
+            DB.ProgressObserver throttle = new DB.ProgressObserver() {
+                private int lastRemaining = Integer.MAX_VALUE;
+                private int restarts = 0;
+
+                @Override
+                public void progress(int remaining, int pageCount) {
+                    pages[0] = pageCount;
+                    // A write from another connection restarts the copy from the first page
+                    if (remaining > lastRemaining && ++restarts == MAX_RESTARTS) {
+                        Log.info("Backup restarted " + restarts + " times by concurrent writes, copying without pauses");
+                    }
+                    lastRemaining = remaining;
+                    if (remaining > 0 && restarts < MAX_RESTARTS && STEP_PAUSE_MILLIS > 0) {
+                        try {
+                            Thread.sleep(STEP_PAUSE_MILLIS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                }
+            };
+
+            int rc = db.backup("main", temp.toString(), throttle, BUSY_SLEEP_MILLIS, BUSY_RETRIES, PAGES_PER_STEP);
+            if (rc != 0) {
+                throw new SQLException("Backup failed with SQLite error code " + rc);
+            }
+        }
+
+        try (Connection copy = DriverManager.getConnection("jdbc:sqlite:" + temp);
+             Statement stmt = copy.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA quick_check")) {
+            String result = rs.next() ? rs.getString(1) : "no result";
+            if (!"ok".equals(result)) {
+                throw new SQLException("Backup failed integrity check: " + result);
+            }
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        copyArchive(ArticleDatabase.getArchiveDirectory(), Path.of(target + ".archive"));
+        return pages[0];
+    }
+
+    /**
+     * Writes every analyzed article to a gzipped JSON Lines snapshot
+     * @param target The snapshot file
+     * @param includeBodies Whether to include the full article text
+     * @return The number of articles written
+     * @throws SQLException if the articles cannot be read
+     * @throws IOException if the file cannot be written
+     */
+    public static int exportSnapshot(Path target, boolean includeBodies) throws SQLException, IOException {
+        String query = """
+                SELECT a.title, a.url, a.snippet, a.article_text, a.summary, a.topics, a.key_points,
+                       a.relevance_score, a.scraped_date, a.analyzed_date, r.url IS NOT NULL AS archived
+                FROM articles a LEFT JOIN article_archive r ON r.url = a.url
+                WHERE a.summary IS NOT NULL
+                ORDER BY a.id
+                """;
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        int count = 0;
+
+        try (Connection conn = ArticleDatabase.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(query);
+             ResultSet rs = pstmt.executeQuery();
+             Writer out = new OutputStreamWriter(
+                     new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(temp))), StandardCharsets.UTF_8)) {
+
+            JsonObject header = new JsonObject();
+            header.addProperty("format", SNAPSHOT_FORMAT);
+            header.addProperty("version", SNAPSHOT_VERSION);
+            header.addProperty("bodies", includeBodies);
+            out.write(header + "\n");
+
+            while (rs.next()) {
+                JsonObject line = new JsonObject();
+                line.addProperty("title", rs.getString("title"));
+                line.addProperty("url", rs.getString("url"));
+                line.addProperty("snippet", rs.getString("snippet"));
+                line.addProperty("summary", rs.getString("summary"));
+                line.addProperty("topics", rs.getString("topics"));
+                line.addProperty("keyPoints", rs.getString("key_points"));
+                line.addProperty("relevance", rs.getInt("relevance_score"));
+                line.addProperty("scraped", rs.getString("scraped_date"));
+                line.addProperty("analyzed", rs.getString("analyzed_date"));
+                if (includeBodies) {
+                    String text = rs.getString("article_text");
+                    if (text == null && rs.getBoolean("archived")) {
+                        text = ArticleDatabase.loadArticleText(rs.getString("url"));
+                    }
+                    line.addProperty("text", text);
+                }
+                out.write(line + "\n");
+                count++;
+            }
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        return count;
+    }
+
+    /**
+     * Adds the articles of a snapshot to the database, in batches
+     * @param source The snapshot file
+     * @return The number of articles that were not in the database yet
+     * @throws SQLException if the articles cannot be saved
+     * @throws IOException if the file cannot be read or is not a snapshot
+     */
+    public static int importSnapshot(Path source) throws SQLException, IOException {
+        int imported = 0;
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new BufferedInputStream(Files.newInputStream(source))), StandardCharsets.UTF_8))) {
+
+            String headerLine = in.readLine();
+            JsonObject header = headerLine == null ? null : JsonParser.parseString(headerLine).getAsJsonObject();
+            if (header == null || !header.has("format") || !SNAPSHOT_FORMAT.equals(header.get("format").getAsString())) {
+                throw new IOException(source + " is not a snapshot file");
+            }
+            if (header.get("version").getAsInt() > SNAPSHOT_VERSION) {
+                throw new IOException("Snapshot version " + header.get("version") + " is newer than this program supports");
+            }
+
+            List<ArticleDatabase.SnapshotArticle> batch = new ArrayList<>();
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                batch.add(toSnapshotArticle(JsonParser.parseString(line).getAsJsonObject()));
+                if (batch.size() == IMPORT_BATCH_SIZE) {
+                    imported += ArticleDatabase.importAnalyzedArticles(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                imported += ArticleDatabase.importAnalyzedArticles(batch);
+            }
+        }
+        return imported;
+    }
+
+    private static ArticleDatabase.SnapshotArticle toSnapshotArticle(JsonObject json) {
+        TechNewsScraper.NewsArticle article = new TechNewsScraper.NewsArticle(
+                string(json, "title"), string(json, "snippet"), string(json, "url"));
+        String text = string(json, "text");
+        if (text != null) {
+            article.setArticleText(text);
+        }
+        LLMProcessor.ArticleAnalysis analysis = new LLMProcessor.ArticleAnalysis(
+                string(json, "summary"),
+                split(string(json, "topics"), ","),
+                split(string(json, "keyPoints"), "\\|"),
+                json.get("relevance").getAsInt());
+        return new ArticleDatabase.SnapshotArticle(article, analysis, string(json, "scraped"), string(json, "analyzed"));
+    }
+
+    private static String string(JsonObject json, String name) {
+        JsonElement value = json.get(name);
+        return value == null || value.isJsonNull() ? null : value.getAsString();
+    }
+
+    private static String[] split(String value, String separator) {
+        if (value == null || value.isBlank()) {
+            return new String[0];
+        }
+        return Arrays.stream(value.split(separator))
+                .map(String::trim)
+                .filter(item -> !item.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    /**
+     * Copies segment files that are missing or shorter in the target; segments only ever grow
+     */
+    private static void copyArchive(Path source, Path target) throws IOException {
+        if (!Files.isDirectory(source)) {
+            return;
+        }
+        Files.createDirectories(target);
+        try (DirectoryStream<Path> segments = Files.newDirectoryStream(source, "segment-*.dat")) {
+            for (Path segment : segments) {
+                Path copy = target.resolve(segment.getFileName());
+                if (!Files.exists(copy) || Files.size(copy) != Files.size(segment)) {
+                    Files.copy(segment, copy, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+    }
+
+    /**
+     * Main entry point: backup | export-snapshot | import-snapshot
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: DatabaseBackup backup <file>");
+            System.err.println("       DatabaseBackup export-snapshot <file> [--no-bodies]");
+            System.err.println("       DatabaseBackup import-snapshot <file>");
+            System.exit(2);
+        }
+        Path file = Path.of(args[1]);
+
+        try {
+            ArticleDatabase.initialize();
+            long start = System.nanoTime();
+            switch (args[0]) {
+                case "backup" -> {
+                    int pages = backup(file);
+                    System.out.printf("✓ Backed up %d pages to %s in %d ms%n", pages, file, elapsedMillis(start));
+                }
+                case "export-snapshot" -> {
+                    boolean bodies = !(args.length > 2 && args[2].equals("--no-bodies"));
+                    int count = exportSnapshot(file, bodies);
+                    System.out.printf("✓ Exported %d analyzed articles%s to %s (%.1f KB) in %d ms%n", count,
+                            bodies ? "" : " without bodies", file, Files.size(file) / 1024.0, elapsedMillis(start));
+                }
+                case "import-snapshot" -> {
+                    int imported = importSnapshot(file);
+                    System.out.printf("✓ Imported %d new articles from %s in %d ms%n", imported, file, elapsedMillis(start));
+                }
+                default -> {
+                    System.err.println("✗ Unknown command: " + args[0]);
+                    System.exit(2);
+                }
+            }
+        } catch (SQLException | IOException e) {
+            System.err.println("✗ " + args[0] + " failed: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -0,0 +1,417 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * DigestExporter - Writes the daily digests as static HTML, Markdown and JSON files
+ *
+ * One file per day and format (2026-10-18.html, .md, .json) plus an index in
+ * each format. Each day's analyzed articles are hashed first, and only days
+ * whose hash differs from the one stored in export_state (or whose files are
+ * missing) are rendered again. Rendering streams rows from the database into
+ * the three writers at once, so memory use does not depend on how many
+ * articles a day has. Files are written to a temp file and moved into place,
+ * so readers of a shared folder never see a half-written digest.
+ */
+public class DigestExporter {
+
+    private static final String[] FORMATS = {"html", "md", "json"};
+
+    static final String DAY_ROWS_SQL = """
+            SELECT title, summary, topics, key_points, relevance_score, url
+            FROM articles
+            WHERE summary IS NOT NULL AND DATE(scraped_date) = ?
+            ORDER BY relevance_score DESC, id DESC
+            """;
+
+    /**
+     * ExportResult - What an export run did
+     */
+    public static class ExportResult {
+        private int days;
+        private int exported;
+        private int removed;
+
+        public int getDays() { return days; }
+        public int getExported() { return exported; }
+        public int getRemoved() { return removed; }
+    }
+
+    /**
+     * DaySummary - Article count and relevance total of one day
+     */
+    private static class DaySummary {
+        final String hash;
+        final int count;
+        final long relevanceSum;
+
+        DaySummary(String hash, int count, long relevanceSum) {
+            this.hash = hash;
+            this.count = count;
+            this.relevanceSum = relevanceSum;
+        }
+    }
+
+    /**
+     * Exports every day whose analyses changed since the last export
+     * @param outputDir The folder to write into; created if missing
+     * @param force Re-render every day regardless of its hash
+     * @return Counts for this run
+     * @throws SQLException if the articles cannot be read
+     * @throws IOException if a file cannot be written
+     */
+    public static ExportResult export(Path outputDir, boolean force) throws SQLException, IOException {
+        Files.createDirectories(outputDir);
+        ExportResult result = new ExportResult();
+
+        try (Connection conn = ArticleDatabase.getConnection()) {
+            TreeMap<String, DaySummary> days = hashDays(conn);
+            Map<String, String> exported = loadExportState(conn);
+            result.days = days.size();
+
+            for (Map.Entry<String, DaySummary> day : days.entrySet()) {
+                String date = day.getKey();
+                if (!force && day.getValue().hash.equals(exported.get(date)) && filesExist(outputDir, date)) {
+                    continue;
+                }
+                exportDay(conn, outputDir, date);
+                saveExportState(conn, date, day.getValue().hash);
+                result.exported++;
+            }
+
+            // Days with no analyzed articles left (e.g. after "Delete All")
+            for (String date : exported.keySet()) {
+                if (!days.containsKey(date)) {
+                    for (String format : FORMATS) {
+                        Files.deleteIfExists(outputDir.resolve(date + "." + format));
+                    }
+                    deleteExportState(conn, date);
+                    result.removed++;
+                }
+            }
+
+            if (result.exported > 0 || result.removed > 0 || force || !filesExist(outputDir, "index")) {
+                writeIndex(outputDir, days);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Hashes each day's analyzed articles in digest order, one row at a time
+     */
+    private static TreeMap<String, DaySummary> hashDays(Connection conn) throws SQLException {
+        String query = """
+                SELECT DATE(scraped_date) AS day, title, summary, topics, key_points, relevance_score, url
+                FROM articles
+                WHERE summary IS NOT NULL
+                ORDER BY day, relevance_score DESC, id DESC
+                """;
+        TreeMap<String, DaySummary> days = new TreeMap<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(query);
+             ResultSet rs = pstmt.executeQuery()) {
+            String currentDay = null;
+            MessageDigest digest = sha256();
+            int count = 0;
+            long relevanceSum = 0;
+            while (rs.next()) {
+                String day = rs.getString("day");
+                if (!day.equals(currentDay)) {
+                    if (currentDay != null) {
+                        days.put(currentDay, new DaySummary(HexFormat.of().formatHex(digest.digest()), count, relevanceSum));
+                    }
+                    currentDay = day;
+                    count = 0;
+                    relevanceSum = 0;
+                }
+                for (String column : new String[]{"title", "summary", "topics", "key_points", "relevance_score", "url"}) {
+                    String value = rs.getString(column);
+                    digest.update((value == null ? "" : value).getBytes(StandardCharsets.UTF_8));
+                    digest.update((byte) 0);
+                }
+                count++;
+                relevanceSum += rs.getInt("relevance_score");
+            }
+            if (currentDay != null) {
+                days.put(currentDay, new DaySummary(HexFormat.of().formatHex(digest.digest()), count, relevanceSum));
+            }
+        }
+        return days;
+    }
+
+    /**
+     * Renders one day into all formats in a single pass over its rows
+     */
+    private static void exportDay(Connection conn, Path outputDir, String date) throws SQLException, IOException {
+        Path html = outputDir.resolve(date + ".html.tmp");
+        Path markdown = outputDir.resolve(date + ".md.tmp");
+        Path json = outputDir.resolve(date + ".json.tmp");
+
+        try (PreparedStatement pstmt = conn.prepareStatement(DAY_ROWS_SQL);
+             Writer htmlOut = Files.newBufferedWriter(html, StandardCharsets.UTF_8);
+             Writer markdownOut = Files.newBufferedWriter(markdown, StandardCharsets.UTF_8);
+             JsonWriter jsonOut = new JsonWriter(Files.newBufferedWriter(json, StandardCharsets.UTF_8))) {
+
+            pstmt.setString(1, date);
+            jsonOut.setIndent("  ");
+
+            htmlOut.write("<!DOCTYPE html>\n<html lang=\"en\">\n<head>\n<meta charset=\"utf-8\">\n");
+            htmlOut.write("<title>Tech News Digest - " + date + "</title>\n");
+            htmlOut.write("<style>body{font-family:Arial,sans-serif;max-width:860px;margin:2em auto;color:#1e293b}"
+                    + "article{border:1px solid #e2e8f0;padding:1em 1.2em;margin:1em 0}"
+                    + ".score{float:right;font-weight:bold}.topics{color:#1e40af}</style>\n");
+            htmlOut.write("</head>\n<body>\n<h1>Tech News Digest - " + date + "</h1>\n");
+            htmlOut.write("<p><a href=\"index.html\">All days</a></p>\n");
+
+            markdownOut.write("# Tech News Digest - " + date + "\n\n");
+
+            jsonOut.beginObject();
+            jsonOut.name("date").value(date);
+            jsonOut.name("articles").beginArray();
+
+            int count = 0;
+            long relevanceSum = 0;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    count++;
+                    String title = rs.getString("title");
+                    String summary = rs.getString("summary");
+                    List<String> topics = splitList(rs.getString("topics"), ",");
+                    List<String> keyPoints = splitList(rs.getString("key_points"), "\\|");
+                    int relevance = rs.getInt("relevance_score");
+                    String url = rs.getString("url");
+                    relevanceSum += relevance;
+
+                    htmlOut.write("<article>\n<span class=\"score\">" + relevance + "/10</span>\n");
+                    htmlOut.write("<h2><a href=\"" + escapeHtml(url) + "\">" + escapeHtml(title) + "</a></h2>\n");
+                    htmlOut.write("<p>" + escapeHtml(summary) + "</p>\n");
+                    if (!topics.isEmpty()) {
+                        htmlOut.write("<p class=\"topics\">" + escapeHtml(String.join(", ", topics)) + "</p>\n");
+                    }
+                    if (!keyPoints.isEmpty()) {
+                        htmlOut.write("<ul>\n");
+                        for (String point : keyPoints) {
+                            htmlOut.write("<li>" + escapeHtml(point) + "</li>\n");
+                        }
+                        htmlOut.write("</ul>\n");
+                    }
+                    htmlOut.write("</article>\n");
+
+                    markdownOut.write("## " + count + ". [" + singleLine(title) + "](" + url + ")\n\n");
+                    markdownOut.write("**Relevance:** " + relevance + "/10");
+                    if (!topics.isEmpty()) {
+                        markdownOut.write(" · **Topics:** " + String.join(", ", topics));
+                    }
+                    markdownOut.write("\n\n" + singleLine(summary) + "\n\n");
+                    for (String point : keyPoints) {
+                        markdownOut.write("- " + singleLine(point) + "\n");
+                    }
+                    markdownOut.write("\n");
+
+                    jsonOut.beginObject();
+                    jsonOut.name("title").value(title);
+                    jsonOut.name("url").value(url);
+                    jsonOut.name("summary").value(summary);
+                    jsonOut.name("topics").beginArray();
+                    for (String topic : topics) {
+                        jsonOut.value(topic);
+                    }
+                    jsonOut.endArray();
+                    jsonOut.name("keyPoints").beginArray();
+                    for (String point : keyPoints) {
+                        jsonOut.value(point);
+                    }
+                    jsonOut.endArray();
+                    jsonOut.name("relevance").value(relevance);
+                    jsonOut.endObject();
+                }
+            }
+
+            double average = count == 0 ? 0 : (double) relevanceSum / count;
+            String summaryLine = String.format("%d articles, average relevance %.1f/10", count, average);
+            htmlOut.write("<footer><p>" + summaryLine + "</p></footer>\n</body>\n</html>\n");
+            markdownOut.write("---\n\n" + summaryLine + "\n");
+            jsonOut.endArray();
+            jsonOut.name("articleCount").value(count);
+            jsonOut.name("averageRelevance").value(Math.round(average * 10) / 10.0);
+            jsonOut.endObject();
+        }
+
+        moveIntoPlace(html, outputDir.resolve(date + ".html"));
+        moveIntoPlace(markdown, outputDir.resolve(date + ".md"));
+        moveIntoPlace(json, outputDir.resolve(date + ".json"));
+    }
+
+    /**
+     * Writes index.html, index.md and index.json listing every day, newest first
+     */
+    private static void writeIndex(Path outputDir, TreeMap<String, DaySummary> days) throws IOException {
+        Path html = outputDir.resolve("index.html.tmp");
+        Path markdown = outputDir.resolve("index.md.tmp");
+        Path json = outputDir.resolve("index.json.tmp");
+
+        try (Writer htmlOut = Files.newBufferedWriter(html, StandardCharsets.UTF_8);
+             Writer markdownOut = Files.newBufferedWriter(markdown, StandardCharsets.UTF_8);
+             JsonWriter jsonOut = new JsonWriter(Files.newBufferedWriter(json, StandardCharsets.UTF_8))) {
+
+            jsonOut.setIndent("  ");
+            htmlOut.write("<!DOCTYPE html>\n<html lang=\"en\">\n<head>\n<meta charset=\"utf-8\">\n");
+            htmlOut.write("<title>Tech News Digests</title>\n</head>\n<body>\n<h1>Tech News Digests</h1>\n<ul>\n");
+            markdownOut.write("# Tech News Digests\n\n");
+            jsonOut.beginObject();
+            jsonOut.name("days").beginArray();
+
+            for (Map.Entry<String, DaySummary> day : days.descendingMap().entrySet()) {
+                String date = day.getKey();
+                int count = day.getValue().count;
+                double average = count == 0 ? 0 : (double) day.getValue().relevanceSum / count;
+                String label = String.format("%d articles, average relevance %.1f", count, average);
+
+                htmlOut.write("<li><a href=\"" + date + ".html\">" + date + "</a> - " + label + "</li>\n");
+                markdownOut.write("- [" + date + "](" + date + ".md) - " + label + "\n");
+                jsonOut.beginObject();
+                jsonOut.name("date").value(date);
+                jsonOut.name("file").value(date + ".json");
+                jsonOut.name("articleCount").value(count);
+                jsonOut.name("averageRelevance").value(Math.round(average * 10) / 10.0);
+                jsonOut.endObject();
+            }
+
+            htmlOut.write("</ul>\n</body>\n</html>\n");
+            jsonOut.endArray();
+            jsonOut.endObject();
+        }
+
+        moveIntoPlace(html, outputDir.resolve("index.html"));
+        moveIntoPlace(markdown, outputDir.resolve("index.md"));
+        moveIntoPlace(json, outputDir.resolve("index.json"));
+    }
+
+    private static Map<String, String> loadExportState(Connection conn) throws SQLException {
+        Map<String, String> state = new TreeMap<>();
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT day, content_hash FROM export_state");
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                state.put(rs.getString("day"), rs.getString("content_hash"));
+            }
+        }
+        return state;
+    }
+
+    private static void saveExportState(Connection conn, String day, String hash) throws SQLException {
+        String upsertSQL = """
+                INSERT INTO export_state (day, content_hash, exported_at) VALUES (?, ?, CURRENT_TIMESTAMP)
+                ON CONFLICT(day) DO UPDATE SET content_hash = excluded.content_hash, exported_at = CURRENT_TIMESTAMP
+                """;
+        try (PreparedStatement pstmt = conn.prepareStatement(upsertSQL)) {
+            pstmt.setString(1, day);
+            pstmt.setString(2, hash);
+            pstmt.executeUpdate();
+        }
+    }
+
+    private static void deleteExportState(Connection conn, String day) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("DELETE FROM export_state WHERE day = ?")) {
+            pstmt.setString(1, day);
+            pstmt.executeUpdate();
+        }
+    }
+
+    private static boolean filesExist(Path outputDir, String name) {
+        for (String format : FORMATS) {
+            if (!Files.exists(outputDir.resolve(name + "." + format))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Some network shares do not support atomic renames
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Splits a stored list (topics on ",", key points on "|") into trimmed, non-empty items
+     */
+    static List<String> splitList(String value, String separator) {
+        if (value == null || value.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(value.split(separator))
+                .map(String::trim)
+                .filter(item -> !item.isEmpty())
+                .toList();
+    }
+
+    private static String singleLine(String text) {
+        return text == null ? "" : text.replaceAll("\\s+", " ").trim();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Escapes text for use in HTML element content and attribute values
+     */
+    static String escapeHtml(String text) {
+        if (text == null) return "";
+        return text.replace("&", "&amp;")
+                   .replace("<", "&lt;")
+                   .replace(">", "&gt;")
+                   .replace("\"", "&quot;")
+                   .replace("'", "&#39;");
+    }
+
+    /**
+     * Main entry point: DigestExporter [outputDir] [--force]
+     */
+    public static void main(String[] args) {
+        Path outputDir = Path.of(System.getProperty("export.dir", "digest"));
+        boolean force = false;
+        for (String arg : args) {
+            if (arg.equals("--force")) {
+                force = true;
+            } else {
+                outputDir = Path.of(arg);
+            }
+        }
+
+        try {
+            ArticleDatabase.initialize();
+            long start = System.nanoTime();
+            ExportResult result = export(outputDir, force);
+            System.out.printf("✓ Exported %d of %d day(s) to %s in %d ms%s%n",
+                    result.getExported(), result.getDays(), outputDir.toAbsolutePath(),
+                    (System.nanoTime() - start) / 1_000_000,
+                    result.getRemoved() > 0 ? " (" + result.getRemoved() + " removed)" : "");
+        } catch (SQLException | IOException e) {
+            System.err.println("✗ Export failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,407 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DigestOverview - LLM-written executive overview of one day's news
+ *
+ * A day's articles do not fit into one prompt, so the overview is built by
+ * map-reduce: articles are grouped by their main topic (large groups are
+ * split to fit -Doverview.groupTokens), each group is summarized in
+ * parallel, and the group summaries are combined into the overview. If the
+ * group summaries are too long for one prompt themselves, they are combined
+ * in batches first, as many levels as needed.
+ *
+ * Every intermediate summary is stored in digest_partials under a hash of
+ * its prompt and model. Running the overview again only calls the LLM for
+ * groups whose articles changed: an article analyzed late recomputes its
+ * topic group and the reduce steps above it, everything else is read back.
+ *
+ * Configuration:
+ *   -Doverview.groupTokens=2000    article lines per group summary (estimated tokens)
+ *   -Doverview.reduceTokens=2500   group summaries per reduce step
+ *   -Doverview.minGroupSize=2      topics with fewer articles are summarized together as "Other"
+ *   -Doverview.parallelism=4       group summaries requested at once
+ *
+ * Usage:
+ *   mvn compile exec:java -Dexec.mainClass="DigestOverview"                          # today
+ *   mvn compile exec:java -Dexec.mainClass="DigestOverview" -Dexec.args="2026-10-18"
+ */
+public class DigestOverview {
+
+    private static final int GROUP_TOKENS = Integer.getInteger("overview.groupTokens", 2000);
+    private static final int REDUCE_TOKENS = Integer.getInteger("overview.reduceTokens", 2500);
+    private static final int MIN_GROUP_SIZE = Integer.getInteger("overview.minGroupSize", 2);
+    private static final int PARALLELISM = Integer.getInteger("overview.parallelism", 4);
+    // Part of every cache key; bump when the prompts change so old summaries are not reused
+    private static final String PROMPT_VERSION = "1";
+    private static final String OTHER = "Other";
+
+    // Oldest first, so a late article lands in the last part of its group
+    private static final String DAY_ROWS_SQL = """
+            SELECT title, summary, topics, relevance_score
+            FROM articles
+            WHERE summary IS NOT NULL AND DATE(scraped_date) = ?
+            ORDER BY id
+            """;
+
+    /**
+     * Overview - The overview text and what it took to produce it
+     */
+    public static class Overview {
+        private String text;
+        private int articles;
+        private int groups;
+        private final AtomicInteger llmCalls = new AtomicInteger();
+        private final AtomicInteger cached = new AtomicInteger();
+
+        public String getText() { return text; }
+        public int getArticles() { return articles; }
+        public int getGroups() { return groups; }
+        public int getLlmCalls() { return llmCalls.get(); }
+        public int getCached() { return cached.get(); }
+    }
+
+    /**
+     * Group - Article lines of one topic, or one part of a large topic
+     */
+    private static class Group {
+        final String topic;
+        final List<String> lines = new ArrayList<>();
+        int tokens;
+
+        Group(String topic) {
+            this.topic = topic;
+        }
+    }
+
+    /**
+     * Builds the overview of a day's analyzed articles, reusing cached partial summaries
+     * @param day The day to summarize
+     * @return The overview, with null text if the day has no analyzed articles
+     * @throws SQLException if the articles or the cache cannot be read
+     * @throws IOException if an LLM call fails
+     * @throws InterruptedException if interrupted while waiting for the LLM
+     */
+    public static Overview generate(LocalDate day) throws SQLException, IOException, InterruptedException {
+        String date = day.toString();
+        Overview overview = new Overview();
+        List<Group> groups = loadGroups(date, overview);
+        if (groups.isEmpty()) {
+            return overview;
+        }
+        overview.groups = groups.size();
+        Set<String> used = new HashSet<>();
+
+        // Map: one summary per topic group
+        List<String> prompts = new ArrayList<>();
+        for (Group group : groups) {
+            prompts.add(groupPrompt(date, group));
+        }
+        List<String> summaries = resolve(date, 1, prompts, overview, used);
+        List<String> pieces = new ArrayList<>();
+        for (int i = 0; i < groups.size(); i++) {
+            pieces.add("## " + groups.get(i).topic + "\n" + summaries.get(i));
+        }
+
+        // Reduce in batches until everything fits into the final prompt
+        int level = 2;
+        while (pieces.size() > 1 && TokenEstimator.estimate(String.join("\n\n", pieces)) > REDUCE_TOKENS) {
+            List<String> batchPrompts = new ArrayList<>();
+            for (List<String> batch : batches(pieces)) {
+                batchPrompts.add(combinePrompt(date, batch));
+            }
+            if (batchPrompts.size() == pieces.size()) {
+                // Every summary is over the budget on its own; batching cannot shrink the input
+                break;
+            }
+            pieces = resolve(date, level++, batchPrompts, overview, used);
+        }
+
+        overview.text = resolve(date, level, List.of(overviewPrompt(date, pieces)), overview, used).get(0);
+        prune(date, used);
+        return overview;
+    }
+
+    /**
+     * Reads the day's articles into topic groups: by first topic, small topics
+     * merged into "Other", and groups over the token budget split into parts
+     */
+    private static List<Group> loadGroups(String date, Overview overview) throws SQLException {
+        // Case-insensitive topic names, in alphabetical order so the prompts are stable
+        Map<String, List<String>> byTopic = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        try (Connection conn = ArticleDatabase.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(DAY_ROWS_SQL)) {
+            pstmt.setString(1, date);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    List<String> topics = DigestExporter.splitList(rs.getString("topics"), ",");
+                    String topic = topics.isEmpty() ? OTHER : topics.get(0);
+                    String line = "- [" + rs.getInt("relevance_score") + "/10] " + singleLine(rs.getString("title"))
+                            + ": " + singleLine(rs.getString("summary"));
+                    byTopic.computeIfAbsent(topic, key -> new ArrayList<>()).add(line);
+                    overview.articles++;
+                }
+            }
+        }
+
+        Map<String, List<String>> merged = new LinkedHashMap<>();
+        List<String> other = new ArrayList<>();
+        for (Map.Entry<String, List<String>> topic : byTopic.entrySet()) {
+            if (topic.getValue().size() < MIN_GROUP_SIZE || topic.getKey().equalsIgnoreCase(OTHER)) {
+                other.addAll(topic.getValue());
+            } else {
+                merged.put(topic.getKey(), topic.getValue());
+            }
+        }
+        if (!other.isEmpty()) {
+            merged.put(OTHER, other);
+        }
+
+        List<Group> groups = new ArrayList<>();
+        for (Map.Entry<String, List<String>> topic : merged.entrySet()) {
+            List<Group> parts = new ArrayList<>();
+            Group current = null;
+            for (String line : topic.getValue()) {
+                int tokens = TokenEstimator.estimate(line);
+                if (current == null || (current.tokens + tokens > GROUP_TOKENS && !current.lines.isEmpty())) {
+                    current = new Group(topic.getKey());
+                    parts.add(current);
+                }
+                current.lines.add(line);
+                current.tokens += tokens;
+            }
+            if (parts.size() > 1) {
+                for (int i = 0; i < parts.size(); i++) {
+                    Group part = new Group(topic.getKey() + " (part " + (i + 1) + ")");
+                    part.lines.addAll(parts.get(i).lines);
+                    parts.set(i, part);
+                }
+            }
+            groups.addAll(parts);
+        }
+        return groups;
+    }
+
+    /**
+     * Splits summaries into consecutive batches that each fit one reduce prompt
+     */
+    private static List<List<String>> batches(List<String> pieces) {
+        List<List<String>> batches = new ArrayList<>();
+        List<String> current = new ArrayList<>();
+        int tokens = 0;
+        for (String piece : pieces) {
+            int pieceTokens = TokenEstimator.estimate(piece);
+            if (!current.isEmpty() && tokens + pieceTokens > REDUCE_TOKENS) {
+                batches.add(current);
+                current = new ArrayList<>();
+                tokens = 0;
+            }
+            current.add(piece);
+            tokens += pieceTokens;
+        }
+        if (!current.isEmpty()) {
+            batches.add(current);
+        }
+        return batches;
+    }
+
+    /**
+     * Returns the answer to each prompt, from the cache where possible.
+     * Missing ones are requested in parallel and cached as soon as each arrives,
+     * so a failed run keeps the summaries it already paid for.
+     */
+    private static List<String> resolve(String date, int level, List<String> prompts, Overview overview,
+                                        Set<String> used) throws SQLException, IOException, InterruptedException {
+        String[] results = new String[prompts.size()];
+        Map<Integer, String> missing = new LinkedHashMap<>();
+        try (Connection conn = ArticleDatabase.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT summary FROM digest_partials WHERE input_hash = ?")) {
+            for (int i = 0; i < prompts.size(); i++) {
+                String hash = inputHash(prompts.get(i));
+                used.add(hash);
+                pstmt.setString(1, hash);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        results[i] = rs.getString("summary");
+                        overview.cached.incrementAndGet();
+                    } else {
+                        missing.put(i, hash);
+                    }
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return List.of(results);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(PARALLELISM, missing.size()));
+        try {
+            Map<Integer, Future<String>> futures = new LinkedHashMap<>();
+            for (Map.Entry<Integer, String> entry : missing.entrySet()) {
+                String prompt = prompts.get(entry.getKey());
+                String hash = entry.getValue();
+                Callable<String> task = () -> {
+                    String summary = LLMProcessor.summarize(prompt);
+                    overview.llmCalls.incrementAndGet();
+                    savePartial(hash, date, level, summary);
+                    return summary;
+                };
+                futures.put(entry.getKey(), pool.submit(task));
+            }
+            for (Map.Entry<Integer, Future<String>> future : futures.entrySet()) {
+                results[future.getKey()] = future.getValue().get();
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            throw new IOException("Summary failed: " + cause, cause);
+        } finally {
+            pool.shutdownNow();
+        }
+        return List.of(results);
+    }
+
+    private static void savePartial(String hash, String date, int level, String summary) throws SQLException {
+        String insertSQL = """
+                INSERT INTO digest_partials (input_hash, day, level, summary) VALUES (?, ?, ?, ?)
+                ON CONFLICT(input_hash) DO NOTHING
+                """;
+        try (Connection conn = ArticleDatabase.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(insertSQL)) {
+            pstmt.setString(1, hash);
+            pstmt.setString(2, date);
+            pstmt.setInt(3, level);
+            pstmt.setString(4, summary);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Drops the day's cached summaries that the current articles no longer lead to
+     */
+    private static void prune(String date, Set<String> used) throws SQLException {
+        List<String> stale = new ArrayList<>();
+        try (Connection conn = ArticleDatabase.getConnection()) {
+            try (PreparedStatement pstmt = conn.prepareStatement("SELECT input_hash FROM digest_partials WHERE day = ?")) {
+                pstmt.setString(1, date);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        if (!used.contains(rs.getString("input_hash"))) {
+                            stale.add(rs.getString("input_hash"));
+                        }
+                    }
+                }
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement("DELETE FROM digest_partials WHERE input_hash = ?")) {
+                for (String hash : stale) {
+                    pstmt.setString(1, hash);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+        }
+    }
+
+    private static String groupPrompt(String date, Group group) {
+        return "These are tech news articles from " + date + " about " + group.topic
+                + ", each with its relevance score and summary:\n\n"
+                + String.join("\n", group.lines) + "\n\n"
+                + "Summarize the main developments in 2-4 sentences and say why they matter. "
+                + "Name the companies and products involved. Do not go through the articles one by one. "
+                + "Answer with the summary only.";
+    }
+
+    private static String combinePrompt(String date, List<String> pieces) {
+        return "These are summaries of tech news from " + date + ", grouped by topic:\n\n"
+                + String.join("\n\n", pieces) + "\n\n"
+                + "Combine them into one summary of 4-6 sentences that keeps the most important developments "
+                + "and the topics they belong to. Answer with the summary only.";
+    }
+
+    private static String overviewPrompt(String date, List<String> pieces) {
+        return "These are summaries of the tech news of " + date + ", grouped by topic:\n\n"
+                + String.join("\n\n", pieces) + "\n\n"
+                + "Write an executive overview of the day for a busy reader: one headline sentence, "
+                + "then 3-5 short paragraphs on the most important developments, most important first. "
+                + "At most 250 words, plain text without markdown.";
+    }
+
+    private static String inputHash(String prompt) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((PROMPT_VERSION + "\n" + LLMProcessor.getSummaryModel() + "\n").getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest(prompt.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String singleLine(String text) {
+        return text == null ? "" : text.replaceAll("\\s+", " ").trim();
+    }
+
+    /**
+     * Main entry point: DigestOverview [yyyy-mm-dd]
+     */
+    public static void main(String[] args) {
+        LocalDate day;
+        try {
+            day = args.length > 0 ? LocalDate.parse(args[0]) : LocalDate.now();
+        } catch (DateTimeParseException e) {
+            System.err.println("✗ Expected a date like 2026-10-18, got " + args[0]);
+            return;
+        }
+
+        try {
+            ArticleDatabase.initialize();
+            long start = System.nanoTime();
+            Overview overview = generate(day);
+            if (overview.getText() == null) {
+                System.out.println("No analyzed articles for " + day + ".");
+                return;
+            }
+            System.out.println("\nOverview of " + day + "\n");
+            System.out.println(overview.getText());
+            System.out.printf(Locale.ROOT, "%n✓ %d articles in %d groups: %d LLM calls, %d cached summaries, %d ms%n",
+                    overview.getArticles(), overview.getGroups(), overview.getLlmCalls(), overview.getCached(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (SQLException e) {
+            System.err.println("✗ Database error: " + e.getMessage());
+            e.printStackTrace();
+        } catch (IOException e) {
+            System.err.println("✗ Overview failed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            Log.flush();
+        }
+    }
+}
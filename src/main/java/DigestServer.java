@@ -0,0 +1,631 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+import com.google.gson.stream.JsonWriter;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * DigestServer - Read-only JSON API over the digests for the whole team
+ *
+ * Serves the same data as the GUI from one warm process, so readers only
+ * need a browser or curl instead of their own database copy. Each response
+ * is rendered once, gzip-compressed and tagged with an ETag (a hash of the
+ * body, with a -gz suffix for the compressed form), then served from memory
+ * until the articles change. Clients that send If-None-Match get a 304
+ * without a body. Responses are cached under their normalized parameters
+ * (defaults filled in, unknown parameters dropped), and only the
+ * -Dserver.cacheEntries most recently used ones are kept.
+ *
+ * The cache is invalidated when this process commits an analysis, by
+ * polling SQLite's data_version for commits by other processes (an
+ * ImportDaemon or GUI import running next to the server), and at midnight,
+ * when "today" and the relative date filters move on. After an
+ * invalidation the cached responses are rendered again in the background,
+ * so readers keep getting in-memory responses.
+ *
+ * Endpoints (GET or HEAD):
+ *   /api/days                                   every day with its article count and average relevance
+ *   /api/digest/{yyyy-mm-dd|today}              a day's analyzed articles, same shape as DigestExporter's JSON
+ *   /api/articles?date=&sort=&limit=            date: today|last_7_days|last_30_days|all_time,
+ *                                               sort: relevance|newest|oldest (like the GUI), limit: default 100
+ *   /api/article?url=                           one article with its full text
+ *
+ * Configuration:
+ *   -Dserver.port=8080          listening port
+ *   -Dserver.host=0.0.0.0       address to bind, e.g. 127.0.0.1 to stay local
+ *   -Dserver.pollMillis=500     how often other processes' commits are checked for
+ *   -Dserver.cacheEntries=256   responses kept in memory and rendered again after a change
+ *
+ * Usage:
+ *   mvn compile exec:java -Dexec.mainClass="DigestServer" -Dexec.args="8080"
+ *   curl --compressed http://localhost:8080/api/digest/today
+ */
+public class DigestServer {
+
+    public static final int DEFAULT_PORT = Integer.getInteger("server.port", 8080);
+    private static final String HOST = System.getProperty("server.host", "0.0.0.0");
+    private static final long POLL_MILLIS = Long.getLong("server.pollMillis", 500);
+    private static final int MAX_CACHED = Integer.getInteger("server.cacheEntries", 256);
+    private static final int DEFAULT_LIMIT = 100;
+    private static final int MAX_LIMIT = 1000;
+
+    private static final String DETAIL_SQL = """
+            SELECT title, summary, topics, key_points, relevance_score,
+                   scraped_date, analyzed_date, processing_state
+            FROM articles
+            WHERE url = ?
+            """;
+
+    private final HttpServer server;
+    private final ScheduledExecutorService refresher;
+    // Least recently used first; every access moves an entry to the end
+    private final Map<String, Response> cache = Collections.synchronizedMap(
+            new LinkedHashMap<>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Response> eldest) {
+                    return size() > MAX_CACHED;
+                }
+            });
+    // Bumped on every change to the articles; responses rendered before it are stale
+    private final AtomicLong generation = new AtomicLong();
+    private final Runnable listener = generation::incrementAndGet;
+    private long refreshedGeneration;
+    // "today" and the relative date filters resolve to other days after midnight
+    private LocalDate renderedDay = LocalDate.now();
+    private Connection versionConnection;
+    private long dataVersion = -1;
+
+    /**
+     * Response - A rendered response, kept both plain and gzip-compressed, each with its own ETag
+     */
+    private static class Response {
+        final int status;
+        final byte[] body;
+        final byte[] gzipped;
+        final String etag;
+        final String gzipEtag;
+        final long generation;
+
+        Response(int status, byte[] body, long generation) {
+            this.status = status;
+            this.body = body;
+            this.gzipped = gzip(body);
+            String hash = HexFormat.of().formatHex(sha256(body), 0, 16);
+            this.etag = "\"" + hash + "\"";
+            this.gzipEtag = "\"" + hash + "-gz\"";
+            this.generation = generation;
+        }
+    }
+
+    /**
+     * RequestException - A client error answered with its status and message, never cached
+     */
+    private static class RequestException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        final int status;
+
+        RequestException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    /**
+     * Creates a server bound to the given address; call {@link #start()} to accept requests
+     * @param address Address and port to listen on (port 0 picks a free one)
+     * @throws IOException if the port cannot be bound
+     */
+    public DigestServer(InetSocketAddress address) throws IOException {
+        server = HttpServer.create(address, 0);
+        server.createContext("/api/", this::handle);
+        // One cheap virtual thread per request; they mostly wait on SQLite or the socket
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "digest-server-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts serving and watching the database for changes
+     */
+    public void start() {
+        ArticleDatabase.addAnalysisListener(listener);
+        refresher.scheduleWithFixedDelay(() -> {
+            try {
+                refresh();
+            } catch (RuntimeException e) {
+                // An uncaught exception would cancel all future refreshes
+                Log.error("Digest API refresh failed: " + e);
+            }
+        }, POLL_MILLIS, POLL_MILLIS, TimeUnit.MILLISECONDS);
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests, waiting up to a second for running ones
+     */
+    public void stop() {
+        ArticleDatabase.removeAnalysisListener(listener);
+        server.stop(1);
+        refresher.shutdownNow();
+        try {
+            refresher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closeVersionConnection();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            if (!method.equals("GET") && !method.equals("HEAD")) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                send(exchange, error(405, "Only GET and HEAD are supported"));
+                return;
+            }
+
+            String key;
+            try {
+                key = cacheKey(exchange.getRequestURI().getRawPath(),
+                        parseQuery(exchange.getRequestURI().getRawQuery()));
+            } catch (RequestException e) {
+                send(exchange, error(e.status, e.getMessage()));
+                return;
+            }
+
+            long current = generation.get();
+            Response response = cache.get(key);
+            if (response == null || response.generation != current) {
+                try {
+                    response = render(key, current);
+                    // Keep whichever is newer if a refresh finished in the meantime
+                    cache.merge(key, response, (old, fresh) -> old.generation > fresh.generation ? old : fresh);
+                } catch (RequestException e) {
+                    response = error(e.status, e.getMessage());
+                } catch (SQLException e) {
+                    Log.error("API request " + key + " failed: " + e.getMessage());
+                    response = error(500, "Database error");
+                }
+            }
+            send(exchange, response);
+        }
+    }
+
+    private void send(HttpExchange exchange, Response response) throws IOException {
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("Content-Type", "application/json; charset=utf-8");
+        headers.set("Vary", "Accept-Encoding");
+        if (response.status != 200) {
+            headers.set("Cache-Control", "no-store");
+            writeBody(exchange, response.status, response.body);
+            return;
+        }
+
+        // Clients may cache the response but must revalidate it with the ETag
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        String etag = gzip ? response.gzipEtag : response.etag;
+        headers.set("Cache-Control", "no-cache");
+        headers.set("ETag", etag);
+        if (matches(exchange.getRequestHeaders().getFirst("If-None-Match"), etag)) {
+            exchange.sendResponseHeaders(304, -1);
+            return;
+        }
+        if (gzip) {
+            headers.set("Content-Encoding", "gzip");
+            writeBody(exchange, 200, response.gzipped);
+        } else {
+            writeBody(exchange, 200, response.body);
+        }
+    }
+
+    private static void writeBody(HttpExchange exchange, int status, byte[] body) throws IOException {
+        if (exchange.getRequestMethod().equals("HEAD")) {
+            exchange.getResponseHeaders().set("Content-Length", String.valueOf(body.length));
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            // Proxies that compress on their own may weaken the tag
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks for a new day and for commits by other processes, and renders the
+     * cached responses again after any change, so requests keep being served from memory
+     */
+    private void refresh() {
+        LocalDate today = LocalDate.now();
+        if (!today.equals(renderedDay)) {
+            renderedDay = today;
+            generation.incrementAndGet();
+        }
+        try {
+            long version = readDataVersion();
+            if (dataVersion != -1 && version != dataVersion) {
+                generation.incrementAndGet();
+            }
+            dataVersion = version;
+        } catch (SQLException e) {
+            Log.warn("Could not check the database for changes: " + e.getMessage());
+            closeVersionConnection();
+        }
+
+        long current = generation.get();
+        if (current == refreshedGeneration) {
+            return;
+        }
+        List<String> keys;
+        synchronized (cache) {
+            keys = new ArrayList<>(cache.keySet());
+        }
+        // Most recently used first, so the hot responses are fresh soonest
+        for (String key : keys.reversed()) {
+            if (Thread.currentThread().isInterrupted() || generation.get() != current) {
+                // Stopping, or changed again: the next run starts over
+                return;
+            }
+            try {
+                Response response = render(key, current);
+                // Only if still cached; an evicted key is rendered again on its next request
+                cache.computeIfPresent(key, (k, old) -> old.generation > response.generation ? old : response);
+            } catch (RequestException e) {
+                // E.g. an article that was deleted; the next request answers it
+                cache.remove(key);
+            } catch (SQLException e) {
+                Log.warn("Could not refresh " + key + ": " + e.getMessage());
+                return;
+            }
+        }
+        refreshedGeneration = current;
+    }
+
+    /**
+     * data_version changes whenever another connection has committed to the database
+     */
+    private long readDataVersion() throws SQLException {
+        if (versionConnection == null) {
+            versionConnection = ArticleDatabase.getConnection();
+        }
+        try (Statement stmt = versionConnection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA data_version")) {
+            return rs.next() ? rs.getLong(1) : -1;
+        }
+    }
+
+    private void closeVersionConnection() {
+        if (versionConnection != null) {
+            try {
+                versionConnection.close();
+            } catch (SQLException e) {
+                // Already unusable
+            }
+            versionConnection = null;
+            dataVersion = -1;
+        }
+    }
+
+    /**
+     * Builds the cache key of a request: the path plus only the parameters its
+     * endpoint reads, with defaults filled in and in a fixed order, so requests
+     * that get the same response share one entry
+     * @throws RequestException if the endpoint is unknown or a parameter is invalid
+     */
+    private static String cacheKey(String path, Map<String, String> params) throws RequestException {
+        if (path.equals("/api/days")) {
+            return path;
+        }
+        if (path.startsWith("/api/digest/")) {
+            String day = path.substring("/api/digest/".length());
+            // "today" stays symbolic; the day change invalidates it
+            return day.equals("today") ? path : "/api/digest/" + parseDay(day);
+        }
+        if (path.equals("/api/articles")) {
+            String dateFilter = params.getOrDefault("date", "all_time");
+            if (!List.of("today", "last_7_days", "last_30_days", "all_time").contains(dateFilter)) {
+                throw new RequestException(400, "date must be today, last_7_days, last_30_days or all_time");
+            }
+            String sort = params.getOrDefault("sort", "relevance");
+            if (!List.of("relevance", "newest", "oldest").contains(sort)) {
+                throw new RequestException(400, "sort must be relevance, newest or oldest");
+            }
+            int limit;
+            try {
+                limit = Integer.parseInt(params.getOrDefault("limit", String.valueOf(DEFAULT_LIMIT)));
+            } catch (NumberFormatException e) {
+                throw new RequestException(400, "limit must be a number");
+            }
+            limit = Math.max(1, Math.min(limit, MAX_LIMIT));
+            return path + "?date=" + dateFilter + "&sort=" + sort + "&limit=" + limit;
+        }
+        if (path.equals("/api/article")) {
+            String url = params.get("url");
+            if (url == null || url.isBlank()) {
+                throw new RequestException(400, "Missing url parameter");
+            }
+            return path + "?url=" + URLEncoder.encode(url, StandardCharsets.UTF_8);
+        }
+        throw new RequestException(404, "Unknown endpoint " + path);
+    }
+
+    /**
+     * Renders the response for a key built by {@link #cacheKey}
+     */
+    private Response render(String key, long generation) throws RequestException, SQLException {
+        int separator = key.indexOf('?');
+        String path = separator < 0 ? key : key.substring(0, separator);
+        Map<String, String> params = parseQuery(separator < 0 ? null : key.substring(separator + 1));
+        StringWriter json = new StringWriter();
+        try (JsonWriter out = new JsonWriter(json)) {
+            if (path.equals("/api/days")) {
+                renderDays(out);
+            } else if (path.startsWith("/api/digest/")) {
+                renderDigest(out, parseDay(path.substring("/api/digest/".length())));
+            } else if (path.equals("/api/articles")) {
+                renderArticles(out, params);
+            } else if (path.equals("/api/article")) {
+                renderArticle(out, params.get("url"));
+            } else {
+                throw new RequestException(404, "Unknown endpoint " + path);
+            }
+        } catch (IOException e) {
+            // Writing to a StringWriter does not fail
+            throw new IllegalStateException(e);
+        }
+        return new Response(200, json.toString().getBytes(StandardCharsets.UTF_8), generation);
+    }
+
+    private static void renderDays(JsonWriter out) throws IOException, SQLException {
+        List<ArticleDatabase.DailyStats> days = ArticleDatabase.getDailyStats(null, null);
+        out.beginObject();
+        out.name("days").beginArray();
+        for (int i = days.size() - 1; i >= 0; i--) {
+            ArticleDatabase.DailyStats day = days.get(i);
+            out.beginObject();
+            out.name("date").value(day.getDay());
+            out.name("articleCount").value(day.getArticleCount());
+            out.name("analyzedCount").value(day.getAnalyzedCount());
+            out.name("averageRelevance").value(Math.round(day.getAverageRelevance() * 10) / 10.0);
+            out.endObject();
+        }
+        out.endArray();
+        out.endObject();
+    }
+
+    private static void renderDigest(JsonWriter out, String date) throws IOException, SQLException {
+        out.beginObject();
+        out.name("date").value(date);
+        out.name("articles").beginArray();
+        int count = 0;
+        long relevanceSum = 0;
+        try (Connection conn = ArticleDatabase.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(DigestExporter.DAY_ROWS_SQL)) {
+            pstmt.setString(1, date);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    count++;
+                    relevanceSum += rs.getInt("relevance_score");
+                    writeArticle(out, rs, false);
+                }
+            }
+        }
+        out.endArray();
+        double average = count == 0 ? 0 : (double) relevanceSum / count;
+        out.name("articleCount").value(count);
+        out.name("averageRelevance").value(Math.round(average * 10) / 10.0);
+        out.endObject();
+    }
+
+    private static void renderArticles(JsonWriter out, Map<String, String> params)
+            throws IOException, SQLException {
+        // Already validated and filled in by cacheKey
+        String dateFilter = params.get("date");
+        String sort = params.get("sort");
+        String sortBy = switch (sort) {
+            case "newest" -> "date (newest)";
+            case "oldest" -> "date (oldest)";
+            default -> "relevance";
+        };
+        int limit = Integer.parseInt(params.get("limit"));
+
+        out.beginObject();
+        out.name("date").value(dateFilter);
+        out.name("sort").value(sort);
+        out.name("articles").beginArray();
+        int count = 0;
+        try (Connection conn = ArticleDatabase.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                     ArticleDatabase.analyzedArticlesQuery(dateFilter, sortBy) + " LIMIT ?")) {
+            pstmt.setInt(1, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    count++;
+                    writeArticle(out, rs, true);
+                }
+            }
+        }
+        out.endArray();
+        out.name("articleCount").value(count);
+        out.endObject();
+    }
+
+    private static void renderArticle(JsonWriter out, String url)
+            throws IOException, SQLException, RequestException {
+        try (Connection conn = ArticleDatabase.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(DETAIL_SQL)) {
+            pstmt.setString(1, url);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    throw new RequestException(404, "No article with url " + url);
+                }
+                out.beginObject();
+                out.name("title").value(rs.getString("title"));
+                out.name("url").value(url);
+                out.name("state").value(rs.getString("processing_state"));
+                out.name("scrapedDate").value(rs.getString("scraped_date"));
+                out.name("analyzedDate").value(rs.getString("analyzed_date"));
+                out.name("summary").value(rs.getString("summary"));
+                writeList(out, "topics", DigestExporter.splitList(rs.getString("topics"), ","));
+                writeList(out, "keyPoints", DigestExporter.splitList(rs.getString("key_points"), "\\|"));
+                if (rs.getObject("relevance_score") == null) {
+                    out.name("relevance").nullValue();
+                } else {
+                    out.name("relevance").value(rs.getInt("relevance_score"));
+                }
+            }
+        }
+        out.name("text").value(ArticleDatabase.loadArticleText(url));
+        out.endObject();
+    }
+
+    private static void writeArticle(JsonWriter out, ResultSet rs, boolean withDate) throws IOException, SQLException {
+        out.beginObject();
+        out.name("title").value(rs.getString("title"));
+        out.name("url").value(rs.getString("url"));
+        out.name("summary").value(rs.getString("summary"));
+        writeList(out, "topics", DigestExporter.splitList(rs.getString("topics"), ","));
+        writeList(out, "keyPoints", DigestExporter.splitList(rs.getString("key_points"), "\\|"));
+        out.name("relevance").value(rs.getInt("relevance_score"));
+        if (withDate) {
+            out.name("date").value(rs.getString("scraped_date"));
+        }
+        out.endObject();
+    }
+
+    private static void writeList(JsonWriter out, String name, List<String> items) throws IOException {
+        out.name(name).beginArray();
+        for (String item : items) {
+            out.value(item);
+        }
+        out.endArray();
+    }
+
+    private static String parseDay(String day) throws RequestException {
+        if (day.equals("today")) {
+            return LocalDate.now().toString();
+        }
+        try {
+            return LocalDate.parse(day).toString();
+        } catch (DateTimeParseException e) {
+            throw new RequestException(400, "Expected a date like 2026-10-18 or today, got " + day);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            params.putIfAbsent(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static Response error(int status, String message) {
+        StringWriter json = new StringWriter();
+        try (JsonWriter out = new JsonWriter(json)) {
+            out.beginObject();
+            out.name("error").value(message);
+            out.endObject();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return new Response(status, json.toString().getBytes(StandardCharsets.UTF_8), -1);
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(body);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static byte[] sha256(byte[] body) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(body);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Main entry point: DigestServer [port]
+     */
+    public static void main(String[] args) {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        try {
+            ArticleDatabase.initialize();
+            DigestServer server = new DigestServer(new InetSocketAddress(HOST, port));
+            server.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "digest-server-shutdown"));
+            System.out.println("✓ Digest API listening on http://" + HOST + ":" + server.getPort() + "/api/days");
+        } catch (SQLException e) {
+            System.err.println("✗ Database error: " + e.getMessage());
+            e.printStackTrace();
+        } catch (IOException e) {
+            System.err.println("✗ Could not start the server on port " + port + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,149 @@
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Duration;
+import java.util.Locale;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+/**
+ * EmbeddingClient - Turns article text into vectors through the
+ * OpenAI-compatible /v1/embeddings endpoint of the primary LM Studio server
+ * (the first of LLMProcessor's endpoints; it needs an embedding model loaded)
+ *
+ * Run with -Dembeddings.local=true to use a deterministic hashing embedder
+ * instead of the server, e.g. when LM Studio has no embedding model loaded.
+ */
+public class EmbeddingClient {
+
+    private static final String EMBEDDING_MODEL =
+            System.getProperty("embeddings.model", "text-embedding-nomic-embed-text-v1.5");
+    private static final boolean USE_LOCAL_STUB = Boolean.getBoolean("embeddings.local");
+    private static final int LOCAL_DIMENSIONS = 256;
+    private static final int MAX_INPUT_CHARS = 2000;
+    private static final int TIMEOUT_SECONDS = 30;
+    private static final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private static final Gson gson = new Gson();
+
+    /**
+     * Builds the text that represents an article in embedding space
+     * @param article The article
+     * @param analysis The LLM analysis, or null if none is available
+     * @return Title plus summary when analyzed, otherwise title plus the start of the text
+     */
+    public static String embeddingInput(TechNewsScraper.NewsArticle article, LLMProcessor.ArticleAnalysis analysis) {
+        StringBuilder input = new StringBuilder(article.getTitle());
+        if (analysis != null && analysis.getSummary() != null && !analysis.getSummary().isEmpty()) {
+            input.append("\n").append(analysis.getSummary());
+            input.append("\n").append(String.join(", ", analysis.getTopics()));
+        } else if (NearDuplicateDetector.isUsableText(article.getArticleText())) {
+            input.append("\n").append(article.getArticleText());
+        } else {
+            input.append("\n").append(article.getSnippet());
+        }
+        return input.length() > MAX_INPUT_CHARS ? input.substring(0, MAX_INPUT_CHARS) : input.toString();
+    }
+
+    /**
+     * Computes a unit-length embedding for the given text
+     * @param text The text to embed
+     * @return The L2-normalized embedding vector
+     * @throws IOException if the API call fails
+     * @throws InterruptedException if the request is interrupted
+     */
+    public static float[] embed(String text) throws IOException, InterruptedException {
+        if (USE_LOCAL_STUB) {
+            return localEmbedding(text);
+        }
+
+        JsonObject requestBody = new JsonObject();
+        requestBody.addProperty("model", EMBEDDING_MODEL);
+        requestBody.addProperty("input", text);
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(LLMProcessor.getEndpointPool().primary().getEmbeddingsUrl()))
+                .timeout(Duration.ofSeconds(TIMEOUT_SECONDS))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(requestBody.toString()))
+                .build();
+
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("Embeddings API returned status code: " + response.statusCode() +
+                                " Body: " + response.body());
+        }
+
+        JsonObject responseJson = gson.fromJson(response.body(), JsonObject.class);
+        JsonArray data = responseJson.getAsJsonArray("data");
+        if (data == null || data.size() == 0) {
+            throw new IOException("No embedding in response");
+        }
+
+        JsonArray values = data.get(0).getAsJsonObject().getAsJsonArray("embedding");
+        float[] vector = new float[values.size()];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = values.get(i).getAsFloat();
+        }
+        return normalize(vector);
+    }
+
+    /**
+     * Deterministic feature-hashing embedding used when no embedding server is available
+     */
+    static float[] localEmbedding(String text) {
+        float[] vector = new float[LOCAL_DIMENSIONS];
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (token.length() < 3) {
+                continue;
+            }
+            int hash = token.hashCode() * 0x9E3779B9;
+            vector[Math.floorMod(hash, LOCAL_DIMENSIONS)] += (hash & 0x10000) == 0 ? 1f : -1f;
+        }
+        return normalize(vector);
+    }
+
+    /**
+     * Scales a vector to unit length so that cosine similarity is a dot product
+     */
+    public static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        if (norm == 0) {
+            return vector;
+        }
+        float scale = (float) (1.0 / Math.sqrt(norm));
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] *= scale;
+        }
+        return vector;
+    }
+
+    /**
+     * Packs a vector into little-endian float32 bytes for the BLOB column
+     */
+    public static byte[] toBytes(float[] vector) {
+        ByteBuffer buffer = ByteBuffer.allocate(vector.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asFloatBuffer().put(vector);
+        return buffer.array();
+    }
+
+    /**
+     * Unpacks a vector stored by {@link #toBytes(float[])}
+     */
+    public static float[] fromBytes(byte[] bytes) {
+        float[] vector = new float[bytes.length / Float.BYTES];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(vector);
+        return vector;
+    }
+}
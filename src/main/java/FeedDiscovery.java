@@ -0,0 +1,445 @@
+import org.jsoup.Connection;
+import org.jsoup.HttpStatusException;
+import org.jsoup.Jsoup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * FeedDiscovery - Finds articles through RSS/Atom feeds and XML sitemaps
+ *
+ * The front page only shows the newest handful of stories, so anything that
+ * scrolls off between two imports is never seen. Feeds and sitemaps list
+ * every post with its publication date and are far cheaper to fetch and
+ * parse than rendered HTML. Both are read with a streaming StAX reader, one
+ * element at a time, so memory stays flat however large a sitemap is.
+ *
+ * Feeds are paged backwards (Atom rel="next" links, or WordPress ?paged=N)
+ * and sitemap indexes are followed into their date-sharded child sitemaps,
+ * until entries are older than the backfill window of -Ddiscovery.backfillDays
+ * (default 2) days.
+ *
+ * Each import source is read through the feeds and sitemaps on its own host:
+ * the ones listed in -Ddiscovery.feeds / -Ddiscovery.sitemaps, or <site>/feed/
+ * and <site>/sitemap.xml when the property is not set.
+ *
+ * Usage (lists what would be discovered, without touching the database):
+ *   mvn compile exec:java -Dexec.mainClass="FeedDiscovery" [-Dexec.args="https://techcrunch.com/"]
+ */
+public class FeedDiscovery {
+
+    // Comma-separated; unset derives them from the source, an empty value disables that kind of source
+    private static final String FEEDS = System.getProperty("discovery.feeds");
+    private static final String SITEMAPS = System.getProperty("discovery.sitemaps");
+    public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("discovery.enabled", "true"));
+    private static final int BACKFILL_DAYS = Integer.getInteger("discovery.backfillDays", 2);
+    // Bounds on the work one run does: feed pages / child sitemaps per source, and articles overall
+    private static final int MAX_PAGES = Integer.getInteger("discovery.maxPages", 10);
+    private static final int MAX_ARTICLES = Integer.getInteger("discovery.maxArticles", 500);
+    private static final int MAX_SITEMAP_DEPTH = 2;
+
+    private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36";
+    private static final int TIMEOUT = 10000;
+    private static final int SNIPPET_LENGTH = 200;
+
+    /**
+     * Page - What one feed page or sitemap contained
+     */
+    static class Page {
+        private int entries;
+        private boolean reachedCutoff;
+        private String next;
+        private final List<String> sitemaps = new ArrayList<>();
+    }
+
+    /**
+     * Reads the feeds and sitemaps of a source for articles published within the backfill window
+     * @param sourceUrl The front page being imported; only feeds and sitemaps on its host are read
+     * @return Discovered articles, newest feed entries first; never null. Sources that
+     *         cannot be fetched are logged and skipped.
+     */
+    public static List<TechNewsScraper.NewsArticle> discover(String sourceUrl) {
+        LocalDate since = LocalDate.now(ZoneOffset.UTC).minusDays(BACKFILL_DAYS);
+        Map<String, TechNewsScraper.NewsArticle> found = new LinkedHashMap<>();
+
+        // Feeds first: their entries carry a real summary, sitemap entries only a URL and date
+        for (String feed : locationsFor(sourceUrl, FEEDS, "/feed/")) {
+            readFeed(feed, since, found);
+        }
+        for (String sitemap : locationsFor(sourceUrl, SITEMAPS, "/sitemap.xml")) {
+            readSitemap(sitemap, since, found, 0);
+        }
+        return new ArrayList<>(found.values());
+    }
+
+    /**
+     * Picks the configured URLs on the source's host, or the conventional location there if none are configured
+     * @param sourceUrl The front page being imported
+     * @param configured The comma-separated property value, null if unset
+     * @param defaultPath Path used on the source's host when the property is unset
+     * @return The URLs to read; empty if the source URL cannot be parsed
+     */
+    static List<String> locationsFor(String sourceUrl, String configured, String defaultPath) {
+        String host = hostOf(sourceUrl);
+        List<String> result = new ArrayList<>();
+        if (host == null) {
+            return result;
+        }
+        if (configured == null) {
+            URI source = URI.create(sourceUrl.trim());
+            result.add(source.getScheme() + "://" + source.getRawAuthority() + defaultPath);
+            return result;
+        }
+        for (String url : split(configured)) {
+            if (host.equals(hostOf(url))) {
+                result.add(url);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Lower-cased host without a leading www., or null if the URL has none
+     */
+    private static String hostOf(String url) {
+        try {
+            String host = new URI(url.trim()).getHost();
+            if (host == null) {
+                return null;
+            }
+            host = host.toLowerCase(Locale.ROOT);
+            return host.startsWith("www.") ? host.substring(4) : host;
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads a feed page by page until entries fall outside the backfill window
+     */
+    private static void readFeed(String feedUrl, LocalDate since, Map<String, TechNewsScraper.NewsArticle> found) {
+        String url = feedUrl;
+        for (int page = 1; page <= MAX_PAGES && url != null && found.size() < MAX_ARTICLES; page++) {
+            Page result;
+            try (InputStream in = open(url)) {
+                result = parseFeed(in, since, found);
+            } catch (HttpStatusException e) {
+                // Paging past the last page of a WordPress feed answers 404
+                if (page == 1) {
+                    Log.warn("Feed " + url + " returned HTTP " + e.getStatusCode());
+                }
+                return;
+            } catch (IOException | XMLStreamException e) {
+                Log.warn("Could not read feed " + url + ": " + e.getMessage());
+                return;
+            }
+            Log.debug("Feed page " + url + ": " + result.entries + " entries");
+
+            if (result.entries == 0 || result.reachedCutoff) {
+                return;
+            }
+            url = result.next != null ? result.next : pagedUrl(feedUrl, page + 1);
+        }
+    }
+
+    /**
+     * Reads a sitemap, following a sitemap index into child sitemaps modified within the window
+     */
+    private static void readSitemap(String url, LocalDate since, Map<String, TechNewsScraper.NewsArticle> found,
+                                    int depth) {
+        Page result;
+        try (InputStream in = open(url)) {
+            result = parseSitemap(in, since, found);
+        } catch (IOException | XMLStreamException e) {
+            Log.warn("Could not read sitemap " + url + ": " + e.getMessage());
+            return;
+        }
+        Log.debug("Sitemap " + url + ": " + result.entries + " entries, " + result.sitemaps.size() + " child sitemaps");
+
+        if (depth < MAX_SITEMAP_DEPTH) {
+            int followed = 0;
+            for (String child : result.sitemaps) {
+                if (followed++ >= MAX_PAGES || found.size() >= MAX_ARTICLES) {
+                    break;
+                }
+                readSitemap(child, since, found, depth + 1);
+            }
+        }
+    }
+
+    /**
+     * Parses one RSS 2.0 or Atom document
+     * @param in The feed document
+     * @param since Entries published before this day are not added
+     * @param found Discovered articles by URL; new entries are added
+     * @return Entry count, whether an entry older than the window was seen, and the next page link
+     * @throws XMLStreamException if the document is not well-formed XML
+     */
+    static Page parseFeed(InputStream in, LocalDate since, Map<String, TechNewsScraper.NewsArticle> found)
+            throws XMLStreamException {
+        Page page = new Page();
+        XMLStreamReader reader = newReader(in);
+        try {
+            boolean inEntry = false;
+            String title = null;
+            String link = null;
+            String summary = null;
+            LocalDate published = null;
+            LocalDate updated = null;
+
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String name = reader.getLocalName();
+                    if (name.equals("item") || name.equals("entry")) {
+                        inEntry = true;
+                        title = link = summary = null;
+                        published = updated = null;
+                    } else if (!inEntry) {
+                        if (name.equals("link") && "next".equals(reader.getAttributeValue(null, "rel"))) {
+                            page.next = reader.getAttributeValue(null, "href");
+                        }
+                    } else if (name.equals("title")) {
+                        title = text(reader);
+                    } else if (name.equals("link")) {
+                        // RSS: <link>url</link>; Atom: <link rel="alternate" href="url"/>
+                        String href = reader.getAttributeValue(null, "href");
+                        String rel = reader.getAttributeValue(null, "rel");
+                        if (href == null) {
+                            link = text(reader);
+                        } else if (rel == null || rel.equals("alternate")) {
+                            link = href;
+                        }
+                    } else if (name.equals("description") || name.equals("summary")) {
+                        summary = text(reader);
+                    } else if (name.equals("pubDate") || name.equals("published") || name.equals("date")) {
+                        published = parseDate(text(reader));
+                    } else if (name.equals("updated")) {
+                        updated = parseDate(text(reader));
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && inEntry
+                        && (reader.getLocalName().equals("item") || reader.getLocalName().equals("entry"))) {
+                    inEntry = false;
+                    page.entries++;
+                    LocalDate day = published != null ? published : updated;
+                    if (day != null && day.isBefore(since)) {
+                        // Feeds are newest first, so later pages are older still
+                        page.reachedCutoff = true;
+                    } else if (link != null && !link.isBlank() && found.size() < MAX_ARTICLES) {
+                        found.putIfAbsent(link.trim(), new TechNewsScraper.NewsArticle(
+                                title == null || title.isBlank() ? "No title" : title.trim(),
+                                snippet(summary), link.trim()));
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return page;
+    }
+
+    /**
+     * Parses one sitemap: either a urlset of pages or a sitemapindex of child sitemaps
+     * @param in The sitemap document
+     * @param since Pages and child sitemaps last modified before this day are skipped,
+     *              as are pages without any date
+     * @param found Discovered articles by URL; new pages are added
+     * @return Entry count and the child sitemaps to follow
+     * @throws XMLStreamException if the document is not well-formed XML
+     */
+    static Page parseSitemap(InputStream in, LocalDate since, Map<String, TechNewsScraper.NewsArticle> found)
+            throws XMLStreamException {
+        Page page = new Page();
+        XMLStreamReader reader = newReader(in);
+        try {
+            String loc = null;
+            String title = null;
+            LocalDate lastModified = null;
+            LocalDate published = null;
+
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    switch (reader.getLocalName()) {
+                        case "url":
+                        case "sitemap":
+                            loc = title = null;
+                            lastModified = published = null;
+                            break;
+                        case "loc":
+                            loc = text(reader);
+                            break;
+                        case "lastmod":
+                            lastModified = parseDate(text(reader));
+                            break;
+                        // Google News sitemap extension; image and video sitemaps have titles too
+                        case "title":
+                            if (String.valueOf(reader.getNamespaceURI()).contains("sitemap-news")) {
+                                title = text(reader);
+                            }
+                            break;
+                        case "publication_date":
+                            published = parseDate(text(reader));
+                            break;
+                        default:
+                            break;
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && loc != null && !loc.isBlank()) {
+                    if (reader.getLocalName().equals("sitemap")) {
+                        page.entries++;
+                        if (lastModified == null || !lastModified.isBefore(since)) {
+                            page.sitemaps.add(loc.trim());
+                        }
+                    } else if (reader.getLocalName().equals("url")) {
+                        page.entries++;
+                        LocalDate day = published != null ? published : lastModified;
+                        if (day != null && !day.isBefore(since) && found.size() < MAX_ARTICLES) {
+                            String url = loc.trim();
+                            found.putIfAbsent(url, new TechNewsScraper.NewsArticle(
+                                    title != null && !title.isBlank() ? title.trim() : titleFromUrl(url),
+                                    snippet(null), url));
+                        }
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return page;
+    }
+
+    /**
+     * Collects the text of the current element, including that of any nested
+     * elements (e.g. Atom type="xhtml" content), and leaves the reader on its end tag
+     */
+    private static String text(XMLStreamReader reader) throws XMLStreamException {
+        StringBuilder text = new StringBuilder();
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA
+                    || event == XMLStreamConstants.SPACE) {
+                text.append(reader.getText());
+            }
+        }
+        return text.toString();
+    }
+
+    private static XMLStreamReader newReader(InputStream in) throws XMLStreamException {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        // Feeds are untrusted input: no DTDs, no external entities
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        return factory.createXMLStreamReader(in);
+    }
+
+    /**
+     * Opens a streamed response body; .gz sitemaps are decompressed on the fly
+     */
+    private static InputStream open(String url) throws IOException {
+        Connection.Response response = Jsoup.connect(url)
+                .userAgent(USER_AGENT)
+                .timeout(TIMEOUT)
+                .ignoreContentType(true)
+                .maxBodySize(0)
+                .execute();
+        InputStream body = response.bodyStream();
+        return url.endsWith(".gz") ? new GZIPInputStream(body) : body;
+    }
+
+    /**
+     * Parses RFC 822 (RSS), ISO 8601 date-time (Atom, sitemaps) and plain ISO dates
+     * @return The UTC day, or null if the value is not a recognized date
+     */
+    static LocalDate parseDate(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String date = value.trim();
+        try {
+            if (Character.isDigit(date.charAt(0))) {
+                return date.length() == 10
+                        ? LocalDate.parse(date)
+                        : OffsetDateTime.parse(date).atZoneSameInstant(ZoneOffset.UTC).toLocalDate();
+            }
+            return ZonedDateTime.parse(date, DateTimeFormatter.RFC_1123_DATE_TIME)
+                    .withZoneSameInstant(ZoneOffset.UTC).toLocalDate();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Plain-text snippet from an HTML feed description, cut like the front page snippets
+     */
+    private static String snippet(String description) {
+        String snippet = description == null ? "" : Jsoup.parse(description).text().trim();
+        if (snippet.isEmpty()) {
+            return "No description available";
+        }
+        return snippet.length() > SNIPPET_LENGTH ? snippet.substring(0, SNIPPET_LENGTH) + "..." : snippet;
+    }
+
+    /**
+     * Readable title from a URL slug, for sitemap entries without a news:title,
+     * e.g. .../2024/10/01/openai-raises-new-funding/ becomes "Openai raises new funding"
+     */
+    static String titleFromUrl(String url) {
+        String path = url.replaceAll("[?#].*$", "").replaceAll("/+$", "");
+        String slug = path.substring(path.lastIndexOf('/') + 1).replaceAll("\\.html?$", "").replace('-', ' ').trim();
+        if (slug.isEmpty()) {
+            return "No title";
+        }
+        return Character.toUpperCase(slug.charAt(0)) + slug.substring(1);
+    }
+
+    private static String pagedUrl(String feedUrl, int page) {
+        return feedUrl + (feedUrl.contains("?") ? "&" : "?") + "paged=" + page;
+    }
+
+    private static List<String> split(String urls) {
+        List<String> result = new ArrayList<>();
+        for (String url : urls.split(",")) {
+            if (!url.isBlank()) {
+                result.add(url.trim());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Main entry point: lists the articles the feeds and sitemaps of a source currently offer
+     */
+    public static void main(String[] args) {
+        long start = System.nanoTime();
+        List<TechNewsScraper.NewsArticle> articles = discover(args.length > 0 ? args[0] : TechNewsScraper.TECH_NEWS_URL);
+        for (TechNewsScraper.NewsArticle article : articles) {
+            System.out.println(article);
+        }
+        System.out.printf("✓ Discovered %d articles from the last %d days in %d ms%n",
+                articles.size(), BACKFILL_DAYS, (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,367 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * HnswIndex - In-process approximate nearest-neighbour index over
+ * unit-length embedding vectors (Hierarchical Navigable Small World graph)
+ *
+ * Distance is 1 - cosine similarity. Vectors must be normalized before
+ * they are added, see {@link EmbeddingClient#normalize(float[])}. The first
+ * vector fixes the dimensions; vectors of any other length, e.g. from a
+ * different embedding model, are rejected.
+ */
+public class HnswIndex {
+
+    private static final int DEFAULT_M = 16;
+    private static final int DEFAULT_EF_CONSTRUCTION = 100;
+    private static final int DEFAULT_EF_SEARCH = 64;
+
+    /**
+     * Neighbor - A search result with its cosine similarity to the query
+     */
+    public static class Neighbor {
+        private final String key;
+        private final double similarity;
+
+        public Neighbor(String key, double similarity) {
+            this.key = key;
+            this.similarity = similarity;
+        }
+
+        public String getKey() { return key; }
+        public double getSimilarity() { return similarity; }
+    }
+
+    private static class Node {
+        final String key;
+        float[] vector;
+        final int[][] links;
+        final int[] linkCounts;
+
+        Node(String key, float[] vector, int level, int m) {
+            this.key = key;
+            this.vector = vector;
+            this.links = new int[level + 1][];
+            this.linkCounts = new int[level + 1];
+            for (int layer = 0; layer <= level; layer++) {
+                links[layer] = new int[layer == 0 ? m * 2 : m];
+            }
+        }
+
+        int level() {
+            return links.length - 1;
+        }
+    }
+
+    private final int m;
+    private final int efConstruction;
+    private final int efSearch;
+    private final double levelMultiplier;
+    private final Random random = new Random(42);
+    private final List<Node> nodes = new ArrayList<>();
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int entryPoint = -1;
+    private int dimensions;
+
+    public HnswIndex() {
+        this(DEFAULT_M, DEFAULT_EF_CONSTRUCTION, DEFAULT_EF_SEARCH);
+    }
+
+    public HnswIndex(int m, int efConstruction, int efSearch) {
+        this.m = m;
+        this.efConstruction = efConstruction;
+        this.efSearch = efSearch;
+        this.levelMultiplier = 1.0 / Math.log(m);
+    }
+
+    /**
+     * Returns the number of indexed vectors
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return nodes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the length of the indexed vectors, 0 while the index is empty
+     */
+    public int getDimensions() {
+        lock.readLock().lock();
+        try {
+            return dimensions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Checks whether a key has been indexed
+     */
+    public boolean contains(String key) {
+        lock.readLock().lock();
+        try {
+            return ids.containsKey(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the stored vector for a key
+     * @return The vector, or null if the key is not indexed
+     */
+    public float[] getVector(String key) {
+        lock.readLock().lock();
+        try {
+            Integer id = ids.get(key);
+            return id == null ? null : nodes.get(id).vector;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a vector to the index. Re-adding a key replaces its vector but keeps its graph links.
+     * @param key The article URL
+     * @param vector The unit-length embedding
+     * @throws IllegalArgumentException if the vector's length differs from the indexed vectors
+     */
+    public void add(String key, float[] vector) {
+        lock.writeLock().lock();
+        try {
+            if (dimensions == 0) {
+                dimensions = vector.length;
+            }
+            checkDimensions(vector);
+            Integer existing = ids.get(key);
+            if (existing != null) {
+                nodes.get(existing).vector = vector;
+                return;
+            }
+
+            int level = (int) (-Math.log(1.0 - random.nextDouble()) * levelMultiplier);
+            int id = nodes.size();
+            Node node = new Node(key, vector, level, m);
+            nodes.add(node);
+            ids.put(key, id);
+
+            if (entryPoint < 0) {
+                entryPoint = id;
+                return;
+            }
+
+            int current = entryPoint;
+            int topLevel = nodes.get(entryPoint).level();
+
+            // Greedy descent through the layers above the new node's level
+            for (int layer = topLevel; layer > level; layer--) {
+                current = greedyClosest(vector, current, layer);
+            }
+
+            // Connect the node on every layer it lives in
+            for (int layer = Math.min(level, topLevel); layer >= 0; layer--) {
+                PriorityQueue<Candidate> found = searchLayer(vector, current, efConstruction, layer);
+                List<Candidate> selected = closest(found, m);
+                for (Candidate candidate : selected) {
+                    connect(id, candidate.id, layer);
+                    connect(candidate.id, id, layer);
+                }
+                current = selected.get(0).id;
+            }
+
+            if (level > topLevel) {
+                entryPoint = id;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the approximate nearest neighbours of a query vector
+     * @param query The unit-length query embedding
+     * @param k The number of results to return
+     * @param excludeKey A key to leave out of the results (usually the query article), or null
+     * @return Up to k neighbours, most similar first
+     * @throws IllegalArgumentException if the query's length differs from the indexed vectors
+     */
+    public List<Neighbor> search(float[] query, int k, String excludeKey) {
+        lock.readLock().lock();
+        try {
+            List<Neighbor> results = new ArrayList<>();
+            if (entryPoint < 0) {
+                return results;
+            }
+            checkDimensions(query);
+
+            int current = entryPoint;
+            for (int layer = nodes.get(entryPoint).level(); layer > 0; layer--) {
+                current = greedyClosest(query, current, layer);
+            }
+
+            PriorityQueue<Candidate> found = searchLayer(query, current, Math.max(efSearch, k + 1), 0);
+            for (Candidate candidate : closest(found, found.size())) {
+                String key = nodes.get(candidate.id).key;
+                if (key.equals(excludeKey)) {
+                    continue;
+                }
+                results.add(new Neighbor(key, 1.0 - candidate.distance));
+                if (results.size() >= k) {
+                    break;
+                }
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static class Candidate {
+        final int id;
+        final double distance;
+
+        Candidate(int id, double distance) {
+            this.id = id;
+            this.distance = distance;
+        }
+    }
+
+    private int greedyClosest(float[] query, int start, int layer) {
+        int current = start;
+        double currentDistance = distance(query, nodes.get(current).vector);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            Node node = nodes.get(current);
+            for (int i = 0; i < node.linkCounts[layer]; i++) {
+                int neighbor = node.links[layer][i];
+                double d = distance(query, nodes.get(neighbor).vector);
+                if (d < currentDistance) {
+                    currentDistance = d;
+                    current = neighbor;
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Beam search on one layer; returns up to ef results as a max-heap on distance
+     */
+    private PriorityQueue<Candidate> searchLayer(float[] query, int start, int ef, int layer) {
+        BitSet visited = new BitSet(nodes.size());
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>(Comparator.comparingDouble(c -> c.distance));
+        PriorityQueue<Candidate> results = new PriorityQueue<>(Comparator.comparingDouble((Candidate c) -> c.distance).reversed());
+
+        Candidate first = new Candidate(start, distance(query, nodes.get(start).vector));
+        visited.set(start);
+        candidates.add(first);
+        results.add(first);
+
+        while (!candidates.isEmpty()) {
+            Candidate closest = candidates.poll();
+            if (closest.distance > results.peek().distance && results.size() >= ef) {
+                break;
+            }
+
+            Node node = nodes.get(closest.id);
+            if (layer > node.level()) {
+                continue;
+            }
+            for (int i = 0; i < node.linkCounts[layer]; i++) {
+                int neighbor = node.links[layer][i];
+                if (visited.get(neighbor)) {
+                    continue;
+                }
+                visited.set(neighbor);
+
+                double d = distance(query, nodes.get(neighbor).vector);
+                if (results.size() < ef || d < results.peek().distance) {
+                    Candidate candidate = new Candidate(neighbor, d);
+                    candidates.add(candidate);
+                    results.add(candidate);
+                    if (results.size() > ef) {
+                        results.poll();
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    private static List<Candidate> closest(PriorityQueue<Candidate> found, int limit) {
+        Candidate[] sorted = found.toArray(new Candidate[0]);
+        Arrays.sort(sorted, Comparator.comparingDouble(c -> c.distance));
+        List<Candidate> result = new ArrayList<>();
+        for (int i = 0; i < sorted.length && i < limit; i++) {
+            result.add(sorted[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Adds a directed link, pruning the node's farthest link when it is full
+     */
+    private void connect(int from, int to, int layer) {
+        Node node = nodes.get(from);
+        int[] links = node.links[layer];
+        int count = node.linkCounts[layer];
+
+        for (int i = 0; i < count; i++) {
+            if (links[i] == to) {
+                return;
+            }
+        }
+        if (count < links.length) {
+            links[count] = to;
+            node.linkCounts[layer]++;
+            return;
+        }
+
+        int farthest = -1;
+        double farthestDistance = distance(node.vector, nodes.get(to).vector);
+        for (int i = 0; i < count; i++) {
+            double d = distance(node.vector, nodes.get(links[i]).vector);
+            if (d > farthestDistance) {
+                farthestDistance = d;
+                farthest = i;
+            }
+        }
+        if (farthest >= 0) {
+            links[farthest] = to;
+        }
+    }
+
+    private void checkDimensions(float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Vector has " + vector.length + " dimensions, the index holds "
+                    + dimensions + "-dimensional vectors");
+        }
+    }
+
+    /**
+     * Both vectors have the index's dimensions, see {@link #checkDimensions}
+     */
+    private static double distance(float[] a, float[] b) {
+        double dot = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+        }
+        return 1.0 - dot;
+    }
+}
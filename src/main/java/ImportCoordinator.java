@@ -0,0 +1,150 @@
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ImportCoordinator - Runs extra import workers and reports on all of them
+ *
+ * Every import (the GUI, TechNewsScraper, ImportDaemon and workers started
+ * here) leases the articles it works on, so any number of worker processes
+ * on the same host can drain the queue in parallel without two of them
+ * fetching or analyzing the same article. Workers only process the queue;
+ * scraping stays with the regular importers.
+ *
+ * Usage:
+ *   mvn compile exec:java -Dexec.mainClass="ImportCoordinator"                            # status
+ *   mvn compile exec:java -Dexec.mainClass="ImportCoordinator" -Dexec.args="watch"        # status every 5s
+ *   mvn compile exec:java -Dexec.mainClass="ImportCoordinator" -Dexec.args="worker"       # drain the queue once
+ *   mvn compile exec:java -Dexec.mainClass="ImportCoordinator" -Dexec.args="worker --follow"
+ *   mvn compile exec:java -Dexec.mainClass="ImportCoordinator" -Dexec.args="release 12345@host#1"
+ */
+public class ImportCoordinator {
+
+    private static final long FOLLOW_INTERVAL_SECONDS = Long.getLong("coordinator.followSeconds", 60);
+    private static final long WATCH_INTERVAL_SECONDS = Long.getLong("coordinator.watchSeconds", 5);
+    // A running worker that has not reported for this long has probably died
+    private static final long STALE_MILLIS = Long.getLong("import.leaseSeconds", 300) * 1000;
+
+    /**
+     * Prints the queue by processing state, lease counts and every known worker
+     * @throws SQLException if the database cannot be read
+     */
+    public static void printStatus() throws SQLException {
+        Map<String, Integer> states = ArticleDatabase.getProcessingStateCounts();
+        List<ArticleDatabase.WorkerStatus> workers = ArticleDatabase.getWorkerStatuses();
+        int leased = 0;
+        for (ArticleDatabase.WorkerStatus worker : workers) {
+            leased += worker.getLeases();
+        }
+
+        StringBuilder queue = new StringBuilder("Queue:");
+        for (Map.Entry<String, Integer> state : states.entrySet()) {
+            queue.append(' ').append(state.getValue()).append(' ').append(state.getKey()).append(',');
+        }
+        queue.setLength(queue.length() - 1);
+        System.out.println(queue);
+        System.out.println("Leases: " + leased + " active, " + ArticleDatabase.countExpiredLeases() + " expired");
+
+        if (workers.isEmpty()) {
+            System.out.println("No workers have reported yet.");
+            return;
+        }
+        System.out.printf("%n%-32s %-9s %10s %7s %9s %9s %7s%n",
+                "Worker", "State", "Last seen", "Leases", "Processed", "Analyzed", "Failed");
+        long now = System.currentTimeMillis();
+        for (ArticleDatabase.WorkerStatus worker : workers) {
+            String state = worker.getState();
+            if (state.equals("running") && now - worker.getLastSeen() > STALE_MILLIS) {
+                state = "stale";
+            }
+            System.out.printf("%-32s %-9s %10s %7d %9d %9d %7d%n", worker.getWorker(), state,
+                    age(now - worker.getLastSeen()), worker.getLeases(),
+                    worker.getProcessed(), worker.getAnalyzed(), worker.getFailed());
+        }
+    }
+
+    /**
+     * Processes the queue in this process, leasing articles like any other import
+     * @param follow Keep polling for new work instead of exiting once the queue is drained
+     */
+    private static void runWorker(boolean follow) throws SQLException, InterruptedException {
+        ImportPipeline pipeline = new ImportPipeline(System.out::println);
+        CountDownLatch finished = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            // Interrupt in-flight work and wait for the leases to be released
+            pipeline.cancel();
+            try {
+                finished.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "import-worker-shutdown"));
+
+        System.out.println("✓ Worker " + pipeline.getWorkerId() + " started");
+        try {
+            do {
+                ImportPipeline.ImportResult result = pipeline.processQueue();
+                System.out.println("✓ Worker " + pipeline.getWorkerId() + ": " + result.getAnalyzed() + " analyzed, "
+                        + result.getFailed() + " failed, " + result.getDeferred() + " deferred");
+                if (follow && !pipeline.isCancelled()) {
+                    TimeUnit.SECONDS.sleep(FOLLOW_INTERVAL_SECONDS);
+                }
+            } while (follow && !pipeline.isCancelled());
+        } finally {
+            finished.countDown();
+        }
+    }
+
+    private static String age(long millis) {
+        long seconds = Math.max(0, millis / 1000);
+        if (seconds < 120) {
+            return seconds + "s ago";
+        }
+        if (seconds < 7200) {
+            return seconds / 60 + "m ago";
+        }
+        return seconds / 3600 + "h ago";
+    }
+
+    /**
+     * Main entry point: ImportCoordinator [status | watch | worker [--follow] | release &lt;worker&gt;]
+     */
+    public static void main(String[] args) {
+        String command = args.length > 0 ? args[0] : "status";
+        try {
+            ArticleDatabase.initialize();
+            switch (command) {
+                case "status":
+                    printStatus();
+                    break;
+                case "watch":
+                    while (true) {
+                        System.out.println("=".repeat(50));
+                        printStatus();
+                        TimeUnit.SECONDS.sleep(WATCH_INTERVAL_SECONDS);
+                    }
+                case "worker":
+                    runWorker(args.length > 1 && args[1].equals("--follow"));
+                    break;
+                case "release":
+                    if (args.length < 2) {
+                        System.err.println("✗ Usage: ImportCoordinator release <worker>");
+                        return;
+                    }
+                    int released = ArticleDatabase.releaseLeases(args[1]);
+                    System.out.println("✓ Released " + released + " lease(s) of " + args[1]);
+                    break;
+                default:
+                    System.err.println("✗ Unknown command: " + command);
+                    System.err.println("Usage: ImportCoordinator [status | watch | worker [--follow] | release <worker>]");
+            }
+        } catch (SQLException e) {
+            System.err.println("✗ Database error: " + e.getMessage());
+            e.printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
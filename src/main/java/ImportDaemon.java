@@ -0,0 +1,187 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.FileLock;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ImportDaemon - Long-running headless import on a fixed cadence
+ *
+ * Polls every source, enqueues articles it has not seen before and processes
+ * the work queue, then sleeps until the next run. The JVM, the HTTP clients,
+ * the LLM endpoint health and the embedding index stay warm between runs, so
+ * only the first run pays the cold-start cost.
+ *
+ * Holds the import lock on the database for its whole lifetime, so a second
+ * daemon (or the archive command) refuses to start while it is running.
+ * Imports from the GUI or command line may run alongside it; article leases
+ * keep them from working on the same articles. Ctrl+C / SIGTERM finishes
+ * the current run before exiting.
+ *
+ * Configuration:
+ *   -Ddaemon.sources=url1,url2          front pages to poll (default TechCrunch)
+ *   -Ddaemon.intervalMinutes=30         delay between the end of a run and the next
+ *   -Ddaemon.shutdownTimeoutSeconds=120 how long shutdown waits for a running import
+ *   -Dretention.days=30                 after each run, archive bodies older than this (off by default)
+ *   -Dserver.port=8080                  also serve the digest API from this process (off by default)
+ *
+ * Usage:
+ *   mvn compile exec:java -Dexec.mainClass="ImportDaemon" -Ddaemon.intervalMinutes=15
+ */
+public class ImportDaemon {
+
+    private static final long INTERVAL_MINUTES = Long.getLong("daemon.intervalMinutes", 30);
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = Long.getLong("daemon.shutdownTimeoutSeconds", 120);
+    private static final Integer RETENTION_DAYS = Integer.getInteger("retention.days");
+
+    private final List<String> sources;
+    private final ScheduledExecutorService scheduler;
+    private final ImportPipeline pipeline;
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private volatile boolean stopping = false;
+    private int runs = 0;
+
+    public ImportDaemon(List<String> sources) {
+        this.sources = sources;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "import-daemon");
+            thread.setDaemon(false);
+            return thread;
+        });
+        this.pipeline = new ImportPipeline(Log::info);
+    }
+
+    /**
+     * Runs the first import now and then every interval after the previous one finishes
+     */
+    public void start() {
+        // Fixed delay rather than fixed rate so that slow runs never overlap
+        scheduler.scheduleWithFixedDelay(this::runOnce, 0, INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Stops scheduling, waits for a running import to finish and shuts down
+     */
+    public void stop() {
+        stopping = true;
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                Log.warn("Import still running after " + SHUTDOWN_TIMEOUT_SECONDS + "s, interrupting; "
+                        + "unfinished articles stay queued for the next start");
+                scheduler.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            scheduler.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        stopped.countDown();
+    }
+
+    /**
+     * Blocks until {@link #stop()} has completed
+     */
+    public void awaitStop() throws InterruptedException {
+        stopped.await();
+    }
+
+    private void runOnce() {
+        runs++;
+        long start = System.nanoTime();
+        Log.info("Import run " + runs + " started");
+
+        int analyzed = 0;
+        int deferred = 0;
+        int failed = 0;
+        for (String source : sources) {
+            if (stopping) {
+                break;
+            }
+            try {
+                ImportPipeline.ImportResult result = pipeline.run(source);
+                analyzed += result.getAnalyzed();
+                deferred += result.getDeferred();
+                failed += result.getFailed();
+            } catch (IOException e) {
+                Log.error("Failed to scrape " + source + ": " + e.getMessage());
+            } catch (SQLException e) {
+                Log.error("Import queue unavailable: " + e.getMessage());
+            } catch (RuntimeException e) {
+                // An uncaught exception would cancel all future runs of the schedule
+                Log.error("Import run failed: " + e);
+            }
+        }
+
+        if (RETENTION_DAYS != null && !stopping) {
+            applyRetention();
+        }
+
+        long seconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start);
+        Log.info("Import run " + runs + " finished in " + seconds + "s: " + analyzed + " analyzed, "
+                + deferred + " deferred, " + failed + " failed"
+                + (stopping ? "" : "; next run in " + INTERVAL_MINUTES + " min"));
+    }
+
+    private void applyRetention() {
+        try {
+            int archived = ArticleDatabase.archiveOldBodies(RETENTION_DAYS);
+            if (archived > 0) {
+                long reclaimed = ArticleDatabase.reclaimFreeSpace(false);
+                Log.info("Archived " + archived + " article bodies older than " + RETENTION_DAYS + " days, reclaimed "
+                        + reclaimed / 1024 + " KB");
+            }
+        } catch (IOException | SQLException e) {
+            Log.error("Retention failed: " + e.getMessage());
+        }
+    }
+
+    private static List<String> configuredSources() {
+        List<String> sources = new ArrayList<>();
+        for (String source : System.getProperty("daemon.sources", TechNewsScraper.TECH_NEWS_URL).split(",")) {
+            if (!source.isBlank()) {
+                sources.add(source.trim());
+            }
+        }
+        return sources;
+    }
+
+    public static void main(String[] args) throws IOException, SQLException, InterruptedException {
+        FileLock lock = ArticleDatabase.tryLockImports();
+        if (lock == null) {
+            System.err.println("✗ Another import daemon (or an archive run) is using this database, exiting.");
+            System.exit(1);
+        }
+
+        ArticleDatabase.initialize();
+        ImportDaemon daemon = new ImportDaemon(configuredSources());
+        DigestServer server = null;
+        if (System.getProperty("server.port") != null) {
+            // Sees each analysis as soon as it is committed here
+            server = new DigestServer(new InetSocketAddress(System.getProperty("server.host", "0.0.0.0"),
+                    DigestServer.DEFAULT_PORT));
+            server.start();
+            Log.info("Digest API listening on port " + server.getPort());
+        }
+
+        DigestServer api = server;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            Log.info("Shutdown requested, finishing the current run...");
+            if (api != null) {
+                api.stop();
+            }
+            daemon.stop();
+            ArticleDatabase.unlockImports(lock);
+            Log.info("Import daemon stopped");
+            Log.flush();
+        }, "import-daemon-shutdown"));
+
+        Log.info("Import daemon started: " + daemon.sources + " every " + INTERVAL_MINUTES + " min");
+        daemon.start();
+        daemon.awaitStop();
+    }
+}
@@ -0,0 +1,757 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ImportPipeline - Drives articles through fetch and LLM analysis
+ *
+ * Scraped articles are first recorded as "discovered" in the database. The
+ * pipeline then works through every article with unfinished work, so an
+ * import that crashed or whose analysis failed is picked up again on the
+ * next run without re-fetching or re-analyzing finished articles.
+ *
+ * Besides the front page, articles are discovered through RSS/Atom feeds and
+ * sitemaps ({@link FeedDiscovery}), so stories that scrolled off the front
+ * page between runs are still imported. -Ddiscovery.enabled=false turns this off.
+ *
+ * Articles are processed by one worker per configured LLM endpoint (override
+ * with -Dimport.threads=N), so analysis throughput grows with the number of
+ * model servers.
+ *
+ * Before any work is done, {@link RelevanceClassifier} estimates from the
+ * title, snippet and URL whether each article is worth analyzing. Articles
+ * below -Dclassifier.threshold (default 0.2) are moved to the end of the
+ * queue, or with -Dclassifier.mode=skip taken out of it without being fetched.
+ * -Dclassifier.mode=off disables the pre-filter.
+ *
+ * The remaining queue is worked in priority order: highest predicted relevance
+ * first, or newest first while the classifier is still learning
+ * (-Dimport.priority=relevance|recency|fifo). A run can be given a time limit
+ * (-Dimport.timeLimitSeconds, or {@link #setTimeLimit}) and can be cancelled;
+ * either way articles not yet started stay queued, fetches and LLM calls in
+ * flight are interrupted and left in their previous state, and every finished
+ * article is already committed.
+ *
+ * Several import processes can share one database: each article is leased
+ * from the article_leases table before it is worked on, in batches of
+ * -Dimport.claimBatch (default 5), so no two processes fetch or analyze the
+ * same article. Leases last -Dimport.leaseSeconds (default 300) and are
+ * renewed while the worker is alive; a crashed worker's articles are picked
+ * up by others once its leases expire. See {@link ImportCoordinator}.
+ */
+public class ImportPipeline {
+
+    public static final int MAX_ATTEMPTS = 3;
+
+    private static final String CLASSIFIER_MODE = System.getProperty("classifier.mode", "defer");
+    private static final double CLASSIFIER_THRESHOLD = Double.parseDouble(System.getProperty("classifier.threshold", "0.2"));
+    private static final String PRIORITY = System.getProperty("import.priority", "relevance");
+    private static final int TIME_LIMIT_SECONDS = Integer.getInteger("import.timeLimitSeconds", 0);
+    // Articles are leased while being worked on; a worker renews its leases every third of this
+    private static final long LEASE_MILLIS = Long.getLong("import.leaseSeconds", 300) * 1000;
+    private static final int CLAIM_BATCH = Integer.getInteger("import.claimBatch", 5);
+    // Analyzed articles without an embedding that one run embeds after its queue, 0 to disable
+    private static final int EMBEDDING_BACKFILL = Integer.getInteger("embeddings.backfillBatch", 50);
+    private static final AtomicInteger PIPELINES = new AtomicInteger();
+
+    /**
+     * Listener - Receives log lines and progress updates from a running import
+     */
+    public interface Listener {
+        void log(String message);
+
+        default void progress(int completed, int total) {
+        }
+    }
+
+    /**
+     * ImportResult - Counts for one import run
+     */
+    public static class ImportResult {
+        private int discovered;
+        private final AtomicInteger saved = new AtomicInteger();
+        private final AtomicInteger analyzed = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicInteger deferred = new AtomicInteger();
+        private final AtomicInteger processed = new AtomicInteger();
+        private final AtomicInteger interrupted = new AtomicInteger();
+        private int filtered;
+        private int remaining;
+        private boolean stopped;
+
+        public int getDiscovered() { return discovered; }
+        public int getSaved() { return saved.get(); }
+        public int getAnalyzed() { return analyzed.get(); }
+        public int getFailed() { return failed.get(); }
+        public int getDeferred() { return deferred.get(); }
+        public int getProcessed() { return processed.get(); }
+        public int getFiltered() { return filtered; }
+        public int getInterrupted() { return interrupted.get(); }
+        public int getRemaining() { return remaining; }
+        public boolean isStopped() { return stopped; }
+    }
+
+    /**
+     * Collects one article's log lines so parallel workers don't interleave them
+     */
+    private static class BufferedLog implements Listener {
+        private final List<String> lines = new ArrayList<>();
+
+        @Override
+        public void log(String message) {
+            lines.add(message);
+        }
+
+        void flushTo(Listener target) {
+            synchronized (target) {
+                for (String line : lines) {
+                    target.log(line);
+                }
+            }
+        }
+    }
+
+    private final Listener listener;
+    // e.g. 12345@hostname#1: process, host and pipeline within the process
+    private final String workerId = ManagementFactory.getRuntimeMXBean().getName() + "#" + PIPELINES.incrementAndGet();
+    private volatile Duration timeLimit = TIME_LIMIT_SECONDS > 0 ? Duration.ofSeconds(TIME_LIMIT_SECONDS) : null;
+    private volatile Instant deadline;
+    private volatile boolean cancelled;
+    private volatile ExecutorService workers;
+
+    public ImportPipeline(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Limits the wall-clock time of each run, counted from the start of
+     * {@link #run} or {@link #processQueue}. When it runs out, articles not yet
+     * started stay queued for the next run and analyses in flight are interrupted.
+     * @param timeLimit The budget per run, or null for none
+     */
+    public void setTimeLimit(Duration timeLimit) {
+        this.timeLimit = timeLimit;
+    }
+
+    /**
+     * Stops the running import from any thread. Articles not yet started stay
+     * queued, in-flight fetches and LLM calls are interrupted, and finished
+     * articles stay committed. A cancelled pipeline does no further work.
+     */
+    public void cancel() {
+        cancelled = true;
+        ExecutorService running = workers;
+        if (running != null) {
+            running.shutdownNow();
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * ID under which this pipeline leases articles and reports its heartbeat
+     */
+    public String getWorkerId() {
+        return workerId;
+    }
+
+    /**
+     * Scrapes the source, queues new articles and processes all pending work
+     * @param sourceUrl The news site front page
+     * @return Counts for this run
+     * @throws IOException if the front page cannot be scraped
+     * @throws SQLException if the work queue cannot be read or written
+     */
+    public ImportResult run(String sourceUrl) throws IOException, SQLException {
+        startClock();
+        listener.log("Connecting to " + sourceUrl + "...");
+        long scrapeStart = System.nanoTime();
+        List<TechNewsScraper.NewsArticle> scraped = TechNewsScraper.scrapeTechNews(sourceUrl);
+        listener.log("Found " + scraped.size() + " articles");
+        if (FeedDiscovery.ENABLED && !stopRequested()) {
+            scraped = mergeDiscovered(scraped, FeedDiscovery.discover(sourceUrl));
+        }
+        Metrics.recordSince(Metrics.SCRAPE, scrapeStart);
+
+        int discovered = 0;
+        for (TechNewsScraper.NewsArticle article : scraped) {
+            if (!article.getUrl().isEmpty() && ArticleDatabase.enqueueArticle(article)) {
+                discovered++;
+            }
+        }
+        listener.log(discovered + " new, " + (scraped.size() - discovered) + " already known");
+
+        ImportResult result = processPending();
+        result.discovered = discovered;
+        backfillEmbeddings();
+        return result;
+    }
+
+    /**
+     * Adds feed and sitemap articles that the front page did not show
+     */
+    private List<TechNewsScraper.NewsArticle> mergeDiscovered(List<TechNewsScraper.NewsArticle> scraped,
+                                                              List<TechNewsScraper.NewsArticle> discovered) {
+        // Feeds often link the same story with tracking parameters
+        Set<String> urls = new HashSet<>();
+        for (TechNewsScraper.NewsArticle article : scraped) {
+            urls.add(UrlCanonicalizer.canonicalize(article.getUrl()));
+        }
+        List<TechNewsScraper.NewsArticle> merged = new ArrayList<>(scraped);
+        for (TechNewsScraper.NewsArticle article : discovered) {
+            if (urls.add(UrlCanonicalizer.canonicalize(article.getUrl()))) {
+                merged.add(article);
+            }
+        }
+        listener.log("Found " + (merged.size() - scraped.size()) + " more in feeds and sitemaps");
+        return merged;
+    }
+
+    /**
+     * Processes every article with unfinished work, without scraping
+     * @return Counts for this run
+     * @throws SQLException if the work queue cannot be read
+     */
+    public ImportResult processQueue() throws SQLException {
+        startClock();
+        ImportResult result = processPending();
+        backfillEmbeddings();
+        return result;
+    }
+
+    private ImportResult processPending() throws SQLException {
+        ImportResult result = new ImportResult();
+        if (stopRequested()) {
+            result.stopped = true;
+            return result;
+        }
+        List<ArticleDatabase.QueuedArticle> pending = ArticleDatabase.getPendingArticles(MAX_ATTEMPTS);
+
+        if (pending.isEmpty()) {
+            listener.log("Nothing to process, all articles are up to date.");
+            return result;
+        }
+        listener.log(pending.size() + " article(s) pending");
+        List<ArticleDatabase.QueuedArticle> queue = prioritize(pending, result);
+        if (queue.isEmpty()) {
+            return result;
+        }
+
+        LLMProcessor.resetRetryBudget();
+        if (!LLMProcessor.preflight()) {
+            listener.log("[WARN] LLM endpoint is not responding, articles will be queued for later analysis");
+        }
+
+        int threads = Math.max(1, Integer.getInteger("import.threads",
+                LLMProcessor.getEndpointPool().getEndpoints().size()));
+        if (threads > 1) {
+            listener.log("Processing with " + threads + " workers");
+        }
+        ClaimQueue claims = new ClaimQueue(queue);
+        ScheduledExecutorService heartbeat = startHeartbeat(result);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        workers = pool;
+        AtomicInteger started = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+        try {
+            for (int t = 0; t < threads; t++) {
+                pool.submit(() -> {
+                    ArticleDatabase.QueuedArticle queued;
+                    while (!stopRequested() && (queued = claims.next()) != null) {
+                        // A single worker logs straight through; parallel ones buffer per article
+                        BufferedLog articleLog = threads > 1 ? new BufferedLog() : null;
+                        boolean finished;
+                        try {
+                            finished = processQueued(queued, started.getAndIncrement(), queue.size(), result,
+                                    articleLog != null ? articleLog : listener);
+                        } finally {
+                            claims.release(queued);
+                        }
+                        if (articleLog != null) {
+                            articleLog.flushTo(listener);
+                        }
+                        if (!finished) {
+                            break;
+                        }
+                        listener.progress(completed.incrementAndGet(), queue.size());
+                    }
+                });
+            }
+        } catch (RejectedExecutionException e) {
+            // Cancelled while the workers were being started
+        }
+        pool.shutdown();
+        awaitWorkers(pool);
+        workers = null;
+        claims.releaseAll();
+        heartbeat.shutdownNow();
+
+        result.remaining = queue.size() - completed.get() - claims.takenElsewhere;
+        result.stopped = result.remaining > 0 && stopRequested();
+        recordHeartbeat(result, result.stopped ? "stopped" : "finished");
+
+        listener.log("=".repeat(50));
+        listener.log(result.stopped ? "Import stopped early" : "Import complete!");
+        listener.log("Articles saved: " + result.getSaved() + "/" + queue.size());
+        listener.log("Articles analyzed: " + result.getAnalyzed() + "/" + queue.size());
+        if (result.stopped) {
+            listener.log("Articles left for the next run: " + result.remaining
+                    + (cancelled ? " (cancelled)" : " (time limit reached)"));
+        }
+        if (claims.takenElsewhere > 0) {
+            listener.log("Articles handled by other import processes: " + claims.takenElsewhere);
+        }
+        if (result.getDeferred() > 0) {
+            listener.log("Articles queued for later analysis: " + result.getDeferred());
+        }
+        if (result.getFailed() > 0) {
+            listener.log("Articles failed (will be retried): " + result.getFailed());
+        }
+        if (result.getFiltered() > 0) {
+            listener.log("Articles skipped by the relevance pre-filter: " + result.getFiltered());
+        }
+        return result;
+    }
+
+    /**
+     * ClaimQueue - Hands out the queue in priority order, leasing articles from
+     * the database a batch at a time so that concurrent import processes never
+     * work on the same article
+     */
+    private class ClaimQueue {
+        private final List<ArticleDatabase.QueuedArticle> queue;
+        private final Deque<ArticleDatabase.QueuedArticle> claimed = new ArrayDeque<>();
+        private int cursor;
+        private boolean claimFailed;
+        // Articles leased by, or already finished by, another process
+        private volatile int takenElsewhere;
+
+        ClaimQueue(List<ArticleDatabase.QueuedArticle> queue) {
+            this.queue = queue;
+        }
+
+        /**
+         * @return The next article leased to this worker, or null when the queue is exhausted
+         */
+        synchronized ArticleDatabase.QueuedArticle next() {
+            while (claimed.isEmpty() && cursor < queue.size() && !claimFailed) {
+                List<ArticleDatabase.QueuedArticle> batch =
+                        queue.subList(cursor, Math.min(queue.size(), cursor + CLAIM_BATCH));
+                cursor += batch.size();
+                List<String> urls = new ArrayList<>();
+                for (ArticleDatabase.QueuedArticle queued : batch) {
+                    urls.add(queued.getArticle().getUrl());
+                }
+                try {
+                    Set<String> won = new HashSet<>(
+                            ArticleDatabase.claimArticles(workerId, urls, LEASE_MILLIS, MAX_ATTEMPTS));
+                    for (ArticleDatabase.QueuedArticle queued : batch) {
+                        if (won.contains(queued.getArticle().getUrl())) {
+                            claimed.add(queued);
+                        } else {
+                            takenElsewhere++;
+                        }
+                    }
+                } catch (SQLException e) {
+                    listener.log("[WARN] Could not claim articles, stopping: " + e.getMessage());
+                    claimFailed = true;
+                }
+            }
+            return claimed.poll();
+        }
+
+        void release(ArticleDatabase.QueuedArticle queued) {
+            try {
+                ArticleDatabase.releaseLease(workerId, queued.getArticle().getUrl());
+            } catch (SQLException e) {
+                // The lease runs out on its own
+                Log.warn("Could not release lease on " + queued.getArticle().getUrl() + ": " + e.getMessage());
+            }
+        }
+
+        /**
+         * Releases articles claimed but not started, e.g. after a stop
+         */
+        void releaseAll() {
+            try {
+                ArticleDatabase.releaseLeases(workerId);
+            } catch (SQLException e) {
+                Log.warn("Could not release article leases: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Renews this worker's leases and reports its progress every third of the lease time
+     */
+    private ScheduledExecutorService startHeartbeat(ImportResult result) {
+        ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "import-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        recordHeartbeat(result, "running");
+        long period = Math.max(1000, LEASE_MILLIS / 3);
+        heartbeat.scheduleAtFixedRate(() -> {
+            try {
+                ArticleDatabase.renewLeases(workerId, LEASE_MILLIS);
+            } catch (SQLException e) {
+                Log.warn("Could not renew article leases: " + e.getMessage());
+            }
+            recordHeartbeat(result, "running");
+        }, period, period, TimeUnit.MILLISECONDS);
+        return heartbeat;
+    }
+
+    private void recordHeartbeat(ImportResult result, String state) {
+        try {
+            ArticleDatabase.recordWorkerHeartbeat(workerId, state,
+                    result.getProcessed(), result.getAnalyzed(), result.getFailed());
+        } catch (SQLException e) {
+            Log.warn("Could not record worker heartbeat: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Waits for the workers, interrupting them once the run is cancelled or out of time
+     */
+    private void awaitWorkers(ExecutorService pool) {
+        boolean stopping = false;
+        try {
+            while (!pool.awaitTermination(1, TimeUnit.SECONDS)) {
+                if (!stopping && stopRequested()) {
+                    listener.log(cancelled ? "[STOP] Import cancelled, interrupting articles in progress"
+                            : "[STOP] Time limit reached, interrupting articles in progress");
+                    pool.shutdownNow();
+                    stopping = true;
+                }
+            }
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void startClock() {
+        Duration limit = timeLimit;
+        deadline = limit != null ? Instant.now().plus(limit) : null;
+    }
+
+    private boolean stopRequested() {
+        Instant end = deadline;
+        return cancelled || (end != null && !Instant.now().isBefore(end));
+    }
+
+    /**
+     * Orders the queue for this run and applies the relevance pre-filter.
+     * Articles the classifier expects to score low are moved behind the rest,
+     * or in skip mode removed from the queue. While the classifier has too
+     * little history, newest articles go first.
+     */
+    private List<ArticleDatabase.QueuedArticle> prioritize(List<ArticleDatabase.QueuedArticle> pending,
+                                                           ImportResult result) {
+        // Pending articles come oldest first
+        List<ArticleDatabase.QueuedArticle> ordered = new ArrayList<>(pending);
+        if (!PRIORITY.equals("fifo")) {
+            Collections.reverse(ordered);
+        }
+        RelevanceClassifier classifier = null;
+        if (!CLASSIFIER_MODE.equals("off") || PRIORITY.equals("relevance")) {
+            try {
+                classifier = ArticleDatabase.getRelevanceClassifier();
+            } catch (SQLException e) {
+                listener.log("[WARN] Relevance pre-filter unavailable: " + e.getMessage());
+            }
+        }
+        if (classifier == null || !classifier.isReady()) {
+            return ordered;
+        }
+
+        Map<ArticleDatabase.QueuedArticle, Double> predicted = new HashMap<>();
+        List<ArticleDatabase.QueuedArticle> kept = new ArrayList<>();
+        List<ArticleDatabase.QueuedArticle> low = new ArrayList<>();
+        for (ArticleDatabase.QueuedArticle queued : ordered) {
+            TechNewsScraper.NewsArticle article = queued.getArticle();
+            double probability = classifier.predict(article.getTitle(), article.getSnippet(), article.getUrl());
+            predicted.put(queued, probability);
+            boolean filtered = !CLASSIFIER_MODE.equals("off") && probability < CLASSIFIER_THRESHOLD;
+            (filtered ? low : kept).add(queued);
+        }
+        if (PRIORITY.equals("relevance")) {
+            // Stable sort, so equally rated articles stay newest first
+            Comparator<ArticleDatabase.QueuedArticle> byRelevance =
+                    Comparator.comparingDouble((ArticleDatabase.QueuedArticle queued) -> predicted.get(queued)).reversed();
+            kept.sort(byRelevance);
+            low.sort(byRelevance);
+        }
+        if (low.isEmpty()) {
+            return kept;
+        }
+
+        if (CLASSIFIER_MODE.equals("skip")) {
+            for (ArticleDatabase.QueuedArticle queued : low) {
+                try {
+                    ArticleDatabase.markSkipped(queued.getArticle().getUrl(), "skipped by relevance pre-filter");
+                    result.filtered++;
+                } catch (SQLException e) {
+                    // Still skipped for this run; the next run predicts it again
+                    listener.log("[WARN] Could not record skipped article: " + e.getMessage());
+                }
+            }
+            listener.log("Pre-filter: skipping " + low.size() + " article(s) predicted below "
+                    + RelevanceClassifier.POSITIVE_SCORE + "/10");
+            return kept;
+        }
+
+        listener.log("Pre-filter: " + low.size() + " article(s) predicted below "
+                + RelevanceClassifier.POSITIVE_SCORE + "/10 moved to the end of the queue");
+        kept.addAll(low);
+        return kept;
+    }
+
+    /**
+     * @return false if the article was interrupted and left for the next run
+     */
+    private boolean processQueued(ArticleDatabase.QueuedArticle queued, int index, int total,
+                                  ImportResult result, Listener log) {
+        log.log("-".repeat(40));
+        log.log("Article " + (index + 1) + "/" + total + ": " + queued.getArticle().getTitle());
+        if (queued.getAttempts() > 0) {
+            log.log("  Retry " + (queued.getAttempts() + 1) + "/" + MAX_ATTEMPTS);
+        }
+
+        long start = System.nanoTime();
+        boolean settled = processArticle(queued, result, log);
+        // An interrupt after the outcome was recorded only means the run is stopping,
+        // which the worker loop sees through stopRequested()
+        if (Thread.interrupted() && !settled) {
+            result.interrupted.incrementAndGet();
+            return false;
+        }
+        Metrics.recordSince(Metrics.ARTICLE, start);
+        result.processed.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * @return false if the article was interrupted before its outcome was recorded
+     */
+    private boolean processArticle(ArticleDatabase.QueuedArticle queued, ImportResult result, Listener log) {
+        TechNewsScraper.NewsArticle article = queued.getArticle();
+
+        if (queued.needsFetch()) {
+            log.log("  Fetching article text...");
+            long fetchStart = System.nanoTime();
+            ArticleFetcher.fetchArticle(article);
+            Metrics.recordSince(Metrics.FETCH, fetchStart);
+            if (Thread.currentThread().isInterrupted() || stopRequested()) {
+                // The text may be a failed, interrupted fetch; fetch again next run
+                log.log("  [STOP] Interrupted while fetching, left queued for the next run");
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            if (isCanonicalDuplicate(article, log)) {
+                return true;
+            }
+            try {
+                ArticleDatabase.saveArticle(article);
+                log.log("  [OK] Article saved");
+                result.saved.incrementAndGet();
+            } catch (SQLException e) {
+                log.log("  [FAIL] Failed to save article: " + e.getMessage());
+                recordFailure(article, "save failed: " + e.getMessage(), result, log);
+                return true;
+            }
+        }
+
+        LLMProcessor.ArticleAnalysis analysis;
+        try {
+            // Reuse the analysis of a near-duplicate story instead of calling the LLM
+            String duplicateOf = ArticleDatabase.findNearDuplicate(article);
+            LLMProcessor.ArticleAnalysis reused = duplicateOf != null
+                    ? ArticleDatabase.reuseAnalysis(article.getUrl(), duplicateOf) : null;
+            if (reused != null) {
+                log.log("  [DUP] Near-duplicate of " + duplicateOf + ", reusing its analysis");
+                result.analyzed.incrementAndGet();
+                embedArticle(article, reused, log);
+                return true;
+            }
+
+            LLMProcessor.ModelTier tier = LLMProcessor.routeArticle(article, expectedValue(article));
+            log.log("  Analyzing with LLM (" + LLMProcessor.getModel(tier) + ")...");
+            analysis = LLMProcessor.analyzeArticle(article, tier);
+
+            log.log("  Summary: " + truncate(analysis.getSummary(), 80));
+            log.log("  Topics: " + String.join(", ", analysis.getTopics()));
+            log.log("  Relevance: " + analysis.getRelevanceScore() + "/10");
+
+            ArticleDatabase.saveAnalysis(article.getUrl(), analysis);
+            log.log("  [OK] Analysis saved");
+            result.analyzed.incrementAndGet();
+
+        } catch (InterruptedException e) {
+            // Nothing was saved for this analysis; the article keeps its fetched state
+            log.log("  [STOP] Interrupted during analysis, left queued for the next run");
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (LLMProcessor.LLMUnavailableException e) {
+            // Leave the article in the fetched state; the next run analyzes it
+            log.log("  [DEFER] LLM unavailable, queued for later analysis");
+            result.deferred.incrementAndGet();
+            return true;
+        } catch (Exception e) {
+            log.log("  [FAIL] LLM analysis failed: " + e.getMessage());
+            recordFailure(article, "analysis failed: " + e.getMessage(), result, log);
+            return true;
+        }
+
+        // The analysis is committed; nothing below may mark the article as failed
+        trainClassifier(article, analysis, log);
+        embedArticle(article, analysis, log);
+        return true;
+    }
+
+    /**
+     * Checks the fetched page's rel=canonical link against the stored articles.
+     * Catches variants the URL rules miss, e.g. a story reachable under two slugs.
+     * @return true if the article is another URL of a stored one and was taken out of the queue
+     */
+    private static boolean isCanonicalDuplicate(TechNewsScraper.NewsArticle article, Listener log) {
+        if (article.getCanonicalLink() == null) {
+            return false;
+        }
+        try {
+            String original = ArticleDatabase.applyCanonicalLink(article.getUrl(), article.getCanonicalLink());
+            if (original != null) {
+                log.log("  [DUP] Same article as " + original + " (rel=canonical), skipped");
+                return true;
+            }
+        } catch (SQLException e) {
+            log.log("  [WARN] Could not check canonical link: " + e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Feeds a new LLM score back into the relevance pre-filter.
+     * Failures are only reported, the analysis itself is already saved.
+     */
+    private static void trainClassifier(TechNewsScraper.NewsArticle article, LLMProcessor.ArticleAnalysis analysis,
+                                        Listener log) {
+        try {
+            ArticleDatabase.getRelevanceClassifier().train(article.getTitle(), article.getSnippet(),
+                    article.getUrl(), analysis.getRelevanceScore());
+        } catch (SQLException e) {
+            log.log("  [WARN] Could not update the relevance pre-filter: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Predicted probability that the article is relevant, used to route it to
+     * the large model; NaN while the classifier has too little history
+     */
+    private static double expectedValue(TechNewsScraper.NewsArticle article) {
+        try {
+            RelevanceClassifier classifier = ArticleDatabase.getRelevanceClassifier();
+            return classifier.isReady()
+                    ? classifier.predict(article.getTitle(), article.getSnippet(), article.getUrl())
+                    : Double.NaN;
+        } catch (SQLException e) {
+            return Double.NaN;
+        }
+    }
+
+    private void recordFailure(TechNewsScraper.NewsArticle article, String error, ImportResult result, Listener log) {
+        result.failed.incrementAndGet();
+        try {
+            ArticleDatabase.markFailed(article.getUrl(), error);
+        } catch (SQLException e) {
+            log.log("  [WARN] Could not record failure: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Computes and stores the embedding used for related-article lookups.
+     * Failures are only reported, the analysis itself is already saved.
+     */
+    private void embedArticle(TechNewsScraper.NewsArticle article, LLMProcessor.ArticleAnalysis analysis, Listener log) {
+        try {
+            long embedStart = System.nanoTime();
+            float[] vector = EmbeddingClient.embed(EmbeddingClient.embeddingInput(article, analysis));
+            Metrics.recordSince(Metrics.EMBED, embedStart);
+            ArticleDatabase.saveEmbedding(article.getUrl(), vector);
+        } catch (InterruptedException e) {
+            // The analysis is saved, so the article counts as processed; the run stops on its own
+            log.log("  [STOP] Interrupted while embedding; the analysis is saved, a later run embeds it");
+        } catch (Exception e) {
+            log.log("  [WARN] Embedding failed, retried by a later run: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Embeds analyzed articles that have no usable embedding, e.g. because no embedding
+     * model was loaded when they were analyzed or the model has changed since.
+     * Stops at the first failure; the rest are tried again by the next run.
+     */
+    private void backfillEmbeddings() {
+        if (EMBEDDING_BACKFILL <= 0 || stopRequested()) {
+            return;
+        }
+        List<TechNewsScraper.NewsArticle> missing;
+        try {
+            missing = ArticleDatabase.getArticlesMissingEmbeddings(EMBEDDING_BACKFILL);
+        } catch (SQLException e) {
+            listener.log("[WARN] Could not look up articles without embeddings: " + e.getMessage());
+            return;
+        }
+        int embedded = 0;
+        for (TechNewsScraper.NewsArticle article : missing) {
+            if (stopRequested()) {
+                break;
+            }
+            try {
+                LLMProcessor.ArticleAnalysis analysis = ArticleDatabase.loadAnalysis(article.getUrl());
+                long embedStart = System.nanoTime();
+                float[] vector = EmbeddingClient.embed(EmbeddingClient.embeddingInput(article, analysis));
+                Metrics.recordSince(Metrics.EMBED, embedStart);
+                ArticleDatabase.saveEmbedding(article.getUrl(), vector);
+                embedded++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                listener.log("[WARN] Embedding backfill stopped, retried next run: " + e.getMessage());
+                break;
+            }
+        }
+        if (embedded > 0) {
+            listener.log("Embeddings added for earlier articles: " + embedded + "/" + missing.size());
+        }
+    }
+
+    private static String truncate(String text, int maxLength) {
+        if (text == null) return "";
+        if (text.length() <= maxLength) return text;
+        return text.substring(0, maxLength) + "...";
+    }
+}
@@ -0,0 +1,181 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * LLMEndpointPool - A set of OpenAI-compatible model servers with health tracking
+ *
+ * Endpoints are configured as a comma-separated list of base URLs, either with
+ * -Dllm.endpoints=... or the LLM_ENDPOINTS environment variable, e.g.
+ * "http://localhost:1234,http://192.168.0.227:1234". Requests go to the
+ * healthy endpoint with the fewest in-flight requests, ties broken by the
+ * lowest recent latency. Each endpoint has its own circuit breaker.
+ */
+public class LLMEndpointPool {
+
+    private static final String DEFAULT_ENDPOINTS = "http://localhost:1234";
+    private static final double LATENCY_SMOOTHING = 0.3;
+
+    /**
+     * Endpoint - One model server and its live statistics
+     */
+    public static class Endpoint {
+        private final String baseUrl;
+        private final CircuitBreaker circuitBreaker;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger completed = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        // Exponentially weighted moving average, 0 until the first response
+        private volatile double latencyMillis = 0;
+
+        Endpoint(String baseUrl) {
+            this.baseUrl = baseUrl;
+            this.circuitBreaker = new CircuitBreaker(baseUrl, 3, 60_000);
+        }
+
+        public String getBaseUrl() { return baseUrl; }
+        public String getChatCompletionsUrl() { return baseUrl + "/v1/chat/completions"; }
+        public String getEmbeddingsUrl() { return baseUrl + "/v1/embeddings"; }
+        public int getInFlight() { return inFlight.get(); }
+        public int getCompleted() { return completed.get(); }
+        public int getFailed() { return failed.get(); }
+        public double getLatencyMillis() { return latencyMillis; }
+        public CircuitBreaker.State getState() { return circuitBreaker.getState(); }
+
+        private synchronized void recordLatency(long millis) {
+            latencyMillis = latencyMillis == 0 ? millis
+                    : LATENCY_SMOOTHING * millis + (1 - LATENCY_SMOOTHING) * latencyMillis;
+        }
+
+        @Override
+        public String toString() {
+            return baseUrl;
+        }
+    }
+
+    private final List<Endpoint> endpoints;
+
+    public LLMEndpointPool(List<String> baseUrls) {
+        List<Endpoint> list = new ArrayList<>();
+        for (String baseUrl : baseUrls) {
+            list.add(new Endpoint(baseUrl));
+        }
+        if (list.isEmpty()) {
+            throw new IllegalArgumentException("At least one LLM endpoint is required");
+        }
+        this.endpoints = Collections.unmodifiableList(list);
+    }
+
+    /**
+     * Creates the pool from -Dllm.endpoints, LLM_ENDPOINTS or the localhost default
+     */
+    public static LLMEndpointPool fromConfiguration() {
+        String configured = System.getProperty("llm.endpoints", System.getenv("LLM_ENDPOINTS"));
+        if (configured == null || configured.isBlank()) {
+            configured = DEFAULT_ENDPOINTS;
+        }
+
+        List<String> baseUrls = new ArrayList<>();
+        for (String url : configured.split(",")) {
+            String baseUrl = url.trim();
+            // Accept full completion URLs as well as base URLs
+            baseUrl = baseUrl.replaceAll("/v1/chat/completions/?$", "").replaceAll("/+$", "");
+            if (!baseUrl.isEmpty()) {
+                baseUrls.add(baseUrl);
+            }
+        }
+        return new LLMEndpointPool(baseUrls);
+    }
+
+    public List<Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * Returns the first configured endpoint, used for requests that are not load balanced
+     */
+    public Endpoint primary() {
+        return endpoints.get(0);
+    }
+
+    /**
+     * Picks the least loaded healthy endpoint and counts the request as in flight.
+     * Callers must hand the endpoint back through {@link #release}.
+     * @param exclude Endpoints already tried for this request
+     * @return The chosen endpoint, or null if every endpoint is excluded or open
+     */
+    public Endpoint acquire(Set<Endpoint> exclude) {
+        List<Endpoint> candidates = new ArrayList<>();
+        for (Endpoint endpoint : endpoints) {
+            if (!exclude.contains(endpoint) && endpoint.getState() != CircuitBreaker.State.OPEN) {
+                candidates.add(endpoint);
+            }
+        }
+        candidates.sort(Comparator.comparingInt(Endpoint::getInFlight)
+                .thenComparingDouble(Endpoint::getLatencyMillis));
+
+        for (Endpoint endpoint : candidates) {
+            // allowRequest also claims the single trial call of a half-open breaker
+            if (endpoint.circuitBreaker.allowRequest()) {
+                endpoint.inFlight.incrementAndGet();
+                return endpoint;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Records the outcome of a request started with {@link #acquire}
+     * @param endpoint The endpoint that served the request
+     * @param success Whether the request succeeded
+     * @param latencyMillis How long the request took
+     */
+    public void release(Endpoint endpoint, boolean success, long latencyMillis) {
+        endpoint.inFlight.decrementAndGet();
+        if (success) {
+            endpoint.completed.incrementAndGet();
+            endpoint.recordLatency(latencyMillis);
+            endpoint.circuitBreaker.recordSuccess();
+        } else {
+            endpoint.failed.incrementAndGet();
+            endpoint.circuitBreaker.recordFailure();
+        }
+    }
+
+    /**
+     * Hands back an endpoint whose request the caller cancelled, e.g. by
+     * interrupting an import, without counting it as a success or failure
+     * @param endpoint The endpoint returned by {@link #acquire}
+     */
+    public void abandon(Endpoint endpoint) {
+        endpoint.inFlight.decrementAndGet();
+        endpoint.circuitBreaker.releaseTrial();
+    }
+
+    /**
+     * Records the result of a health probe for an endpoint
+     */
+    public void recordProbe(Endpoint endpoint, boolean healthy) {
+        if (healthy) {
+            endpoint.circuitBreaker.recordSuccess();
+        } else {
+            endpoint.circuitBreaker.trip();
+        }
+    }
+
+    /**
+     * Checks whether an endpoint outside the given set may currently receive requests
+     * @param exclude Endpoints already tried for this request
+     */
+    public boolean hasAvailableEndpoint(Set<Endpoint> exclude) {
+        for (Endpoint endpoint : endpoints) {
+            if (!exclude.contains(endpoint) && endpoint.getState() != CircuitBreaker.State.OPEN) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
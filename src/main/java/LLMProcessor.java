@@ -1,29 +1,119 @@
 import java.io.IOException;
+import java.io.StringReader;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
 /**
  * LLMProcessor - Handles communication with LM Studio for article analysis
  */
 public class LLMProcessor {
     
-    // Change this to match your LM Studio server address
+    // LM Studio servers, set with -Dllm.endpoints or LLM_ENDPOINTS (comma-separated)
     // Use "http://localhost:1234" if running on same machine
     // Use "http://192.168.0.227:1234" if running on another machine
-    private static final String LM_STUDIO_URL = "http://localhost:1234/v1/chat/completions";
+    private static final LLMEndpointPool endpointPool = LLMEndpointPool.fromConfiguration();
     private static final int TIMEOUT_SECONDS = 120;
+    private static final int PREFLIGHT_TIMEOUT_SECONDS = 5;
+    // Ask for schema-constrained JSON instead of the SUMMARY/TOPICS/... text format
+    private static final boolean JSON_MODE = Boolean.getBoolean("llm.jsonMode");
+    private static final int TEXT_MAX_TOKENS = 1000;
+    private static final int JSON_MAX_TOKENS = 450;
+    // Model tiering is on once -Dllm.smallModel names a second model (see ModelTier)
+    private static final String SMALL_MODEL = System.getProperty("llm.smallModel");
+    private static final String LARGE_MODEL = System.getProperty("llm.largeModel", "local-model");
+    // Articles with at most this much usable text go to the small model...
+    private static final int SMALL_MAX_CHARS = Integer.getInteger("llm.smallMaxChars", 1500);
+    // ...unless the relevance classifier rates them at least this likely to matter
+    private static final double LARGE_MIN_VALUE = Double.parseDouble(System.getProperty("llm.largeMinValue", "0.7"));
+    // Re-run an article on the large model when the small model's answer cannot be parsed
+    private static final boolean ESCALATE = Boolean.parseBoolean(System.getProperty("llm.escalate", "true"));
+    private static final TierSettings SMALL_TIER = new TierSettings(
+            SMALL_MODEL != null && !SMALL_MODEL.isBlank() ? SMALL_MODEL : LARGE_MODEL, "small", 500, 300, 0.3);
+    private static final TierSettings LARGE_TIER = new TierSettings(LARGE_MODEL, "large", TEXT_MAX_TOKENS, JSON_MAX_TOKENS, 0.7);
+    // Day overviews: the large model, kept short and factual (-Dllm.digest.maxTokens, -Dllm.digest.temperature)
+    private static final TierSettings DIGEST_TIER = new TierSettings(LARGE_MODEL, "digest", 600, 600, 0.3);
+    // Roughly the old 4000-character cut; override with -Dprompt.tokenBudget=...
+    private static final int ARTICLE_TOKEN_BUDGET = Integer.getInteger("prompt.tokenBudget", 900);
     private static final HttpClient httpClient = HttpClient.newBuilder()
             .version(HttpClient.Version.HTTP_1_1)
-            .connectTimeout(Duration.ofSeconds(30))
+            .connectTimeout(Duration.ofSeconds(5))
             .build();
     private static final Gson gson = new Gson();
     
+    // Retry with jittered exponential backoff, bounded per import run
+    private static final int MAX_RETRIES = 2;
+    private static final long RETRY_BASE_MILLIS = 1000;
+    private static final long RETRY_MAX_MILLIS = 15000;
+    private static final int RETRY_BUDGET_PER_RUN = 6;
+    private static final AtomicInteger retryBudget = new AtomicInteger(RETRY_BUDGET_PER_RUN);
+    
+    /**
+     * LLMUnavailableException - Thrown without contacting a server while every endpoint's circuit breaker is open
+     */
+    public static class LLMUnavailableException extends IOException {
+        private static final long serialVersionUID = 1L;
+        
+        public LLMUnavailableException(String message) {
+            super(message);
+        }
+    }
+    
+    /**
+     * LLMStatusException - The server answered with a non-200 status
+     */
+    private static class LLMStatusException extends IOException {
+        private static final long serialVersionUID = 1L;
+        
+        private final int statusCode;
+        
+        LLMStatusException(int statusCode, String body) {
+            super("LLM API returned status code: " + statusCode + " Body: " + body);
+            this.statusCode = statusCode;
+        }
+    }
+    
+    /**
+     * ModelTier - Which model an article is analyzed with. SMALL is a fast
+     * model for snippet-only and short articles, LARGE the full model for long
+     * or high-value ones.
+     */
+    public enum ModelTier { SMALL, LARGE }
+    
+    /**
+     * TierSettings - Model name and sampling limits of one tier, overridable
+     * with -Dllm.small.maxTokens, -Dllm.large.temperature and so on
+     */
+    private static class TierSettings {
+        private final String model;
+        private final int textMaxTokens;
+        private final int jsonMaxTokens;
+        private final double temperature;
+        
+        TierSettings(String model, String name, int textMaxTokens, int jsonMaxTokens, double temperature) {
+            Integer maxTokens = Integer.getInteger("llm." + name + ".maxTokens");
+            this.model = model;
+            this.textMaxTokens = maxTokens != null ? maxTokens : textMaxTokens;
+            this.jsonMaxTokens = maxTokens != null ? maxTokens : jsonMaxTokens;
+            this.temperature = Double.parseDouble(System.getProperty("llm." + name + ".temperature",
+                    String.valueOf(temperature)));
+        }
+    }
+    
     /**
      * ArticleAnalysis - Holds the results of LLM analysis
      */
@@ -55,16 +145,199 @@ public class LLMProcessor {
      */
     public static ArticleAnalysis analyzeArticle(TechNewsScraper.NewsArticle article) 
             throws IOException, InterruptedException {
+        return analyzeArticle(article, routeArticle(article, Double.NaN));
+    }
+    
+    /**
+     * Analyzes an article with the model of the given tier. If the small model's
+     * answer has no summary or topics, the article is analyzed again with the
+     * large model (unless -Dllm.escalate=false).
+     * @param article The article to analyze
+     * @param tier As chosen by {@link #routeArticle}
+     * @return ArticleAnalysis with summary, topics, key points, and relevance score
+     * @throws IOException if the API call fails
+     * @throws InterruptedException if the request is interrupted
+     */
+    public static ArticleAnalysis analyzeArticle(TechNewsScraper.NewsArticle article, ModelTier tier)
+            throws IOException, InterruptedException {
         
-        String prompt = buildAnalysisPrompt(article);
-        String response = callLLM(prompt);
-        return parseAnalysisResponse(response);
+        String prompt = buildAnalysisPrompt(article, JSON_MODE);
+        ArticleAnalysis analysis = analyzeWith(prompt, tier == ModelTier.SMALL ? SMALL_TIER : LARGE_TIER);
+        if (tier == ModelTier.SMALL && ESCALATE && !isComplete(analysis)) {
+            Log.info("Small model answer for " + article.getUrl() + " could not be parsed, escalating to " + LARGE_MODEL);
+            analysis = analyzeWith(prompt, LARGE_TIER);
+        }
+        return analysis;
+    }
+    
+    /**
+     * Picks the model tier for an article. Everything goes to the large model
+     * unless -Dllm.smallModel is set; otherwise snippet-only and short articles
+     * go to the small model, except those the relevance classifier expects to
+     * matter.
+     * @param article The article to analyze
+     * @param expectedValue Predicted probability that the article is relevant, or NaN if unknown
+     * @return The tier to analyze the article with
+     */
+    public static ModelTier routeArticle(TechNewsScraper.NewsArticle article, double expectedValue) {
+        if (SMALL_MODEL == null || SMALL_MODEL.isBlank()) {
+            return ModelTier.LARGE;
+        }
+        if (expectedValue >= LARGE_MIN_VALUE) {
+            return ModelTier.LARGE;
+        }
+        String articleText = usableText(article);
+        return articleText == null || articleText.length() <= SMALL_MAX_CHARS ? ModelTier.SMALL : ModelTier.LARGE;
+    }
+    
+    /**
+     * Returns the model name a tier is configured with
+     */
+    public static String getModel(ModelTier tier) {
+        return tier == ModelTier.SMALL ? SMALL_TIER.model : LARGE_TIER.model;
+    }
+    
+    private static ArticleAnalysis analyzeWith(String prompt, TierSettings tier) throws IOException, InterruptedException {
+        String response = callWithRetry(prompt, JSON_MODE, tier);
+        long parseStart = System.nanoTime();
+        ArticleAnalysis analysis = JSON_MODE ? parseJsonAnalysis(response) : parseAnalysisResponse(response);
+        Metrics.recordSince(Metrics.PARSE, parseStart);
+        return analysis;
+    }
+    
+    /**
+     * Runs a free-form summarization prompt with the large model, e.g. one
+     * step of the day overview
+     * @param prompt The complete user prompt
+     * @return The model's answer, trimmed
+     * @throws IOException if the API call fails
+     * @throws InterruptedException if the request is interrupted
+     */
+    public static String summarize(String prompt) throws IOException, InterruptedException {
+        return callWithRetry(prompt, false, DIGEST_TIER).trim();
+    }
+    
+    /**
+     * Returns the model used for {@link #summarize}
+     */
+    public static String getSummaryModel() {
+        return DIGEST_TIER.model;
+    }
+    
+    /**
+     * Whether a parsed analysis has the fields the digest depends on
+     */
+    private static boolean isComplete(ArticleAnalysis analysis) {
+        return !analysis.getSummary().isBlank() && !analysis.getSummary().equals("Analysis parsing failed")
+                && analysis.getTopics().length > 0 && !analysis.getTopics()[0].isBlank();
+    }
+    
+    /**
+     * Resets the retry budget; called at the start of every import run
+     */
+    public static void resetRetryBudget() {
+        retryBudget.set(RETRY_BUDGET_PER_RUN);
+    }
+    
+    /**
+     * Fast health probe of every endpoint, run before an import. A failed probe
+     * opens that endpoint's circuit breaker so requests go elsewhere, or articles
+     * are queued for later analysis instead of waiting out timeouts.
+     * @return true if at least one LLM endpoint answered
+     */
+    public static boolean preflight() {
+        boolean anyHealthy = false;
+        for (LLMEndpointPool.Endpoint endpoint : endpointPool.getEndpoints()) {
+            boolean healthy = testConnection(endpoint, PREFLIGHT_TIMEOUT_SECONDS, false);
+            endpointPool.recordProbe(endpoint, healthy);
+            anyHealthy |= healthy;
+        }
+        return anyHealthy;
+    }
+    
+    /**
+     * Returns the configured LLM endpoints with their live statistics
+     */
+    public static LLMEndpointPool getEndpointPool() {
+        return endpointPool;
+    }
+    
+    /**
+     * Calls the LLM on the least loaded endpoint. A failed request fails over to
+     * another endpoint right away; once every endpoint has failed, transient
+     * failures are retried with jittered exponential backoff while the per-run
+     * retry budget lasts.
+     */
+    private static String callWithRetry(String prompt, boolean jsonMode, TierSettings tier)
+            throws IOException, InterruptedException {
+        Set<LLMEndpointPool.Endpoint> tried = new HashSet<>();
+        int attempt = 0;
+        while (true) {
+            LLMEndpointPool.Endpoint endpoint = endpointPool.acquire(tried);
+            if (endpoint == null) {
+                throw new LLMUnavailableException("All LLM endpoints are unavailable, analysis deferred");
+            }
+            
+            long startTime = System.currentTimeMillis();
+            boolean released = false;
+            try {
+                String content = callLLM(endpoint, prompt, jsonMode, tier);
+                endpointPool.release(endpoint, true, System.currentTimeMillis() - startTime);
+                released = true;
+                return content;
+            } catch (InterruptedException e) {
+                // Cancelled by the caller, which says nothing about the endpoint's health
+                endpointPool.abandon(endpoint);
+                released = true;
+                throw e;
+            } catch (IOException e) {
+                endpointPool.release(endpoint, false, System.currentTimeMillis() - startTime);
+                released = true;
+                tried.add(endpoint);
+                if (endpointPool.hasAvailableEndpoint(tried)) {
+                    Log.warn("LLM call to " + endpoint + " failed (" + e.getMessage() + "), failing over");
+                    continue;
+                }
+                
+                attempt++;
+                if (!isRetryable(e) || attempt > MAX_RETRIES ||
+                    retryBudget.getAndUpdate(left -> left > 0 ? left - 1 : 0) == 0) {
+                    throw e;
+                }
+                long delay = backoffMillis(attempt);
+                Log.warn("LLM call failed (" + e.getMessage() + "), retry " + attempt + " in " + delay + "ms");
+                Thread.sleep(delay);
+                tried.clear();
+            } finally {
+                if (!released) {
+                    // E.g. an unparseable response; the endpoint must never stay counted as busy
+                    endpointPool.release(endpoint, false, System.currentTimeMillis() - startTime);
+                }
+            }
+        }
+    }
+    
+    private static boolean isRetryable(IOException e) {
+        if (e instanceof LLMStatusException) {
+            int status = ((LLMStatusException) e).statusCode;
+            return status == 429 || status >= 500;
+        }
+        // Connection resets and timeouts
+        return true;
+    }
+    
+    /**
+     * Exponential backoff with "equal jitter": half fixed, half random
+     */
+    private static long backoffMillis(int attempt) {
+        long exponential = Math.min(RETRY_MAX_MILLIS, RETRY_BASE_MILLIS << (attempt - 1));
+        return exponential / 2 + ThreadLocalRandom.current().nextLong(exponential / 2 + 1);
     }
     
     /**
      * Builds the prompt for article analysis
      */
-    private static String buildAnalysisPrompt(TechNewsScraper.NewsArticle article) {
+    private static String buildAnalysisPrompt(TechNewsScraper.NewsArticle article, boolean jsonMode) {
         StringBuilder prompt = new StringBuilder();
         prompt.append("Analyze the following tech news article and provide:\n");
         prompt.append("1. A concise 2-3 sentence summary\n");
@@ -73,20 +346,21 @@ public class LLMProcessor {
         prompt.append("4. Relevance score (1-10, where 10 is highly significant tech news)\n\n");
         prompt.append("Article Title: ").append(article.getTitle()).append("\n\n");
         
-        String articleText = article.getArticleText();
-        if (articleText != null && !articleText.isEmpty() && 
-            !articleText.equals("Article text not available") && 
-            !articleText.equals("Failed to fetch article text")) {
-            // Limit text length to avoid token limits
-            int maxLength = 4000;
-            if (articleText.length() > maxLength) {
-                articleText = articleText.substring(0, maxLength) + "...";
-            }
+        String articleText = usableText(article);
+        if (articleText != null) {
+            // Keep the most informative paragraphs within the token budget
+            articleText = PromptCompressor.compress(articleText, article.getTitle(), ARTICLE_TOKEN_BUDGET);
             prompt.append("Article Text:\n").append(articleText);
         } else {
             prompt.append("Article Snippet: ").append(article.getSnippet());
         }
         
+        if (jsonMode) {
+            prompt.append("\n\nRespond with a single JSON object with the fields ");
+            prompt.append("summary, topics, keyPoints and relevance.");
+            return prompt.toString();
+        }
+        
         prompt.append("\n\nProvide your analysis in this exact format:\n");
         prompt.append("SUMMARY: [your summary]\n");
         prompt.append("TOPICS: [topic1, topic2, topic3]\n");
@@ -97,18 +371,81 @@ public class LLMProcessor {
     }
     
     /**
-     * Calls the LM Studio API
+     * Returns the fetched article text, or null if only the snippet is available
      */
-    private static String callLLM(String userPrompt) throws IOException, InterruptedException {
-        System.out.println("DEBUG: Preparing LLM request...");
-        System.out.println("DEBUG: LM Studio URL: " + LM_STUDIO_URL);
+    private static String usableText(TechNewsScraper.NewsArticle article) {
+        String articleText = article.getArticleText();
+        if (articleText == null || articleText.isEmpty() ||
+            articleText.equals("Article text not available") ||
+            articleText.equals("Failed to fetch article text")) {
+            return null;
+        }
+        return articleText;
+    }
+    
+    /**
+     * Builds the response_format that constrains the model to the analysis schema
+     */
+    private static JsonObject analysisResponseFormat() {
+        JsonObject stringType = new JsonObject();
+        stringType.addProperty("type", "string");
+        
+        JsonObject stringArray = new JsonObject();
+        stringArray.addProperty("type", "array");
+        stringArray.add("items", stringType);
+        
+        JsonObject keyPointsArray = stringArray.deepCopy();
+        keyPointsArray.addProperty("minItems", 3);
+        keyPointsArray.addProperty("maxItems", 5);
+        
+        JsonObject relevance = new JsonObject();
+        relevance.addProperty("type", "integer");
+        relevance.addProperty("minimum", 1);
+        relevance.addProperty("maximum", 10);
+        
+        JsonObject properties = new JsonObject();
+        properties.add("summary", stringType);
+        properties.add("topics", stringArray);
+        properties.add("keyPoints", keyPointsArray);
+        properties.add("relevance", relevance);
         
+        JsonArray required = new JsonArray();
+        required.add("summary");
+        required.add("topics");
+        required.add("keyPoints");
+        required.add("relevance");
+        
+        JsonObject schema = new JsonObject();
+        schema.addProperty("type", "object");
+        schema.add("properties", properties);
+        schema.add("required", required);
+        schema.addProperty("additionalProperties", false);
+        
+        JsonObject jsonSchema = new JsonObject();
+        jsonSchema.addProperty("name", "article_analysis");
+        jsonSchema.addProperty("strict", true);
+        jsonSchema.add("schema", schema);
+        
+        JsonObject responseFormat = new JsonObject();
+        responseFormat.addProperty("type", "json_schema");
+        responseFormat.add("json_schema", jsonSchema);
+        return responseFormat;
+    }
+    
+    /**
+     * Calls the LM Studio API
+     */
+    private static String callLLM(LLMEndpointPool.Endpoint endpoint, String userPrompt, boolean jsonMode,
+                                  TierSettings tier) throws IOException, InterruptedException {
         // Build request body
         JsonObject requestBody = new JsonObject();
-        requestBody.addProperty("model", "local-model");
-        requestBody.addProperty("temperature", 0.7);
-        requestBody.addProperty("max_tokens", 1000);
+        requestBody.addProperty("model", tier.model);
+        requestBody.addProperty("temperature", tier.temperature);
+        requestBody.addProperty("max_tokens", jsonMode ? tier.jsonMaxTokens : tier.textMaxTokens);
         requestBody.addProperty("stream", false);
+        if (jsonMode) {
+            requestBody.add("response_format", analysisResponseFormat());
+        }
         
         JsonArray messages = new JsonArray();
         
@@ -129,54 +466,49 @@ public class LLMProcessor {
         requestBody.add("messages", messages);
         
         String requestBodyStr = requestBody.toString();
-        System.out.println("DEBUG: Request body size: " + requestBodyStr.length() + " bytes");
-        System.out.println("DEBUG: First 200 chars of request: " + requestBodyStr.substring(0, Math.min(200, requestBodyStr.length())));
         
         // Build HTTP request - explicitly set POST method
         HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(LM_STUDIO_URL))
+                .uri(URI.create(endpoint.getChatCompletionsUrl()))
                 .timeout(Duration.ofSeconds(TIMEOUT_SECONDS))
                 .header("Content-Type", "application/json")
                 .header("Accept", "application/json")
                 .method("POST", HttpRequest.BodyPublishers.ofString(requestBodyStr))
                 .build();
         
-        System.out.println("DEBUG: HTTP Method: " + request.method());
-        System.out.println("DEBUG: Request URI: " + request.uri());
-        System.out.println("DEBUG: Sending request to LM Studio...");
-        long startTime = System.currentTimeMillis();
+        Log.debug(() -> "POST " + request.uri() + " model " + tier.model + " (" + requestBodyStr.length() + " bytes)");
+        long startTime = System.nanoTime();
         
         // Send request
         HttpResponse<String> response;
         try {
             response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
         } catch (IOException e) {
-            System.err.println("DEBUG: IOException during send: " + e.getMessage());
+            Log.debug(() -> "LLM request to " + endpoint + " failed: " + e.getMessage());
             throw e;
         }
         
-        long duration = System.currentTimeMillis() - startTime;
-        System.out.println("DEBUG: Received response in " + duration + "ms");
-        System.out.println("DEBUG: Status code: " + response.statusCode());
-        System.out.println("DEBUG: Response headers: " + response.headers().map());
+        long duration = System.nanoTime() - startTime;
+        Metrics.histogram(Metrics.LLM).recordNanos(duration);
+        Log.debug(() -> "LLM " + endpoint + " answered " + response.statusCode() + " in " + duration / 1_000_000 +
+                "ms, " + response.body().length() + " bytes");
         
         if (response.statusCode() != 200) {
-            System.err.println("DEBUG: Response body: " + response.body());
-            throw new IOException("LLM API returned status code: " + response.statusCode() + 
-                                " Body: " + response.body());
+            throw new LLMStatusException(response.statusCode(), response.body());
         }
         
-        System.out.println("DEBUG: Response body length: " + response.body().length());
-        
         // Parse response
         JsonObject responseJson = gson.fromJson(response.body(), JsonObject.class);
+        JsonObject usage = responseJson.getAsJsonObject("usage");
+        if (usage != null && usage.has("completion_tokens")) {
+            long promptTokens = usage.has("prompt_tokens") ? usage.get("prompt_tokens").getAsLong() : 0;
+            Metrics.recordTokens(promptTokens, usage.get("completion_tokens").getAsLong(), duration);
+        }
         JsonArray choices = responseJson.getAsJsonArray("choices");
         if (choices != null && choices.size() > 0) {
             JsonObject firstChoice = choices.get(0).getAsJsonObject();
             JsonObject message = firstChoice.getAsJsonObject("message");
-            String content = message.get("content").getAsString();
-            System.out.println("DEBUG: Response content length: " + content.length() + " chars");
-            return content;
+            return message.get("content").getAsString();
         }
         
         throw new IOException("No response from LLM");
@@ -222,26 +554,124 @@ public class LLMProcessor {
             }
             
         } catch (Exception e) {
-            System.err.println("Error parsing LLM response: " + e.getMessage());
+            Log.warn("Error parsing LLM response: " + e.getMessage());
             summary = "Analysis parsing failed";
         }
         
         return new ArticleAnalysis(summary, topics, keyPoints, relevanceScore);
     }
     
+    /**
+     * Parses a JSON-mode response with a streaming reader straight into an ArticleAnalysis.
+     * Falls back to the text parser if the model ignored the response format.
+     */
+    static ArticleAnalysis parseJsonAnalysis(String response) {
+        String json = response.trim();
+        if (json.startsWith("```")) {
+            // Some models still wrap JSON in a markdown code fence
+            json = json.replaceAll("^```[a-zA-Z]*\\s*", "").replaceAll("\\s*```$", "");
+        }
+        
+        String summary = "";
+        String[] topics = new String[0];
+        String[] keyPoints = new String[0];
+        int relevanceScore = 5;
+        
+        try (JsonReader reader = new JsonReader(new StringReader(json))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "summary":
+                        summary = reader.nextString().trim();
+                        break;
+                    case "topics":
+                        topics = readStringArray(reader);
+                        break;
+                    case "keyPoints":
+                    case "key_points":
+                        keyPoints = readStringArray(reader);
+                        break;
+                    case "relevance":
+                    case "relevanceScore":
+                        relevanceScore = readRelevance(reader);
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+        } catch (IOException | IllegalStateException | JsonParseException | NumberFormatException e) {
+            Log.warn("JSON analysis could not be parsed (" + e.getMessage() + "), trying text format");
+            return parseAnalysisResponse(response);
+        }
+        
+        return new ArticleAnalysis(summary, topics, keyPoints, relevanceScore);
+    }
+    
+    private static String[] readStringArray(JsonReader reader) throws IOException {
+        List<String> values = new ArrayList<>();
+        if (reader.peek() == JsonToken.STRING) {
+            // Tolerate a comma-separated string where an array was expected
+            for (String value : reader.nextString().split(",\\s*")) {
+                if (!value.isBlank()) {
+                    values.add(value.trim());
+                }
+            }
+            return values.toArray(new String[0]);
+        }
+        reader.beginArray();
+        while (reader.hasNext()) {
+            String value = reader.nextString().trim();
+            if (!value.isEmpty()) {
+                values.add(value);
+            }
+        }
+        reader.endArray();
+        return values.toArray(new String[0]);
+    }
+    
+    private static int readRelevance(JsonReader reader) throws IOException {
+        int score;
+        if (reader.peek() == JsonToken.STRING) {
+            // "7", "7/10" or "Score: 7" - take the first number
+            String digits = reader.nextString().replaceFirst("^\\D*(\\d+).*$", "$1");
+            score = digits.matches("\\d+") ? Integer.parseInt(digits) : 5;
+        } else {
+            score = (int) Math.round(reader.nextDouble());
+        }
+        return Math.max(1, Math.min(10, score));
+    }
+    
     /**
      * Tests the connection to LM Studio
      * @return true if connection is successful
      */
     public static boolean testConnection() {
+        boolean allConnected = true;
+        for (LLMEndpointPool.Endpoint endpoint : endpointPool.getEndpoints()) {
+            allConnected &= testConnection(endpoint, 10, true);
+        }
+        return allConnected;
+    }
+    
+    /**
+     * Tests the connection to one LM Studio server with a tiny completion request
+     * @param endpoint The server to test
+     * @param timeoutSeconds Request timeout
+     * @param verbose Whether to print the response and failures
+     * @return true if connection is successful
+     */
+    private static boolean testConnection(LLMEndpointPool.Endpoint endpoint, int timeoutSeconds, boolean verbose) {
         try {
-            System.out.println("Testing connection to LM Studio at: " + LM_STUDIO_URL);
+            if (verbose) {
+                System.out.println("Testing connection to LM Studio at: " + endpoint.getChatCompletionsUrl());
+            }
             
-            // Simple test request
+            // Simple test request, against the model the analyses use so servers that check the name accept it
             JsonObject requestBody = new JsonObject();
-            requestBody.addProperty("model", "local-model");
+            requestBody.addProperty("model", LARGE_TIER.model);
             requestBody.addProperty("temperature", 0.7);
-            requestBody.addProperty("max_tokens", 50);
+            requestBody.addProperty("max_tokens", verbose ? 50 : 1);
             requestBody.addProperty("stream", false);
             
             JsonArray messages = new JsonArray();
@@ -252,8 +682,8 @@ public class LLMProcessor {
             requestBody.add("messages", messages);
             
             HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(LM_STUDIO_URL))
-                    .timeout(Duration.ofSeconds(10))
+                    .uri(URI.create(endpoint.getChatCompletionsUrl()))
+                    .timeout(Duration.ofSeconds(timeoutSeconds))
                     .header("Content-Type", "application/json")
                     .header("Accept", "application/json")
                     .POST(HttpRequest.BodyPublishers.ofString(requestBody.toString()))
@@ -261,15 +691,22 @@ public class LLMProcessor {
             
             HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
             
-            System.out.println("✓ Connection successful!");
-            System.out.println("Status: " + response.statusCode());
-            System.out.println("Response: " + response.body());
+            if (verbose) {
+                System.out.println("✓ Connection successful!");
+                System.out.println("Status: " + response.statusCode());
+                System.out.println("Response: " + response.body());
+            }
             
             return response.statusCode() == 200;
             
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
         } catch (Exception e) {
-            System.err.println("✗ Connection failed: " + e.getMessage());
-            e.printStackTrace();
+            if (verbose) {
+                System.err.println("✗ Connection failed: " + e.getMessage());
+                e.printStackTrace();
+            }
             return false;
         }
     }
@@ -288,7 +725,7 @@ public class LLMProcessor {
             System.out.println("  1. LM Studio is running");
             System.out.println("  2. A model is loaded");
             System.out.println("  3. Server is started");
-            System.out.println("  4. URL is correct: " + LM_STUDIO_URL);
+            System.out.println("  4. URLs are correct: " + endpointPool.getEndpoints());
         }
     }
 }
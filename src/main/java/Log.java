@@ -0,0 +1,149 @@
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Log - Leveled, asynchronous logging for the import pipeline's hot paths
+ *
+ * Callers only enqueue the message; a single daemon thread formats the
+ * timestamp and writes to stdout/stderr, so a slow console never stalls an
+ * LLM call or a database write. When the queue is full, messages are dropped
+ * and counted instead of blocking the caller.
+ *
+ * Set the level with -Dlog.level=DEBUG|INFO|WARN|ERROR (default INFO).
+ */
+public class Log {
+
+    public enum Level { DEBUG, INFO, WARN, ERROR }
+
+    private static final int QUEUE_CAPACITY = 4096;
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss.SSS")
+            .withZone(ZoneId.systemDefault());
+
+    private static final Level threshold = parseLevel(System.getProperty("log.level", "INFO"));
+    private static final BlockingQueue<Entry> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private static final AtomicLong dropped = new AtomicLong();
+
+    private static class Entry {
+        final long timestamp;
+        final Level level;
+        final String thread;
+        final String message;
+
+        Entry(Level level, String thread, String message) {
+            this.timestamp = System.currentTimeMillis();
+            this.level = level;
+            this.thread = thread;
+            this.message = message;
+        }
+    }
+
+    static {
+        Thread writer = new Thread(Log::drain, "log-writer");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(Log::flush, "log-flush"));
+    }
+
+    public static boolean isEnabled(Level level) {
+        return level.compareTo(threshold) >= 0;
+    }
+
+    public static boolean isDebugEnabled() {
+        return isEnabled(Level.DEBUG);
+    }
+
+    /**
+     * Logs a debug message built only when debug logging is enabled
+     */
+    public static void debug(Supplier<String> message) {
+        if (isDebugEnabled()) {
+            enqueue(Level.DEBUG, message.get());
+        }
+    }
+
+    public static void debug(String message) {
+        if (isDebugEnabled()) {
+            enqueue(Level.DEBUG, message);
+        }
+    }
+
+    public static void info(String message) {
+        if (isEnabled(Level.INFO)) {
+            enqueue(Level.INFO, message);
+        }
+    }
+
+    public static void warn(String message) {
+        if (isEnabled(Level.WARN)) {
+            enqueue(Level.WARN, message);
+        }
+    }
+
+    public static void error(String message) {
+        if (isEnabled(Level.ERROR)) {
+            enqueue(Level.ERROR, message);
+        }
+    }
+
+    /**
+     * Number of messages discarded because the queue was full
+     */
+    public static long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Writes out everything still queued, e.g. before the JVM exits
+     */
+    public static void flush() {
+        List<Entry> pending = new ArrayList<>();
+        queue.drainTo(pending);
+        for (Entry entry : pending) {
+            write(entry);
+        }
+        System.out.flush();
+        System.err.flush();
+    }
+
+    private static void enqueue(Level level, String message) {
+        if (!queue.offer(new Entry(level, Thread.currentThread().getName(), message))) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private static void drain() {
+        while (true) {
+            try {
+                write(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private static void write(Entry entry) {
+        String line = TIME_FORMAT.format(Instant.ofEpochMilli(entry.timestamp)) + " " + entry.level
+                + " [" + entry.thread + "] " + entry.message;
+        if (entry.level.compareTo(Level.WARN) >= 0) {
+            System.err.println(line);
+        } else {
+            System.out.println(line);
+        }
+    }
+
+    private static Level parseLevel(String value) {
+        try {
+            return Level.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return Level.INFO;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Metrics - Per-stage latency histograms and LLM token throughput
+ *
+ * Each pipeline stage (scrape, fetch, parse, DB write, LLM, embedding, and
+ * the whole article) has a log-linear histogram in the style of HdrHistogram:
+ * 16 sub-buckets per power of two, about 6% relative error, fixed memory, and
+ * lock-free recording via atomic bucket counters. Everything is exposed over JMX under the
+ * "TechNews" domain (jconsole/VisualVM) and rendered by {@link #report()} for
+ * the GUI stats panel.
+ */
+public class Metrics {
+
+    public static final String SCRAPE = "scrape";
+    public static final String FETCH = "fetch";
+    public static final String PARSE = "parse";
+    public static final String DB_WRITE = "db.write";
+    public static final String LLM = "llm";
+    public static final String EMBED = "embed";
+    // One article end to end: fetch, analysis and embedding
+    public static final String ARTICLE = "article";
+
+    private static final String[] STAGES = {SCRAPE, FETCH, PARSE, DB_WRITE, LLM, EMBED, ARTICLE};
+    private static final String JMX_DOMAIN = "TechNews";
+
+    private static final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private static final LongAdder promptTokens = new LongAdder();
+    private static final LongAdder completionTokens = new LongAdder();
+    private static final LongAdder generationNanos = new LongAdder();
+
+    /**
+     * JMX view of one stage's latency distribution
+     */
+    public interface StageMXBean {
+        long getCount();
+        double getMeanMillis();
+        double getP50Millis();
+        double getP95Millis();
+        double getP99Millis();
+        double getMaxMillis();
+    }
+
+    /**
+     * JMX view of LLM token usage
+     */
+    public interface ThroughputMXBean {
+        long getPromptTokens();
+        long getCompletionTokens();
+        double getTokensPerSecond();
+        long getDroppedLogMessages();
+    }
+
+    /**
+     * Histogram - Lock-free log-linear latency histogram in microseconds
+     */
+    public static class Histogram implements StageMXBean {
+        private static final int SUB_BUCKET_BITS = 4;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int BUCKET_COUNT = 64 * SUB_BUCKETS;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sumMicros = new LongAdder();
+        private final AtomicLong maxMicros = new AtomicLong();
+
+        /**
+         * Records one duration
+         * @param nanos The duration in nanoseconds
+         */
+        public void recordNanos(long nanos) {
+            long micros = Math.max(0, nanos / 1000);
+            counts.incrementAndGet(bucketIndex(micros));
+            count.increment();
+            sumMicros.add(micros);
+            if (micros > maxMicros.get()) {
+                maxMicros.accumulateAndGet(micros, Math::max);
+            }
+        }
+
+        /**
+         * Value at the given percentile, in milliseconds
+         * @param percentile 0-100
+         */
+        public double percentileMillis(double percentile) {
+            long total = count.sum();
+            if (total == 0) {
+                return 0;
+            }
+            long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                seen += counts.get(i);
+                if (seen >= target) {
+                    return Math.min(bucketMidpoint(i), maxMicros.get()) / 1000.0;
+                }
+            }
+            return maxMicros.get() / 1000.0;
+        }
+
+        @Override public long getCount() { return count.sum(); }
+        @Override public double getP50Millis() { return percentileMillis(50); }
+        @Override public double getP95Millis() { return percentileMillis(95); }
+        @Override public double getP99Millis() { return percentileMillis(99); }
+        @Override public double getMaxMillis() { return maxMicros.get() / 1000.0; }
+
+        @Override
+        public double getMeanMillis() {
+            long total = count.sum();
+            return total == 0 ? 0 : sumMicros.sum() / 1000.0 / total;
+        }
+
+        // Values below 16 map to themselves; above that, the top 5 bits select the bucket
+        static int bucketIndex(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+            return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+        }
+
+        static long bucketMidpoint(int index) {
+            if (index < 2 * SUB_BUCKETS) {
+                return index;
+            }
+            int shift = (index >> SUB_BUCKET_BITS) - 1;
+            long mantissa = index - ((long) shift << SUB_BUCKET_BITS);
+            return (mantissa << shift) + (1L << shift) / 2;
+        }
+    }
+
+    private static class Throughput implements ThroughputMXBean {
+        @Override public long getPromptTokens() { return promptTokens.sum(); }
+        @Override public long getCompletionTokens() { return completionTokens.sum(); }
+        @Override public double getTokensPerSecond() { return Metrics.getTokensPerSecond(); }
+        @Override public long getDroppedLogMessages() { return Log.getDroppedCount(); }
+    }
+
+    static {
+        for (String stage : STAGES) {
+            histogram(stage);
+        }
+        register(JMX_DOMAIN + ":type=Throughput", new Throughput());
+    }
+
+    /**
+     * Returns the histogram for a stage, creating and registering it on first use
+     */
+    public static Histogram histogram(String stage) {
+        return histograms.computeIfAbsent(stage, name -> {
+            Histogram histogram = new Histogram();
+            register(JMX_DOMAIN + ":type=Stage,name=" + name, histogram);
+            return histogram;
+        });
+    }
+
+    /**
+     * Records the time elapsed since a {@link System#nanoTime()} reading
+     * @param stage The stage name, e.g. {@link #FETCH}
+     * @param startNanos The value of System.nanoTime() when the stage started
+     */
+    public static void recordSince(String stage, long startNanos) {
+        histogram(stage).recordNanos(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Records token usage reported by a chat completion
+     * @param prompt Prompt tokens from the response's usage field
+     * @param completion Completion tokens from the response's usage field
+     * @param nanos Wall-clock time of the request
+     */
+    public static void recordTokens(long prompt, long completion, long nanos) {
+        promptTokens.add(prompt);
+        completionTokens.add(completion);
+        generationNanos.add(nanos);
+    }
+
+    /**
+     * Completion tokens generated per second of LLM request time, across all calls
+     */
+    public static double getTokensPerSecond() {
+        long nanos = generationNanos.sum();
+        return nanos == 0 ? 0 : completionTokens.sum() * 1e9 / nanos;
+    }
+
+    /**
+     * Renders all stages as a fixed-width table
+     */
+    public static String report() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%-9s %7s %9s %9s %9s %9s%n", "stage", "count", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        for (String stage : STAGES) {
+            Histogram h = histogram(stage);
+            report.append(String.format("%-9s %7d %9.1f %9.1f %9.1f %9.1f%n", stage, h.getCount(),
+                    h.getP50Millis(), h.getP95Millis(), h.getP99Millis(), h.getMaxMillis()));
+        }
+        report.append(String.format("%nLLM tokens: %d prompt, %d completion, %.1f tok/s",
+                promptTokens.sum(), completionTokens.sum(), getTokensPerSecond()));
+        return report.toString();
+    }
+
+    private static void register(String name, Object mbean) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(name);
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(mbean, objectName);
+            }
+        } catch (JMException e) {
+            Log.warn("Could not register JMX bean " + name + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,129 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * NearDuplicateDetector - Computes SimHash fingerprints of article text
+ * so that syndicated or lightly rewritten stories can be recognised
+ * without another LLM call.
+ *
+ * The 64-bit fingerprint is split into {@link #BANDS} bands of
+ * {@link #BAND_BITS} bits. Two fingerprints within {@link #MAX_HAMMING_DISTANCE}
+ * bits of each other always share at least one identical band, so the band
+ * index in the database only has to look up exact band values.
+ */
+public class NearDuplicateDetector {
+
+    public static final int BANDS = 4;
+    public static final int BAND_BITS = 64 / BANDS;
+    public static final int MAX_HAMMING_DISTANCE = 3;
+
+    private static final int SHINGLE_SIZE = 3;
+    private static final int MIN_TOKENS = 40;
+
+    /**
+     * Computes the SimHash fingerprint of the given article text
+     * @param text The full article text
+     * @return The 64-bit fingerprint, or null if the text is too short or is a fetch placeholder
+     */
+    public static Long fingerprint(String text) {
+        if (!isUsableText(text)) {
+            return null;
+        }
+
+        List<String> tokens = tokenize(text);
+        if (tokens.size() < MIN_TOKENS) {
+            return null;
+        }
+
+        // Weight each shingle by how often it occurs
+        Map<String, Integer> shingles = new HashMap<>();
+        for (int i = 0; i + SHINGLE_SIZE <= tokens.size(); i++) {
+            String shingle = String.join(" ", tokens.subList(i, i + SHINGLE_SIZE));
+            shingles.merge(shingle, 1, Integer::sum);
+        }
+
+        int[] weights = new int[64];
+        for (Map.Entry<String, Integer> entry : shingles.entrySet()) {
+            long hash = hash64(entry.getKey());
+            int weight = entry.getValue();
+            for (int bit = 0; bit < 64; bit++) {
+                if (((hash >>> bit) & 1L) != 0) {
+                    weights[bit] += weight;
+                } else {
+                    weights[bit] -= weight;
+                }
+            }
+        }
+
+        long fingerprint = 0L;
+        for (int bit = 0; bit < 64; bit++) {
+            if (weights[bit] > 0) {
+                fingerprint |= 1L << bit;
+            }
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Returns the number of differing bits between two fingerprints
+     */
+    public static int hammingDistance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    /**
+     * Checks whether two fingerprints are close enough to count as the same story
+     */
+    public static boolean isNearDuplicate(long a, long b) {
+        return hammingDistance(a, b) <= MAX_HAMMING_DISTANCE;
+    }
+
+    /**
+     * Extracts one band of the fingerprint for the LSH band index
+     * @param fingerprint The 64-bit fingerprint
+     * @param band Band number, 0 to BANDS - 1
+     * @return The band value as an unsigned integer
+     */
+    public static int bandValue(long fingerprint, int band) {
+        return (int) ((fingerprint >>> (band * BAND_BITS)) & ((1L << BAND_BITS) - 1));
+    }
+
+    /**
+     * Checks that the text is real article content and not a fetch placeholder
+     */
+    public static boolean isUsableText(String text) {
+        return text != null && !text.isEmpty() &&
+               !text.equals("Article text not available") &&
+               !text.equals("Failed to fetch article text");
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * 64-bit FNV-1a followed by a murmur-style finalizer to spread the bits
+     */
+    private static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,194 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * PromptCompressor - Extractive compression of article text before it is sent
+ * to the LLM
+ *
+ * Paragraphs (as produced by {@link ArticleFetcher}) are scored by TF-IDF
+ * cosine similarity to the article as a whole, plus a boost for words shared
+ * with the title and a small bonus for the lead paragraph. The best
+ * paragraphs are kept within a token budget and emitted in their original
+ * order. Runs locally on the CPU; no model or network call is involved.
+ */
+public class PromptCompressor {
+
+    private static final String OMISSION_MARKER = "[...]";
+    private static final int MIN_PARAGRAPH_WORDS = 6;
+    private static final double TITLE_WEIGHT = 0.3;
+    private static final double LEAD_BONUS = 0.15;
+
+    private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+            "a", "an", "and", "are", "as", "at", "be", "been", "but", "by", "can", "for", "from",
+            "had", "has", "have", "he", "her", "his", "i", "if", "in", "into", "is", "it", "its",
+            "more", "not", "of", "on", "or", "our", "said", "she", "so", "than", "that", "the",
+            "their", "them", "there", "they", "this", "to", "was", "we", "were", "which", "who",
+            "will", "with", "would", "you", "your"));
+
+    /**
+     * Reduces article text to its most informative paragraphs within a token budget
+     * @param text The full article text, paragraphs separated by blank lines
+     * @param title The article title, used to favour on-topic paragraphs
+     * @param tokenBudget Maximum estimated tokens of the returned text
+     * @return The compressed text; the original text if it already fits
+     */
+    public static String compress(String text, String title, int tokenBudget) {
+        if (text == null || TokenEstimator.estimate(text) <= tokenBudget) {
+            return text;
+        }
+
+        List<String> paragraphs = new ArrayList<>();
+        for (String paragraph : text.split("\\n\\s*\\n")) {
+            if (!paragraph.isBlank()) {
+                paragraphs.add(paragraph.trim());
+            }
+        }
+
+        double[] scores = scoreParagraphs(paragraphs, title);
+
+        // Greedily take the best paragraphs that still fit the budget
+        Integer[] order = new Integer[paragraphs.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(scores[b], scores[a]));
+
+        boolean[] selected = new boolean[paragraphs.size()];
+        int markerTokens = TokenEstimator.estimate(OMISSION_MARKER);
+        int used = 0;
+        for (int index : order) {
+            int cost = TokenEstimator.estimate(paragraphs.get(index)) + markerTokens;
+            if (used + cost <= tokenBudget) {
+                selected[index] = true;
+                used += cost;
+            }
+        }
+
+        StringBuilder compressed = new StringBuilder();
+        boolean skipped = false;
+        for (int i = 0; i < paragraphs.size(); i++) {
+            if (!selected[i]) {
+                skipped = true;
+                continue;
+            }
+            if (skipped && compressed.length() > 0) {
+                compressed.append(OMISSION_MARKER).append("\n\n");
+            }
+            compressed.append(paragraphs.get(i)).append("\n\n");
+            skipped = false;
+        }
+
+        // Nothing fit (one huge paragraph): fall back to a hard cut at the budget
+        if (compressed.length() == 0) {
+            return truncateToBudget(paragraphs.get(order[0]), tokenBudget);
+        }
+        return compressed.toString().trim();
+    }
+
+    /**
+     * Scores each paragraph by TF-IDF cosine similarity to the article centroid
+     */
+    private static double[] scoreParagraphs(List<String> paragraphs, String title) {
+        int count = paragraphs.size();
+        List<Map<String, Integer>> termCounts = new ArrayList<>();
+        Map<String, Integer> documentFrequency = new HashMap<>();
+
+        for (String paragraph : paragraphs) {
+            Map<String, Integer> counts = new HashMap<>();
+            for (String term : terms(paragraph)) {
+                counts.merge(term, 1, Integer::sum);
+            }
+            for (String term : counts.keySet()) {
+                documentFrequency.merge(term, 1, Integer::sum);
+            }
+            termCounts.add(counts);
+        }
+
+        // TF-IDF vectors and the centroid of the whole article
+        List<Map<String, Double>> vectors = new ArrayList<>();
+        Map<String, Double> centroid = new HashMap<>();
+        for (Map<String, Integer> counts : termCounts) {
+            Map<String, Double> vector = new HashMap<>();
+            for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+                double idf = Math.log(1.0 + (double) count / documentFrequency.get(entry.getKey()));
+                double weight = (1.0 + Math.log(entry.getValue())) * idf;
+                vector.put(entry.getKey(), weight);
+                centroid.merge(entry.getKey(), weight, Double::sum);
+            }
+            vectors.add(vector);
+        }
+
+        Set<String> titleTerms = new HashSet<>(terms(title == null ? "" : title));
+        double[] scores = new double[count];
+        for (int i = 0; i < count; i++) {
+            Map<String, Integer> counts = termCounts.get(i);
+            int words = 0;
+            for (int n : counts.values()) {
+                words += n;
+            }
+            if (words < MIN_PARAGRAPH_WORDS) {
+                // Bylines, captions, "Related:" links and similar boilerplate
+                scores[i] = -1;
+                continue;
+            }
+
+            double score = cosine(vectors.get(i), centroid);
+            if (!titleTerms.isEmpty()) {
+                int shared = 0;
+                for (String term : titleTerms) {
+                    if (counts.containsKey(term)) {
+                        shared++;
+                    }
+                }
+                score += TITLE_WEIGHT * shared / titleTerms.size();
+            }
+            if (i == 0) {
+                score += LEAD_BONUS;
+            }
+            scores[i] = score;
+        }
+        return scores;
+    }
+
+    private static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (token.length() > 1 && !STOP_WORDS.contains(token)) {
+                terms.add(token);
+            }
+        }
+        return terms;
+    }
+
+    private static double cosine(Map<String, Double> a, Map<String, Double> b) {
+        double dot = 0;
+        double normA = 0;
+        for (Map.Entry<String, Double> entry : a.entrySet()) {
+            double value = entry.getValue();
+            normA += value * value;
+            Double other = b.get(entry.getKey());
+            if (other != null) {
+                dot += value * other;
+            }
+        }
+        double normB = 0;
+        for (double value : b.values()) {
+            normB += value * value;
+        }
+        return normA == 0 || normB == 0 ? 0 : dot / Math.sqrt(normA * normB);
+    }
+
+    private static String truncateToBudget(String text, int tokenBudget) {
+        int end = text.length();
+        while (end > 0 && TokenEstimator.estimate(text.substring(0, end)) > tokenBudget) {
+            end = end * 9 / 10;
+        }
+        return text.substring(0, end) + "...";
+    }
+}
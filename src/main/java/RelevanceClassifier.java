@@ -0,0 +1,185 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * RelevanceClassifier - Cheap local estimate of whether an article is worth a full LLM analysis
+ *
+ * Logistic regression over hashed word features of the title, snippet and
+ * URL path (the section, e.g. /podcast/ or /events/), trained on the
+ * relevance scores the LLM already gave to earlier articles. A prediction is
+ * a few dozen array reads, so it costs microseconds instead of a fetch and a
+ * model call. Every new LLM score is fed back with one gradient step, so the
+ * model keeps learning as articles are analyzed.
+ *
+ * The classifier predicts the probability that the LLM would score an
+ * article at least -Dclassifier.positiveScore (default 5).
+ */
+public class RelevanceClassifier {
+
+    public static final int POSITIVE_SCORE = Integer.getInteger("classifier.positiveScore", 5);
+    // Below this many labelled articles (or with only one class seen) predictions are not trusted
+    public static final int MIN_EXAMPLES = Integer.getInteger("classifier.minExamples", 100);
+
+    private static final int HASH_BITS = 18;
+    private static final int MASK = (1 << HASH_BITS) - 1;
+    private static final int MAX_FEATURES = 256;
+    private static final double LEARNING_RATE = 0.1;
+    private static final double L2 = 1e-6;
+    private static final int INITIAL_EPOCHS = 5;
+
+    private static final char TITLE = 't';
+    private static final char SNIPPET = 's';
+    private static final char URL = 'u';
+
+    private final float[] weights = new float[1 << HASH_BITS];
+    private float bias;
+    private int examples;
+    private int positives;
+
+    /**
+     * Example - A labelled article for the initial fit
+     */
+    public static class Example {
+        private final String title;
+        private final String snippet;
+        private final String url;
+        private final int relevanceScore;
+
+        public Example(String title, String snippet, String url, int relevanceScore) {
+            this.title = title;
+            this.snippet = snippet;
+            this.url = url;
+            this.relevanceScore = relevanceScore;
+        }
+    }
+
+    /**
+     * Trains a new model on historical scores, several passes in shuffled order
+     */
+    public static RelevanceClassifier fit(List<Example> history) {
+        RelevanceClassifier classifier = new RelevanceClassifier();
+        List<Example> shuffled = new ArrayList<>(history);
+        Random random = new Random(42);
+        for (int epoch = 0; epoch < INITIAL_EPOCHS; epoch++) {
+            Collections.shuffle(shuffled, random);
+            for (Example example : shuffled) {
+                classifier.step(example.title, example.snippet, example.url, example.relevanceScore);
+            }
+        }
+        // Counts are per article, not per pass
+        classifier.examples = history.size();
+        classifier.positives = (int) history.stream().filter(e -> e.relevanceScore >= POSITIVE_SCORE).count();
+        return classifier;
+    }
+
+    /**
+     * Probability that the LLM would score the article at least {@link #POSITIVE_SCORE}
+     */
+    public synchronized double predict(String title, String snippet, String url) {
+        int[] features = new int[MAX_FEATURES];
+        int count = features(title, snippet, url, features);
+        return sigmoid(score(features, count));
+    }
+
+    /**
+     * Learns from one article the LLM has just scored
+     */
+    public synchronized void train(String title, String snippet, String url, int relevanceScore) {
+        step(title, snippet, url, relevanceScore);
+        examples++;
+        if (relevanceScore >= POSITIVE_SCORE) {
+            positives++;
+        }
+    }
+
+    /**
+     * Whether the model has seen enough scored articles of both kinds to be used
+     */
+    public synchronized boolean isReady() {
+        return examples >= MIN_EXAMPLES && positives > 0 && positives < examples;
+    }
+
+    public synchronized int getExamples() { return examples; }
+
+    private void step(String title, String snippet, String url, int relevanceScore) {
+        int[] features = new int[MAX_FEATURES];
+        int count = features(title, snippet, url, features);
+        double label = relevanceScore >= POSITIVE_SCORE ? 1 : 0;
+        double error = sigmoid(score(features, count)) - label;
+        float value = featureValue(count);
+
+        for (int i = 0; i < count; i++) {
+            int index = features[i];
+            weights[index] -= (float) (LEARNING_RATE * (error * value + L2 * weights[index]));
+        }
+        bias -= (float) (LEARNING_RATE * error);
+    }
+
+    private double score(int[] features, int count) {
+        float value = featureValue(count);
+        double sum = bias;
+        for (int i = 0; i < count; i++) {
+            sum += weights[features[i]] * value;
+        }
+        return sum;
+    }
+
+    // Scales each article's feature vector to unit length, so long snippets don't dominate
+    private static float featureValue(int count) {
+        return count == 0 ? 0 : (float) (1.0 / Math.sqrt(count));
+    }
+
+    private static double sigmoid(double x) {
+        return 1.0 / (1.0 + Math.exp(-x));
+    }
+
+    /**
+     * Hashes the words of each field into feature indexes without building strings:
+     * title words and word pairs, snippet words, and words of the URL path
+     */
+    static int features(String title, String snippet, String url, int[] out) {
+        int count = hashWords(title, TITLE, true, out, 0);
+        count = hashWords(snippet, SNIPPET, false, out, count);
+        if (url != null) {
+            // Skip scheme and host, e.g. https://techcrunch.com
+            int pathStart = url.indexOf('/', url.indexOf("//") + 2);
+            if (pathStart > 0) {
+                count = hashWords(url.substring(pathStart), URL, false, out, count);
+            }
+        }
+        return count;
+    }
+
+    private static int hashWords(String text, char field, boolean pairs, int[] out, int count) {
+        if (text == null) {
+            return count;
+        }
+        int hash = 0;
+        int length = 0;
+        int previous = 0;
+        for (int i = 0; i <= text.length() && count < out.length; i++) {
+            char c = i < text.length() ? Character.toLowerCase(text.charAt(i)) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                hash = (length == 0 ? fnv(0x811C9DC5, field) : hash);
+                hash = fnv(hash, c);
+                length++;
+                continue;
+            }
+            if (length >= 2) {
+                out[count++] = hash & MASK;
+                if (pairs && previous != 0 && count < out.length) {
+                    out[count++] = (previous * 31 + hash) * 0x9E3779B1 >>> (32 - HASH_BITS);
+                }
+                previous = hash;
+            }
+            length = 0;
+        }
+        return count;
+    }
+
+    private static int fnv(int hash, char c) {
+        return (hash ^ c) * 0x01000193;
+    }
+}
@@ -14,9 +14,11 @@ import java.util.List;
  */
 public class TechNewsScraper {
     
-    private static final String TECH_NEWS_URL = "https://techcrunch.com/";
+    public static final String TECH_NEWS_URL = "https://techcrunch.com/";
     private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36";
     private static final int TIMEOUT = 10000;
+    // Cards taken from the front page; raise with -Dscraper.maxArticles=N
+    private static final int MAX_ARTICLES = Integer.getInteger("scraper.maxArticles", 10);
     
     /**
      * NewsArticle - Represents a scraped news article
@@ -26,6 +28,7 @@ public class TechNewsScraper {
         private final String snippet;
         private final String url;
         private String articleText;
+        private String canonicalLink;
         
         public NewsArticle(String title, String snippet, String url) {
             this.title = title;
@@ -54,6 +57,17 @@ public class TechNewsScraper {
             this.articleText = text; 
         }
         
+        /**
+         * The page's rel=canonical URL, known once the article has been fetched
+         */
+        public String getCanonicalLink() { 
+            return canonicalLink; 
+        }
+        
+        public void setCanonicalLink(String canonicalLink) { 
+            this.canonicalLink = canonicalLink; 
+        }
+        
         @Override
         public String toString() {
             return "━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n" +
@@ -70,8 +84,6 @@ public class TechNewsScraper {
      * @throws IOException if connection fails
      */
     public static List<NewsArticle> scrapeTechNews(String url) throws IOException {
-        List<NewsArticle> articles = new ArrayList<>();
-        
         System.out.println("Connecting to: " + url);
         
         // Connect to website and get HTML document
@@ -83,6 +95,17 @@ public class TechNewsScraper {
         System.out.println("Successfully connected to " + doc.title());
         System.out.println("Scraping articles...\n");
         
+        return extractArticles(doc);
+    }
+    
+    /**
+     * Extracts article cards from a parsed front page
+     * @param doc The front page document, with its base URI set for absolute links
+     * @return Up to MAX_ARTICLES NewsArticle objects
+     */
+    public static List<NewsArticle> extractArticles(Document doc) {
+        List<NewsArticle> articles = new ArrayList<>();
+        
         // Select article elements (TechCrunch specific selectors)
         // Updated selector for loop-card structure
         Elements articleElements = doc.select("div.loop-card");
@@ -122,8 +145,8 @@ public class TechNewsScraper {
                 
                 articles.add(new NewsArticle(title, snippet, articleUrl));
                 
-                // Limit to first 10 articles
-                if (articles.size() >= 10) {
+                // Limit to the first MAX_ARTICLES articles
+                if (articles.size() >= MAX_ARTICLES) {
                     break;
                 }
             } catch (Exception e) {
@@ -135,72 +158,6 @@ public class TechNewsScraper {
         return articles;
     }
     
-    /**
-     * Processes articles: fetches full text and saves to database
-     * @param articles List of articles to process
-     */
-    private static void processArticles(List<NewsArticle> articles) {
-        int successCount = 0;
-        int analysisCount = 0;
-        
-        for (int i = 0; i < articles.size(); i++) {
-            NewsArticle article = articles.get(i);
-            System.out.println("\n" + "=".repeat(60));
-            System.out.println("Article #" + (i + 1) + " of " + articles.size());
-            System.out.println("=".repeat(60));
-            System.out.println("Title: " + article.getTitle());
-            System.out.println("URL: " + article.getUrl());
-            
-            // Fetch full article text
-            if (!article.getUrl().isEmpty()) {
-                System.out.println("\n[1/3] Fetching full article text...");
-                String fullText = ArticleFetcher.fetchArticleText(article.getUrl());
-                article.setArticleText(fullText);
-                
-                // Save to database
-                try {
-                    System.out.println("[2/3] Saving to database...");
-                    ArticleDatabase.saveArticle(article);
-                    System.out.println("✓ Article saved");
-                    successCount++;
-                    
-                    // Analyze with LLM
-                    System.out.println("[3/3] Analyzing with LLM...");
-                    try {
-                        LLMProcessor.ArticleAnalysis analysis = LLMProcessor.analyzeArticle(article);
-                        
-                        // Display analysis
-                        System.out.println("\n--- LLM Analysis ---");
-                        System.out.println("Summary: " + analysis.getSummary());
-                        System.out.println("Topics: " + String.join(", ", analysis.getTopics()));
-                        System.out.println("Key Points:");
-                        for (String point : analysis.getKeyPoints()) {
-                            System.out.println("  • " + point);
-                        }
-                        System.out.println("Relevance Score: " + analysis.getRelevanceScore() + "/10");
-                        
-                        // Save analysis
-                        ArticleDatabase.saveAnalysis(article.getUrl(), analysis);
-                        System.out.println("✓ Analysis saved");
-                        analysisCount++;
-                        
-                    } catch (Exception e) {
-                        System.err.println("✗ LLM analysis failed: " + e.getMessage());
-                    }
-                    
-                } catch (SQLException e) {
-                    System.err.println("✗ Failed to save article: " + e.getMessage());
-                }
-            }
-        }
-        
-        System.out.println("\n" + "=".repeat(60));
-        System.out.println("Processing Complete");
-        System.out.println("=".repeat(60));
-        System.out.println("Articles saved: " + successCount + "/" + articles.size());
-        System.out.println("Articles analyzed: " + analysisCount + "/" + articles.size());
-    }
-    
     /**
      * Main entry point
      */
@@ -213,20 +170,20 @@ public class TechNewsScraper {
             // Initialize database
             ArticleDatabase.initialize();
             
-            // Scrape articles
-            List<NewsArticle> articles = scrapeTechNews(TECH_NEWS_URL);
+            // Scrape, queue and process articles, resuming unfinished work from earlier runs.
+            // Safe next to other imports: each one leases the articles it works on.
+            ImportPipeline pipeline = new ImportPipeline(System.out::println);
+            ImportPipeline.ImportResult result = pipeline.run(TECH_NEWS_URL);
             
-            if (articles.isEmpty()) {
-                System.out.println("No articles found. The website structure might have changed.");
-            } else {
-                System.out.println("Found " + articles.size() + " articles\n");
-                processArticles(articles);
-                
+            if (result.getProcessed() > 0) {
                 System.out.println("\n╔════════════════════════════════════════════╗");
                 System.out.println("║ All articles saved to tech_news.db         ║");
                 System.out.println("╚════════════════════════════════════════════╝");
             }
             
+            System.out.println("\nStage timings:");
+            System.out.println(Metrics.report());
+            
         } catch (IOException e) {
             System.err.println("Error scraping website: " + e.getMessage());
             e.printStackTrace();
@@ -0,0 +1,188 @@
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * TopicTrends - Rolling per-topic mention counts and surge detection
+ *
+ * Keeps a ring of daily counters per topic covering the last
+ * windows * windowDays days. Topics are interned to int ids and days are keyed
+ * by epoch day, so recording an analysis is a couple of array writes and a
+ * trend query costs O(topics * days in the ring), however much history the
+ * database holds. Days that fall out of the ring are overwritten as newer
+ * days arrive.
+ *
+ * A topic's trend compares its count in the current window (the last
+ * windowDays days up to today) with the previous window, and with the mean
+ * and standard deviation of all earlier windows in the ring (the z-score).
+ */
+public class TopicTrends {
+
+    private static final int DEFAULT_WINDOW_DAYS = Integer.getInteger("trends.windowDays", 7);
+    private static final int DEFAULT_WINDOWS = Integer.getInteger("trends.windows", 8);
+
+    private final int windowDays;
+    private final int windows;
+    private final int ringDays;
+
+    // Epoch day held by each ring slot; counts in a slot are stale if it differs
+    private final long[] slotDay;
+    private final Map<String, Integer> topicIds = new HashMap<>();
+    private final List<String> labels = new ArrayList<>();
+    private int[][] counts = new int[16][];
+
+    /**
+     * Trend - One topic's recent mentions against its history
+     */
+    public static class Trend {
+        private final String topic;
+        private final int current;
+        private final int previous;
+        private final double baselineMean;
+        private final double zScore;
+
+        public Trend(String topic, int current, int previous, double baselineMean, double zScore) {
+            this.topic = topic;
+            this.current = current;
+            this.previous = previous;
+            this.baselineMean = baselineMean;
+            this.zScore = zScore;
+        }
+
+        public String getTopic() { return topic; }
+        public int getCurrent() { return current; }
+        public int getPrevious() { return previous; }
+        public int getDelta() { return current - previous; }
+        public double getBaselineMean() { return baselineMean; }
+        public double getZScore() { return zScore; }
+    }
+
+    public TopicTrends() {
+        this(DEFAULT_WINDOW_DAYS, DEFAULT_WINDOWS);
+    }
+
+    /**
+     * @param windowDays Days per window, e.g. 7 for week over week
+     * @param windows Windows kept, including the current one; at least 2
+     */
+    public TopicTrends(int windowDays, int windows) {
+        this.windowDays = Math.max(1, windowDays);
+        this.windows = Math.max(2, windows);
+        this.ringDays = this.windowDays * this.windows;
+        this.slotDay = new long[ringDays];
+        Arrays.fill(slotDay, Long.MIN_VALUE);
+    }
+
+    public int getWindowDays() { return windowDays; }
+
+    /**
+     * Adds to a topic's count for a day. Days older than the ring are ignored.
+     * @param topic The topic as produced by the analysis; case and spacing are normalized
+     * @param day The day the article was scraped
+     * @param delta Usually 1, or -1 when an analysis is replaced
+     */
+    public synchronized void add(String topic, LocalDate day, int delta) {
+        String key = normalize(topic);
+        if (key.isEmpty()) {
+            return;
+        }
+        long epochDay = day.toEpochDay();
+        int slot = slot(epochDay);
+        if (slotDay[slot] != epochDay) {
+            if (slotDay[slot] > epochDay) {
+                return;
+            }
+            // The slot still holds a day one ring length older: reuse it
+            for (int id = 0; id < labels.size(); id++) {
+                counts[id][slot] = 0;
+            }
+            slotDay[slot] = epochDay;
+        }
+        int id = topicId(key, topic.trim().replaceAll("\\s+", " "));
+        counts[id][slot] = Math.max(0, counts[id][slot] + delta);
+    }
+
+    /**
+     * Computes the trend of every topic mentioned in the current window
+     * @param today The last day of the current window
+     * @return Trends sorted by z-score, strongest surge first
+     */
+    public synchronized List<Trend> trends(LocalDate today) {
+        long end = today.toEpochDay();
+        List<Trend> trends = new ArrayList<>();
+        int[] windowCounts = new int[windows];
+
+        for (int id = 0; id < labels.size(); id++) {
+            // windowCounts[0] is the current window, [1] the one before, ...
+            Arrays.fill(windowCounts, 0);
+            for (int offset = 0; offset < ringDays; offset++) {
+                long epochDay = end - offset;
+                int slot = slot(epochDay);
+                if (slotDay[slot] == epochDay) {
+                    windowCounts[offset / windowDays] += counts[id][slot];
+                }
+            }
+            if (windowCounts[0] == 0) {
+                continue;
+            }
+
+            double mean = 0;
+            for (int w = 1; w < windows; w++) {
+                mean += windowCounts[w];
+            }
+            mean /= windows - 1;
+            double variance = 0;
+            for (int w = 1; w < windows; w++) {
+                variance += (windowCounts[w] - mean) * (windowCounts[w] - mean);
+            }
+            // Floor the deviation at 1 so that a topic with a flat history
+            // does not get an infinite score for its first mentions
+            double deviation = Math.max(1.0, Math.sqrt(variance / (windows - 1)));
+            double zScore = (windowCounts[0] - mean) / deviation;
+
+            trends.add(new Trend(labels.get(id), windowCounts[0], windowCounts[1], mean, zScore));
+        }
+
+        trends.sort(Comparator.comparingDouble(Trend::getZScore).reversed()
+                .thenComparing(Comparator.comparingInt(Trend::getCurrent).reversed()));
+        return trends;
+    }
+
+    /**
+     * First day still covered by the ring when the current window ends today
+     */
+    public LocalDate oldestDay(LocalDate today) {
+        return today.minusDays(ringDays - 1);
+    }
+
+    /**
+     * Key under which topic spellings are merged, e.g. "Machine  learning" and "machine learning"
+     */
+    public static String normalize(String topic) {
+        return topic == null ? "" : topic.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private int slot(long epochDay) {
+        return (int) Math.floorMod(epochDay, (long) ringDays);
+    }
+
+    private int topicId(String key, String label) {
+        Integer id = topicIds.get(key);
+        if (id != null) {
+            return id;
+        }
+        int newId = labels.size();
+        if (newId == counts.length) {
+            counts = Arrays.copyOf(counts, newId * 2);
+        }
+        counts[newId] = new int[ringDays];
+        topicIds.put(key, newId);
+        labels.add(label);
+        return newId;
+    }
+}
@@ -0,0 +1,219 @@
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * UrlCanonicalizer - Reduces the URL variants of one article to a single key
+ *
+ * Links to the same story arrive with tracking parameters (?utm_source=...),
+ * with and without a trailing slash, over http and https, with or without
+ * www, and as AMP pages. The database stores each article's canonical key
+ * next to its URL and dedupes on the key, so none of these variants is
+ * fetched or analyzed again. The URL itself is kept as it was found.
+ *
+ * Rules (all on by default):
+ *   -Dcanonical.dropParams=utm_*,fbclid,...  query parameters to remove; a trailing * matches a prefix
+ *   -Dcanonical.httpsOnly=true               http and https are the same article
+ *   -Dcanonical.stripWww=true                www.example.com and example.com are the same host
+ *   -Dcanonical.stripTrailingSlash=true      /story/ and /story are the same page
+ *   -Dcanonical.stripAmp=true                /news/story/amp/, /amp/news/story and amp.example.com are the AMP copy
+ *                                            of /news/story
+ *
+ * An amp path segment is only removed in front of or behind an article path:
+ * at least two segments (/2026/10/story, /news/story) or a single slug with a
+ * hyphen (/my-story). /tag/amp or /amp/ are pages of their own and kept.
+ *
+ * Host names are always lower-cased, default ports, fragments and empty
+ * parameters removed, and the remaining parameters sorted. Changing the
+ * rules only affects URLs stored afterwards.
+ *
+ * Usage (checks the rules against a table of known variants):
+ *   mvn compile exec:java -Dexec.mainClass="UrlCanonicalizer"
+ */
+public class UrlCanonicalizer {
+
+    private static final List<String> DROP_PARAMS = parseList(System.getProperty("canonical.dropParams",
+            "utm_*,fbclid,gclid,dclid,msclkid,mc_cid,mc_eid,_hsenc,_hsmi,guccounter,guce_referrer,"
+                    + "guce_referrer_sig,ref,ref_src,sr_share,tpcc,igshid,cmpid,amp,outputType"));
+    private static final boolean HTTPS_ONLY = !"false".equals(System.getProperty("canonical.httpsOnly"));
+    private static final boolean STRIP_WWW = !"false".equals(System.getProperty("canonical.stripWww"));
+    private static final boolean STRIP_TRAILING_SLASH =
+            !"false".equals(System.getProperty("canonical.stripTrailingSlash"));
+    private static final boolean STRIP_AMP = !"false".equals(System.getProperty("canonical.stripAmp"));
+
+    // Input and expected key with the default rules
+    private static final String[][] EXAMPLES = {
+            {"https://techcrunch.com/2026/10/18/story/", "https://techcrunch.com/2026/10/18/story"},
+            {"http://www.TechCrunch.com:80/2026/10/18/story", "https://techcrunch.com/2026/10/18/story"},
+            {"https://techcrunch.com/2026/10/18/story/?utm_source=x&utm_medium=y#comments",
+                    "https://techcrunch.com/2026/10/18/story"},
+            {"https://techcrunch.com/2026/10/18/story/?fbclid=abc&ref=home", "https://techcrunch.com/2026/10/18/story"},
+            {"https://example.com/search?q=ai&page=2", "https://example.com/search?page=2&q=ai"},
+            {"https://example.com/search?page=2&q=ai", "https://example.com/search?page=2&q=ai"},
+            {"https://example.com/story?amp=1", "https://example.com/story"},
+            {"https://example.com:8443/story", "https://example.com:8443/story"},
+            {"https://techcrunch.com/2026/10/18/story/amp/", "https://techcrunch.com/2026/10/18/story"},
+            {"https://example.com/amp/news/story", "https://example.com/news/story"},
+            {"https://example.com/startup-raises-funding/amp", "https://example.com/startup-raises-funding"},
+            {"https://amp.example.com/news/story", "https://example.com/news/story"},
+            {"https://example.com/tag/amp", "https://example.com/tag/amp"},
+            {"https://example.com/tag/amp/", "https://example.com/tag/amp"},
+            {"https://example.com/amp/", "https://example.com/amp"},
+            {"https://example.com/amp/tag", "https://example.com/amp/tag"},
+            {"https://example.com", "https://example.com/"},
+            {"mailto:news@example.com", "mailto:news@example.com"},
+            {"  not a url  ", "not a url"},
+    };
+
+    /**
+     * Returns the canonical key of a URL
+     * @param url An absolute http(s) URL as found on a page or in a feed
+     * @return The key, or the trimmed URL unchanged if it cannot be parsed
+     */
+    public static String canonicalize(String url) {
+        if (url == null) {
+            return null;
+        }
+        String trimmed = url.trim();
+        URI uri;
+        try {
+            uri = new URI(trimmed);
+        } catch (URISyntaxException e) {
+            return trimmed;
+        }
+        String scheme = uri.getScheme() == null ? null : uri.getScheme().toLowerCase(Locale.ROOT);
+        String host = uri.getHost();
+        if (host == null || !("http".equals(scheme) || "https".equals(scheme))) {
+            return trimmed;
+        }
+
+        host = host.toLowerCase(Locale.ROOT);
+        if (STRIP_WWW && host.startsWith("www.")) {
+            host = host.substring(4);
+        }
+        if (STRIP_AMP && host.startsWith("amp.")) {
+            host = host.substring(4);
+        }
+        if (HTTPS_ONLY) {
+            scheme = "https";
+        }
+        int port = uri.getPort();
+        boolean defaultPort = port == -1 || port == 80 || port == 443;
+
+        String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+        if (STRIP_AMP) {
+            path = stripAmp(path);
+        }
+        if (STRIP_TRAILING_SLASH) {
+            while (path.length() > 1 && path.endsWith("/")) {
+                path = path.substring(0, path.length() - 1);
+            }
+        }
+
+        StringBuilder key = new StringBuilder(scheme).append("://").append(host);
+        if (!defaultPort) {
+            key.append(':').append(port);
+        }
+        key.append(path);
+        String query = canonicalQuery(uri.getRawQuery());
+        if (!query.isEmpty()) {
+            key.append('?').append(query);
+        }
+        return key.toString();
+    }
+
+    private static String stripAmp(String path) {
+        String rest = path;
+        if (rest.endsWith("/amp")) {
+            rest = rest.substring(0, rest.length() - 4);
+        } else if (rest.endsWith("/amp/")) {
+            rest = rest.substring(0, rest.length() - 5);
+        } else if (rest.startsWith("/amp/")) {
+            rest = rest.substring(4);
+        } else {
+            return path;
+        }
+        return isArticlePath(rest) ? rest : path;
+    }
+
+    /**
+     * Whether a path looks like an article rather than a section or tag page
+     */
+    private static boolean isArticlePath(String path) {
+        List<String> segments = new ArrayList<>();
+        for (String segment : path.split("/")) {
+            if (!segment.isEmpty()) {
+                segments.add(segment);
+            }
+        }
+        return segments.size() >= 2 || (segments.size() == 1 && segments.get(0).contains("-"));
+    }
+
+    /**
+     * Keeps the parameters that identify the page, sorted so their order does not matter
+     */
+    private static String canonicalQuery(String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return "";
+        }
+        List<String> kept = new ArrayList<>();
+        for (String pair : rawQuery.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int equals = pair.indexOf('=');
+            String name = equals < 0 ? pair : pair.substring(0, equals);
+            if (!dropped(name)) {
+                kept.add(pair);
+            }
+        }
+        kept.sort(null);
+        return String.join("&", kept);
+    }
+
+    private static boolean dropped(String name) {
+        for (String rule : DROP_PARAMS) {
+            boolean matches = rule.endsWith("*")
+                    ? name.regionMatches(true, 0, rule, 0, rule.length() - 1)
+                    : name.equalsIgnoreCase(rule);
+            if (matches) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<String> parseList(String value) {
+        List<String> items = new ArrayList<>();
+        for (String item : value.split(",")) {
+            if (!item.isBlank()) {
+                items.add(item.trim());
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Main entry point: checks the rules against the example table.
+     * Run without -Dcanonical.* overrides, the table assumes the default rules.
+     */
+    public static void main(String[] args) {
+        int failed = 0;
+        for (String[] example : EXAMPLES) {
+            String actual = canonicalize(example[0]);
+            if (actual.equals(example[1])) {
+                System.out.println("✓ " + example[0] + " -> " + actual);
+            } else {
+                failed++;
+                System.out.println("✗ " + example[0] + " -> " + actual + " (expected " + example[1] + ")");
+            }
+        }
+        System.out.println(failed == 0 ? "[OK] All " + EXAMPLES.length + " examples match"
+                : "[FAIL] " + failed + " of " + EXAMPLES.length + " examples differ");
+        if (failed > 0) {
+            System.exit(1);
+        }
+    }
+}